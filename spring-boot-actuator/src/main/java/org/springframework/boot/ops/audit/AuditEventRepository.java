@@ -42,4 +42,11 @@ public interface AuditEventRepository {
 	 */
 	void add(AuditEvent event);
 
+	/**
+	 * Log a batch of events.
+	 * 
+	 * @param events the audit events to log
+	 */
+	void add(List<AuditEvent> events);
+
 }
@@ -16,54 +16,161 @@
 
 package org.springframework.boot.ops.audit;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * In-memory {@link AuditEventRepository} implementation.
+ * In-memory {@link AuditEventRepository} implementation. Events are held per principal
+ * in timestamp order, bounded both by a per-principal {@link #setCapacity(int)
+ * capacity} and by a {@link #setMaxEvents(int) global maximum}, so that a long running
+ * application does not accumulate events (or principals) without limit.
+ * 
+ * <p>
+ * Each principal's events are published as an immutable snapshot, so {@link #find}
+ * never blocks (or is blocked by) concurrent calls to {@link #add} and uses a binary
+ * search to honor the {@code after} timestamp.
  * 
  * @author Dave Syer
  */
 public class InMemoryAuditEventRepository implements AuditEventRepository {
 
+	private static final Object NULL_PRINCIPAL = new Object();
+
+	private static final AuditEvent[] NO_EVENTS = {};
+
+	private final ConcurrentMap<Object, AuditEvent[]> events = new ConcurrentHashMap<Object, AuditEvent[]>();
+
+	private final Set<AuditEvent> insertionOrder = new LinkedHashSet<AuditEvent>();
+
+	private final Object monitor = new Object();
+
 	private int capacity = 100;
 
-	private Map<String, List<AuditEvent>> events = new HashMap<String, List<AuditEvent>>();
+	private int maxEvents = 10000;
 
 	/**
+	 * Set the maximum number of events kept for each principal. Defaults to 100.
 	 * @param capacity the capacity to set
 	 */
 	public void setCapacity(int capacity) {
 		this.capacity = capacity;
 	}
 
+	/**
+	 * Set the maximum number of events kept for all principals together. Only the most
+	 * recently added events are kept. Defaults to 10000.
+	 * @param maxEvents the maximum number of events
+	 */
+	public void setMaxEvents(int maxEvents) {
+		this.maxEvents = maxEvents;
+	}
+
 	@Override
 	public List<AuditEvent> find(String principal, Date after) {
-		synchronized (this.events) {
-			return Collections.unmodifiableList(getEvents(principal));
+		AuditEvent[] snapshot = this.events.get(getKey(principal));
+		if (snapshot == null) {
+			return Collections.emptyList();
 		}
+		int from = (after == null ? 0 : indexAfter(snapshot, after.getTime()));
+		return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(snapshot,
+				from, snapshot.length)));
 	}
 
-	private List<AuditEvent> getEvents(String principal) {
-		if (!this.events.containsKey(principal)) {
-			this.events.put(principal, new ArrayList<AuditEvent>());
+	@Override
+	public void add(AuditEvent event) {
+		synchronized (this.monitor) {
+			doAdd(event);
 		}
-		return this.events.get(principal);
 	}
 
 	@Override
-	public void add(AuditEvent event) {
-		synchronized (this.events) {
-			List<AuditEvent> list = getEvents(event.getPrincipal());
-			while (list.size() >= this.capacity) {
-				list.remove(0);
+	public void add(List<AuditEvent> events) {
+		synchronized (this.monitor) {
+			for (AuditEvent event : events) {
+				doAdd(event);
+			}
+		}
+	}
+
+	private void doAdd(AuditEvent event) {
+		Object key = getKey(event.getPrincipal());
+		AuditEvent[] current = this.events.get(key);
+		current = (current == null ? NO_EVENTS : current);
+		int index = indexAfter(current, event.getTimestamp().getTime());
+		int drop = (current.length >= this.capacity ? current.length - this.capacity + 1
+				: 0);
+		if (index < drop) {
+			// Older than everything that would be kept
+			return;
+		}
+		for (int i = 0; i < drop; i++) {
+			// Dropped to stay within the principal's capacity
+			this.insertionOrder.remove(current[i]);
+		}
+		AuditEvent[] result = new AuditEvent[current.length - drop + 1];
+		System.arraycopy(current, drop, result, 0, index - drop);
+		result[index - drop] = event;
+		System.arraycopy(current, index, result, index - drop + 1, current.length - index);
+		this.events.put(key, result);
+		this.insertionOrder.add(event);
+		Iterator<AuditEvent> oldest = this.insertionOrder.iterator();
+		while (this.insertionOrder.size() > this.maxEvents) {
+			AuditEvent evicted = oldest.next();
+			oldest.remove();
+			evict(evicted);
+		}
+	}
+
+	private void evict(AuditEvent event) {
+		Object key = getKey(event.getPrincipal());
+		AuditEvent[] current = this.events.get(key);
+		if (current == null) {
+			return;
+		}
+		for (int i = 0; i < current.length; i++) {
+			if (current[i] == event) {
+				if (current.length == 1) {
+					this.events.remove(key);
+				}
+				else {
+					AuditEvent[] result = new AuditEvent[current.length - 1];
+					System.arraycopy(current, 0, result, 0, i);
+					System.arraycopy(current, i + 1, result, i, current.length - i - 1);
+					this.events.put(key, result);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Binary search for the index of the first event with a timestamp later than the
+	 * one given (or the length of the array if there is none).
+	 */
+	private static int indexAfter(AuditEvent[] events, long timestamp) {
+		int low = 0;
+		int high = events.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (events[mid].getTimestamp().getTime() <= timestamp) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
 			}
-			list.add(event);
 		}
+		return low;
+	}
+
+	private Object getKey(String principal) {
+		return (principal == null ? NULL_PRINCIPAL : principal);
 	}
 
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.audit.listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.ops.audit.AuditEvent;
+import org.springframework.boot.ops.audit.AuditEventRepository;
+import org.springframework.boot.ops.metrics.MetricRepository;
+import org.springframework.util.Assert;
+
+/**
+ * {@link AuditListener} that takes {@link AuditEvent}s off the publishing thread. Events
+ * are put on a bounded queue that is drained by a dedicated thread which stores them in
+ * batches using {@link AuditEventRepository#add(List)}. What happens when the queue is
+ * full is determined by the {@link OverflowPolicy}, by default new events are dropped
+ * rather than blocking the publisher.
+ * 
+ * <p>
+ * Events still queued when the listener is destroyed are stored before it returns, and
+ * events published after that are stored synchronously on the publishing thread.
+ * 
+ * <p>
+ * If a {@link MetricRepository} is provided the number of queued, dropped and flushed
+ * events are recorded as {@code counter.audit.events.*} metrics.
+ * 
+ * @author Dave Syer
+ */
+public class AsyncAuditListener extends AuditListener implements InitializingBean,
+		DisposableBean {
+
+	private static Log logger = LogFactory.getLog(AsyncAuditListener.class);
+
+	private static final String QUEUED = "counter.audit.events.queued";
+
+	private static final String DROPPED = "counter.audit.events.dropped";
+
+	private static final String FLUSHED = "counter.audit.events.flushed";
+
+	private final AuditEventRepository auditEventRepository;
+
+	private final BlockingQueue<AuditEvent> queue;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+	private int maxBatchSize = 100;
+
+	private long shutdownTimeout = 5000;
+
+	private MetricRepository metricRepository;
+
+	private volatile boolean running;
+
+	private volatile boolean destroyed;
+
+	private Thread thread;
+
+	/**
+	 * Create a new {@link AsyncAuditListener} instance.
+	 * @param auditEventRepository the repository used to store the events
+	 * @param capacity the capacity of the queue of pending events
+	 */
+	public AsyncAuditListener(AuditEventRepository auditEventRepository, int capacity) {
+		super(auditEventRepository);
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.auditEventRepository = auditEventRepository;
+		this.queue = new ArrayBlockingQueue<AuditEvent>(capacity);
+	}
+
+	/**
+	 * Set the policy applied when the queue is full. Defaults to
+	 * {@link OverflowPolicy#DROP_NEWEST}.
+	 * @param overflowPolicy the overflow policy
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set the maximum number of events passed to the repository at once. Defaults to
+	 * 100.
+	 * @param maxBatchSize the maximum batch size
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the time (in milliseconds) to wait for pending events to be stored on
+	 * shutdown. Defaults to 5000.
+	 * @param shutdownTimeout the shutdown timeout
+	 */
+	public void setShutdownTimeout(long shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	/**
+	 * @param metricRepository the metric repository used to record queue statistics
+	 */
+	public void setMetricRepository(MetricRepository metricRepository) {
+		this.metricRepository = metricRepository;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		start();
+	}
+
+	/**
+	 * Start the thread that stores queued events.
+	 */
+	public synchronized void start() {
+		if (this.thread != null) {
+			return;
+		}
+		this.running = true;
+		this.destroyed = false;
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "audit-events");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		Thread thread;
+		synchronized (this) {
+			thread = this.thread;
+			this.thread = null;
+			this.destroyed = true;
+		}
+		if (thread != null) {
+			this.running = false;
+			thread.join(this.shutdownTimeout);
+			if (thread.isAlive()) {
+				logger.warn("Timed out storing audit events on shutdown, "
+						+ this.queue.size() + " events remain");
+				return;
+			}
+		}
+		flushQueue();
+	}
+
+	@Override
+	public void onApplicationEvent(AuditApplicationEvent event) {
+		AuditEvent auditEvent = event.getAuditEvent();
+		if (this.destroyed) {
+			store(Collections.singletonList(auditEvent));
+			return;
+		}
+		if (enqueue(auditEvent)) {
+			increment(QUEUED, 1);
+		}
+		if (this.destroyed) {
+			// Destroyed while we were enqueuing so nothing else will drain the queue
+			flushQueue();
+		}
+	}
+
+	private boolean enqueue(AuditEvent event) {
+		switch (this.overflowPolicy) {
+		case DROP_NEWEST:
+			if (!this.queue.offer(event)) {
+				increment(DROPPED, 1);
+				return false;
+			}
+			return true;
+		case DROP_OLDEST:
+			while (!this.queue.offer(event)) {
+				if (this.queue.poll() != null) {
+					increment(DROPPED, 1);
+				}
+			}
+			return true;
+		default:
+			try {
+				this.queue.put(event);
+				return true;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				increment(DROPPED, 1);
+				return false;
+			}
+		}
+	}
+
+	private void drain() {
+		List<AuditEvent> batch = new ArrayList<AuditEvent>(this.maxBatchSize);
+		while (this.running || !this.queue.isEmpty()) {
+			try {
+				AuditEvent first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				this.queue.drainTo(batch, this.maxBatchSize - 1);
+				store(batch);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void flushQueue() {
+		List<AuditEvent> batch = new ArrayList<AuditEvent>(this.maxBatchSize);
+		while (this.queue.drainTo(batch, this.maxBatchSize) > 0) {
+			store(batch);
+			batch.clear();
+		}
+	}
+
+	private void store(List<AuditEvent> batch) {
+		if (logger.isDebugEnabled()) {
+			for (AuditEvent event : batch) {
+				logger.debug(event);
+			}
+		}
+		try {
+			this.auditEventRepository.add(new ArrayList<AuditEvent>(batch));
+			increment(FLUSHED, batch.size());
+		}
+		catch (RuntimeException ex) {
+			logger.error("Failed to store " + batch.size() + " audit events", ex);
+			increment(DROPPED, batch.size());
+		}
+	}
+
+	private void increment(String metricName, int amount) {
+		if (this.metricRepository != null) {
+			this.metricRepository.increment(metricName, amount, new Date());
+		}
+	}
+
+	/**
+	 * Policies applied when an event is published but the queue is full.
+	 */
+	public static enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until there is room in the queue.
+		 */
+		BLOCK,
+
+		/**
+		 * Discard the oldest queued event to make room.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Discard the event being published.
+		 */
+		DROP_NEWEST
+
+	}
+
+}
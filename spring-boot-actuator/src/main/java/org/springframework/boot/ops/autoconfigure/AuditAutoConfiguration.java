@@ -17,32 +17,65 @@
 package org.springframework.boot.ops.autoconfigure;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.ops.audit.AuditEvent;
 import org.springframework.boot.ops.audit.AuditEventRepository;
 import org.springframework.boot.ops.audit.InMemoryAuditEventRepository;
+import org.springframework.boot.ops.audit.listener.AsyncAuditListener;
+import org.springframework.boot.ops.audit.listener.AsyncAuditListener.OverflowPolicy;
 import org.springframework.boot.ops.audit.listener.AuditListener;
+import org.springframework.boot.ops.metrics.MetricRepository;
 import org.springframework.boot.ops.security.AuthenticationAuditListener;
 import org.springframework.boot.ops.security.AuthorizationAuditListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * {@link EnableAutoConfiguration Auto-configuration} for {@link AuditEvent}s.
+ * {@link EnableAutoConfiguration Auto-configuration} for {@link AuditEvent}s. Events are
+ * stored asynchronously unless {@code audit.async.enabled=false}. When the queue is full
+ * new events are dropped (and counted as {@code counter.audit.events.dropped}) rather
+ * than blocking the thread that published them, set
+ * {@code audit.async.overflow_policy=BLOCK} to apply back pressure instead.
  * 
  * @author Dave Syer
  */
 @Configuration
+@AutoConfigureAfter(MetricRepositoryAutoConfiguration.class)
 public class AuditAutoConfiguration {
 
 	@Autowired(required = false)
 	private AuditEventRepository auditEventRepository = new InMemoryAuditEventRepository();
 
+	@Autowired(required = false)
+	private MetricRepository metricRepository;
+
+	@Value("${audit.async.enabled:true}")
+	private boolean async = true;
+
+	@Value("${audit.async.queue_capacity:1000}")
+	private int queueCapacity = 1000;
+
+	@Value("${audit.async.overflow_policy:DROP_NEWEST}")
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+	@Value("${audit.async.max_batch_size:100}")
+	private int maxBatchSize = 100;
+
 	@Bean
 	public AuditListener auditListener() throws Exception {
-		return new AuditListener(this.auditEventRepository);
+		if (!this.async) {
+			return new AuditListener(this.auditEventRepository);
+		}
+		AsyncAuditListener listener = new AsyncAuditListener(this.auditEventRepository,
+				this.queueCapacity);
+		listener.setOverflowPolicy(this.overflowPolicy);
+		listener.setMaxBatchSize(this.maxBatchSize);
+		listener.setMetricRepository(this.metricRepository);
+		return listener;
 	}
 
 	@Bean
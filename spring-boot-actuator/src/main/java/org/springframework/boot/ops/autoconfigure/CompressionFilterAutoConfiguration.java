@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.autoconfigure;
+
+import java.util.Arrays;
+
+import javax.servlet.Servlet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.ServerPropertiesAutoConfiguration;
+import org.springframework.boot.context.embedded.properties.ServerProperties;
+import org.springframework.boot.context.embedded.properties.ServerProperties.Compression;
+import org.springframework.boot.ops.metrics.CounterService;
+import org.springframework.boot.ops.metrics.GaugeService;
+import org.springframework.boot.ops.web.CompressionFilter;
+import org.springframework.boot.ops.web.DeflaterPool;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for gzip {@link CompressionFilter
+ * response compression}. Switched off by default, enable with
+ * {@code server.compression.enabled=true}. The other settings are taken from
+ * {@link ServerProperties#getCompression()}.
+ * 
+ * @author Dave Syer
+ */
+@Configuration
+@ConditionalOnClass({ Servlet.class })
+@ConditionalOnExpression("${server.compression.enabled:false}")
+@AutoConfigureAfter({ ServerPropertiesAutoConfiguration.class,
+		MetricRepositoryAutoConfiguration.class })
+public class CompressionFilterAutoConfiguration {
+
+	@Autowired(required = false)
+	private ServerProperties serverProperties = new ServerProperties();
+
+	@Autowired(required = false)
+	private CounterService counterService;
+
+	@Autowired(required = false)
+	private GaugeService gaugeService;
+
+	@Bean
+	@ConditionalOnMissingBean(CompressionFilter.class)
+	public CompressionFilter compressionFilter() {
+		Compression compression = this.serverProperties.getCompression();
+		CompressionFilter filter = new CompressionFilter();
+		filter.setMinResponseSize(compression.getMinResponseSize());
+		filter.setMimeTypes(Arrays.asList(compression.getMimeTypes()));
+		int poolSize = (compression.getPoolSize() > 0 ? compression.getPoolSize()
+				: Runtime.getRuntime().availableProcessors() * 2);
+		filter.setDeflaterPool(new DeflaterPool(poolSize, compression.getLevel()));
+		filter.setCounterService(this.counterService);
+		filter.setGaugeService(this.gaugeService);
+		return filter;
+	}
+
+}
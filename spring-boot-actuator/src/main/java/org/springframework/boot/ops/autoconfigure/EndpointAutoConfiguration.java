@@ -16,6 +16,8 @@
 
 package org.springframework.boot.ops.autoconfigure;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -26,6 +28,7 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.bind.PropertiesConfigurationFactory;
 import org.springframework.boot.ops.endpoint.BeansEndpoint;
+import org.springframework.boot.ops.endpoint.ConfigurationPropertiesReportEndpoint;
 import org.springframework.boot.ops.endpoint.DumpEndpoint;
 import org.springframework.boot.ops.endpoint.Endpoint;
 import org.springframework.boot.ops.endpoint.EnvironmentEndpoint;
@@ -36,6 +39,7 @@ import org.springframework.boot.ops.endpoint.PublicMetrics;
 import org.springframework.boot.ops.endpoint.ShutdownEndpoint;
 import org.springframework.boot.ops.endpoint.TraceEndpoint;
 import org.springframework.boot.ops.endpoint.VanillaPublicMetrics;
+import org.springframework.boot.ops.health.CompositeHealthIndicator;
 import org.springframework.boot.ops.health.HealthIndicator;
 import org.springframework.boot.ops.health.VanillaHealthIndicator;
 import org.springframework.boot.ops.metrics.InMemoryMetricRepository;
@@ -48,6 +52,7 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolExecutorFactoryBean;
 
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for common management
@@ -60,7 +65,11 @@ import org.springframework.core.io.support.PropertiesLoaderUtils;
 public class EndpointAutoConfiguration {
 
 	@Autowired(required = false)
-	private HealthIndicator<? extends Object> healthIndicator = new VanillaHealthIndicator();
+	private Map<String, HealthIndicator<? extends Object>> healthIndicators = Collections
+			.emptyMap();
+
+	@Autowired
+	private ConfigurableEnvironment environment = new StandardEnvironment();
 
 	@Autowired
 	private InfoPropertiesConfiguration properties;
@@ -83,7 +92,56 @@ public class EndpointAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public HealthEndpoint<Object> healthEndpoint() {
-		return new HealthEndpoint<Object>(this.healthIndicator);
+		return new HealthEndpoint<Object>(healthIndicator());
+	}
+
+	private HealthIndicator<? extends Object> healthIndicator() {
+		if (this.healthIndicators.isEmpty()) {
+			return new VanillaHealthIndicator();
+		}
+		Map<String, HealthIndicator<? extends Object>> indicators = new LinkedHashMap<String, HealthIndicator<? extends Object>>();
+		Map<String, Long> timeouts = new HashMap<String, Long>();
+		for (Map.Entry<String, HealthIndicator<? extends Object>> entry : this.healthIndicators
+				.entrySet()) {
+			String name = getHealthIndicatorName(entry.getKey());
+			indicators.put(name, entry.getValue());
+			Long timeout = this.environment.getProperty("health.timeouts." + name,
+					Long.class);
+			if (timeout != null) {
+				timeouts.put(name, timeout);
+			}
+		}
+		CompositeHealthIndicator indicator = new CompositeHealthIndicator(indicators,
+				healthIndicatorExecutor().getObject());
+		indicator.setTimeout(this.environment.getProperty("health.timeout", Long.class,
+				2000L));
+		indicator.setTimeToLive(this.environment.getProperty("health.time_to_live",
+				Long.class, 1000L));
+		indicator.setTimeouts(timeouts);
+		return indicator;
+	}
+
+	@Bean
+	public ThreadPoolExecutorFactoryBean healthIndicatorExecutor() {
+		int poolSize = this.environment.getProperty("health.pool_size", Integer.class,
+				Math.max(Math.min(this.healthIndicators.size(), 4), 1));
+		ThreadPoolExecutorFactoryBean executor = new ThreadPoolExecutorFactoryBean();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		// At most one call per indicator is ever queued or running
+		executor.setQueueCapacity(Math.max(this.healthIndicators.size(), 1));
+		executor.setAllowCoreThreadTimeOut(true);
+		executor.setThreadNamePrefix("health-");
+		executor.setDaemon(true);
+		return executor;
+	}
+
+	private String getHealthIndicatorName(String beanName) {
+		String suffix = "HealthIndicator";
+		if (beanName.endsWith(suffix) && beanName.length() > suffix.length()) {
+			return beanName.substring(0, beanName.length() - suffix.length());
+		}
+		return beanName;
 	}
 
 	@Bean
@@ -125,6 +183,12 @@ public class EndpointAutoConfiguration {
 		return new DumpEndpoint();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public ConfigurationPropertiesReportEndpoint configurationPropertiesReportEndpoint() {
+		return new ConfigurationPropertiesReportEndpoint();
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public ShutdownEndpoint shutdownEndpoint() {
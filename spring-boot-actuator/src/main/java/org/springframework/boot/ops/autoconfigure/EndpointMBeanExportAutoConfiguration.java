@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.autoconfigure;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.boot.ops.endpoint.jmx.EndpointMBeanExporter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} to export {@link Endpoint}s and
+ * metrics over JMX. Disable with {@code endpoints.jmx.enabled=false}.
+ * 
+ * @author Dave Syer
+ */
+@Configuration
+@ConditionalOnExpression("${endpoints.jmx.enabled:true}")
+@AutoConfigureAfter({ EndpointAutoConfiguration.class,
+		MetricRepositoryAutoConfiguration.class })
+public class EndpointMBeanExportAutoConfiguration {
+
+	@Value("${endpoints.jmx.domain:org.springframework.boot}")
+	private String domain = "org.springframework.boot";
+
+	@Bean
+	@ConditionalOnMissingBean(EndpointMBeanExporter.class)
+	public EndpointMBeanExporter endpointMBeanExporter() {
+		EndpointMBeanExporter exporter = new EndpointMBeanExporter();
+		exporter.setDomain(this.domain);
+		return exporter;
+	}
+
+}
@@ -30,6 +30,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.web.EmbeddedServletContainerAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.WebMvcAutoConfiguration;
 import org.springframework.boot.context.embedded.AnnotationConfigEmbeddedWebApplicationContext;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.properties.ServerProperties;
 import org.springframework.boot.ops.endpoint.Endpoint;
 import org.springframework.boot.ops.endpoint.mvc.EndpointHandlerAdapter;
@@ -110,8 +111,12 @@ public class EndpointWebMvcAutoConfiguration implements ApplicationContextAware,
 		// by various specific AutoConfiguration classes. NOTE: The child context
 		// is intentionally not completely auto-configured.
 		childContext.register(EndpointWebMvcChildContextConfiguration.class,
-				PropertyPlaceholderAutoConfiguration.class,
-				EmbeddedServletContainerAutoConfiguration.class);
+				PropertyPlaceholderAutoConfiguration.class);
+		if (this.applicationContext.getBeanNamesForType(
+				EmbeddedServletContainerFactory.class).length == 0) {
+			// No container to copy, fall back to the full container auto-configuration
+			childContext.register(EmbeddedServletContainerAutoConfiguration.class);
+		}
 
 		// Ensure close on the parent also closes the child
 		if (this.applicationContext instanceof ConfigurableApplicationContext) {
@@ -18,6 +18,10 @@ package org.springframework.boot.ops.autoconfigure;
 
 import javax.servlet.Filter;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.HierarchicalBeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,19 +31,27 @@ import org.springframework.boot.autoconfigure.condition.SearchStrategy;
 import org.springframework.boot.context.embedded.ConfigurableEmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.EmbeddedServletContainer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.boot.ops.endpoint.HealthEndpoint;
 import org.springframework.boot.ops.endpoint.mvc.EndpointHandlerAdapter;
 import org.springframework.boot.ops.endpoint.mvc.EndpointHandlerMapping;
 import org.springframework.boot.ops.properties.ManagementServerProperties;
+import org.springframework.boot.ops.web.ConcurrencyLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerAdapter;
 import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * Configuration for triggered from {@link EndpointWebMvcAutoConfiguration} when a new
- * {@link EmbeddedServletContainer} running on a different port is required.
+ * {@link EmbeddedServletContainer} running on a different port is required. The
+ * container uses its own (small) thread pool and accept queue from the
+ * {@link ManagementServerProperties}, and one of its threads is kept free for the
+ * {@link HealthEndpoint} so that health checks still get through when the other
+ * endpoints are busy.
  * 
  * @see EndpointWebMvcAutoConfiguration
  */
@@ -55,9 +67,25 @@ public class EndpointWebMvcChildContextConfiguration implements
 		factory.setPort(this.managementServerProperties.getPort());
 		factory.setAddress(this.managementServerProperties.getAddress());
 		factory.setContextPath(this.managementServerProperties.getContextPath());
+		factory.setMaxThreads(this.managementServerProperties.getMaxThreads());
+		factory.setAcceptCount(this.managementServerProperties.getAcceptCount());
 		// TODO: Disable sessions
 	}
 
+	@Bean
+	public ConcurrencyLimitFilter managementConcurrencyLimitFilter(
+			HierarchicalBeanFactory beanFactory) {
+		String healthPath = "/health";
+		BeanFactory parent = beanFactory.getParentBeanFactory();
+		if (parent != null && parent.containsBean("healthEndpoint")) {
+			healthPath = parent.getBean("healthEndpoint", HealthEndpoint.class).getPath();
+		}
+		// Keep one thread for health checks
+		int maxThreads = this.managementServerProperties.getMaxThreads();
+		return new ConcurrencyLimitFilter(maxThreads > 1 ? maxThreads - 1
+				: Integer.MAX_VALUE, healthPath);
+	}
+
 	@Bean
 	public DispatcherServlet dispatcherServlet() {
 		DispatcherServlet dispatcherServlet = new DispatcherServlet();
@@ -81,6 +109,100 @@ public class EndpointWebMvcChildContextConfiguration implements
 		return new EndpointHandlerAdapter();
 	}
 
+	/**
+	 * Creates a container of the same type as the parent's without the rest of the
+	 * embedded container auto-configuration (and without the parent's customizations).
+	 */
+	@Configuration
+	@ConditionalOnBean(value = EmbeddedServletContainerFactory.class, search = SearchStrategy.PARENTS)
+	public static class EndpointWebMvcChildContextContainerConfiguration {
+
+		private static Log logger = LogFactory
+				.getLog(EndpointWebMvcChildContextContainerConfiguration.class);
+
+		/**
+		 * Fallback factories, each with the classes that must be present to use it (the
+		 * same checks as the embedded container auto-configuration), last entry being
+		 * the factory itself.
+		 */
+		private static final String[][] FALLBACK_FACTORIES = {
+				{ "org.apache.catalina.startup.Tomcat",
+						"org.springframework.boot.context.embedded.tomcat."
+								+ "TomcatEmbeddedServletContainerFactory" },
+				{ "org.eclipse.jetty.server.Server", "org.eclipse.jetty.util.Loader",
+						"org.springframework.boot.context.embedded.jetty."
+								+ "JettyEmbeddedServletContainerFactory" },
+				{ "io.undertow.Undertow", "org.xnio.SslClientAuthMode",
+						"org.springframework.boot.context.embedded.undertow."
+								+ "UndertowEmbeddedServletContainerFactory" } };
+
+		@Autowired
+		private EndpointWebMvcChildContextConfiguration configuration;
+
+		@Bean
+		public EmbeddedServletContainerFactory managementServletContainerFactory(
+				HierarchicalBeanFactory beanFactory) {
+			BeanFactory parent = beanFactory.getParentBeanFactory();
+			EmbeddedServletContainerFactory parentFactory = parent
+					.getBean(EmbeddedServletContainerFactory.class);
+			EmbeddedServletContainerFactory factory = createFactory(parentFactory
+					.getClass());
+			if (factory instanceof ConfigurableEmbeddedServletContainerFactory) {
+				this.configuration
+						.customize((ConfigurableEmbeddedServletContainerFactory) factory);
+			}
+			return factory;
+		}
+
+		/**
+		 * Instantiate the closest class in the hierarchy of the parent's factory that has
+		 * a default constructor (e.g. the container type itself if the parent uses an
+		 * anonymous subclass), falling back to the first container that is on the
+		 * classpath.
+		 */
+		private EmbeddedServletContainerFactory createFactory(Class<?> type) {
+			while (type != null
+					&& EmbeddedServletContainerFactory.class.isAssignableFrom(type)) {
+				try {
+					return (EmbeddedServletContainerFactory) BeanUtils
+							.instantiateClass(type);
+				}
+				catch (BeanInstantiationException ex) {
+					logger.debug("Unable to create management container factory of type "
+							+ type.getName(), ex);
+					type = type.getSuperclass();
+				}
+			}
+			return createFallbackFactory();
+		}
+
+		private EmbeddedServletContainerFactory createFallbackFactory() {
+			ClassLoader classLoader = getClass().getClassLoader();
+			for (String[] candidate : FALLBACK_FACTORIES) {
+				if (isPresent(candidate, classLoader)) {
+					String factory = candidate[candidate.length - 1];
+					return (EmbeddedServletContainerFactory) BeanUtils
+							.instantiateClass(ClassUtils.resolveClassName(factory,
+									classLoader));
+				}
+			}
+			throw new IllegalStateException("Unable to create a management server "
+					+ "container factory: the parent factory could not be instantiated "
+					+ "and no supported embedded container (Tomcat, Jetty or Undertow) "
+					+ "is on the classpath");
+		}
+
+		private boolean isPresent(String[] classNames, ClassLoader classLoader) {
+			for (String className : classNames) {
+				if (!ClassUtils.isPresent(className, classLoader)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
 	@Configuration
 	@ConditionalOnClass({ EnableWebSecurity.class, Filter.class })
 	@ConditionalOnBean(name = "springSecurityFilterChain", search = SearchStrategy.PARENTS)
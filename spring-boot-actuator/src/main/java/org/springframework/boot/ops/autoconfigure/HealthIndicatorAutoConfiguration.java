@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.autoconfigure;
+
+import java.io.File;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.ops.health.DataSourceHealthIndicator;
+import org.springframework.boot.ops.health.DiskSpaceHealthIndicator;
+import org.springframework.boot.ops.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for built in
+ * {@link HealthIndicator}s. A {@link DataSourceHealthIndicator} is added when there is a
+ * {@link DataSource} bean and a {@link DiskSpaceHealthIndicator} when
+ * {@code health.disk_space.enabled=true}. The indicators are called through the
+ * {@link EndpointAutoConfiguration health endpoint} so they share its caching and
+ * timeouts.
+ * 
+ * @author Dave Syer
+ */
+@Configuration
+@AutoConfigureAfter(DataSourceAutoConfiguration.class)
+public class HealthIndicatorAutoConfiguration {
+
+	@Configuration
+	@ConditionalOnBean(DataSource.class)
+	@ConditionalOnMissingBean(DataSourceHealthIndicator.class)
+	protected static class DataSourceHealthIndicatorConfiguration {
+
+		@Autowired
+		private DataSource dataSource;
+
+		@Value("${health.db.timeout:1}")
+		private int timeout = 1;
+
+		@Bean
+		public DataSourceHealthIndicator dbHealthIndicator() {
+			DataSourceHealthIndicator indicator = new DataSourceHealthIndicator(
+					this.dataSource);
+			indicator.setTimeout(this.timeout);
+			return indicator;
+		}
+
+	}
+
+	@Configuration
+	@ConditionalOnExpression("${health.disk_space.enabled:false}")
+	@ConditionalOnMissingBean(DiskSpaceHealthIndicator.class)
+	protected static class DiskSpaceHealthIndicatorConfiguration {
+
+		@Value("${health.disk_space.path:.}")
+		private String path = ".";
+
+		@Value("${health.disk_space.threshold:10485760}")
+		private long threshold = 10 * 1024 * 1024;
+
+		@Bean
+		public DiskSpaceHealthIndicator diskSpaceHealthIndicator() {
+			return new DiskSpaceHealthIndicator(new File(this.path), this.threshold);
+		}
+
+	}
+
+}
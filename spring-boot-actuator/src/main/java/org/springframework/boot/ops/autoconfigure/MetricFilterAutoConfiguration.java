@@ -18,6 +18,9 @@ package org.springframework.boot.ops.autoconfigure;
 
 import java.io.IOException;
 
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.Servlet;
@@ -89,23 +92,43 @@ public class MetricFilterAutoConfiguration {
 
 		public void doFilter(HttpServletRequest request, HttpServletResponse response,
 				FilterChain chain) throws IOException, ServletException {
+			if (request.getDispatcherType() == DispatcherType.ASYNC) {
+				// Already being measured by the listener registered on the original
+				// request dispatch
+				chain.doFilter(request, response);
+				return;
+			}
 			UrlPathHelper helper = new UrlPathHelper();
 			String suffix = helper.getPathWithinApplication(request);
 			StopWatch stopWatch = new StopWatch();
 			stopWatch.start();
+			boolean async = false;
 			try {
 				chain.doFilter(request, response);
+				if (request.isAsyncStarted()) {
+					// Only record when the response actually completes
+					request.getAsyncContext().addListener(
+							new MetricsAsyncListener(stopWatch, suffix, response));
+					async = true;
+				}
 			}
 			finally {
-				stopWatch.stop();
-				String gaugeKey = getKey("response" + suffix);
-				MetricFilterAutoConfiguration.this.gaugeService.set(gaugeKey,
-						stopWatch.getTotalTimeMillis());
-				String counterKey = getKey("status." + getStatus(response) + suffix);
-				MetricFilterAutoConfiguration.this.counterService.increment(counterKey);
+				if (!async) {
+					record(stopWatch, suffix, response);
+				}
 			}
 		}
 
+		private void record(StopWatch stopWatch, String suffix,
+				HttpServletResponse response) {
+			stopWatch.stop();
+			String gaugeKey = getKey("response" + suffix);
+			MetricFilterAutoConfiguration.this.gaugeService.set(gaugeKey,
+					stopWatch.getTotalTimeMillis());
+			String counterKey = getKey("status." + getStatus(response) + suffix);
+			MetricFilterAutoConfiguration.this.counterService.increment(counterKey);
+		}
+
 		private int getStatus(HttpServletResponse response) {
 			try {
 				return response.getStatus();
@@ -127,6 +150,53 @@ public class MetricFilterAutoConfiguration {
 			}
 			return value;
 		}
+
+		/**
+		 * {@link AsyncListener} that records metrics once an asynchronous request has
+		 * completed (or timed out or failed).
+		 */
+		private class MetricsAsyncListener implements AsyncListener {
+
+			private final StopWatch stopWatch;
+
+			private final String suffix;
+
+			private final HttpServletResponse response;
+
+			private boolean recorded;
+
+			public MetricsAsyncListener(StopWatch stopWatch, String suffix,
+					HttpServletResponse response) {
+				this.stopWatch = stopWatch;
+				this.suffix = suffix;
+				this.response = response;
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) throws IOException {
+				// A new async cycle, keep listening so that the whole request is timed
+				event.getAsyncContext().addListener(this);
+			}
+
+			@Override
+			public synchronized void onComplete(AsyncEvent event) throws IOException {
+				// Also called once timeouts and errors have been handled
+				if (!this.recorded) {
+					this.recorded = true;
+					record(this.stopWatch, this.suffix, this.response);
+				}
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) throws IOException {
+			}
+
+			@Override
+			public void onError(AsyncEvent event) throws IOException {
+			}
+
+		}
+
 	}
 
 }
@@ -16,25 +16,42 @@
 
 package org.springframework.boot.ops.autoconfigure;
 
+import java.io.File;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.ops.metrics.CounterService;
 import org.springframework.boot.ops.metrics.DefaultCounterService;
 import org.springframework.boot.ops.metrics.DefaultGaugeService;
+import org.springframework.boot.ops.metrics.FileMetricRepository;
 import org.springframework.boot.ops.metrics.GaugeService;
 import org.springframework.boot.ops.metrics.InMemoryMetricRepository;
 import org.springframework.boot.ops.metrics.MetricRepository;
+import org.springframework.boot.ops.metrics.MovingAverageMetricRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.StringUtils;
 
 /**
- * {@link EnableAutoConfiguration Auto-configuration} for metrics services.
+ * {@link EnableAutoConfiguration Auto-configuration} for metrics services. Metrics are
+ * kept in memory unless {@code metrics.repository.file} is set, in which case they are
+ * also journaled to that file (and reloaded on restart) by a
+ * {@link FileMetricRepository}. Moving averages and rates can be added to the metrics
+ * by a {@link MovingAverageMetricRepository} with
+ * {@code metrics.moving_averages.enabled=true} (they are off by default since they add
+ * six derived metrics for every counter or gauge).
  * 
  * @author Dave Syer
  */
 @Configuration
 public class MetricRepositoryAutoConfiguration {
 
+	@Autowired
+	private Environment environment = new StandardEnvironment();
+
 	@Bean
 	@ConditionalOnMissingBean
 	public CounterService counterService() {
@@ -50,7 +67,25 @@ public class MetricRepositoryAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	protected MetricRepository metricRepository() {
-		return new InMemoryMetricRepository();
+		MetricRepository repository = createMetricRepository();
+		if (this.environment.getProperty("metrics.moving_averages.enabled",
+				Boolean.class, false)) {
+			repository = new MovingAverageMetricRepository(repository);
+		}
+		return repository;
+	}
+
+	private MetricRepository createMetricRepository() {
+		String file = this.environment.getProperty("metrics.repository.file");
+		if (!StringUtils.hasText(file)) {
+			return new InMemoryMetricRepository();
+		}
+		FileMetricRepository repository = new FileMetricRepository(new File(file));
+		repository.setFlushInterval(this.environment.getProperty(
+				"metrics.repository.flush_interval", Long.class, 1000L));
+		repository.setJournalSize(this.environment.getProperty(
+				"metrics.repository.journal_size", Integer.class, 1024 * 1024));
+		return repository;
 	}
 
 }
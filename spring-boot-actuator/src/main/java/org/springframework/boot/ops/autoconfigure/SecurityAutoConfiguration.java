@@ -26,6 +26,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.boot.ops.endpoint.QueryableEndpoint;
 import org.springframework.boot.ops.endpoint.mvc.EndpointHandlerMapping;
 import org.springframework.boot.ops.properties.SecurityProperties;
 import org.springframework.boot.ops.web.ErrorController;
@@ -186,6 +187,9 @@ public class SecurityAutoConfiguration {
 			for (Endpoint<?> endpoint : endpoints) {
 				if (endpoint.isSensitive() == secure) {
 					paths.add(endpoint.getPath());
+					if (endpoint instanceof QueryableEndpoint) {
+						paths.add(endpoint.getPath() + "/**");
+					}
 				}
 			}
 			return paths.toArray(new String[paths.size()]);
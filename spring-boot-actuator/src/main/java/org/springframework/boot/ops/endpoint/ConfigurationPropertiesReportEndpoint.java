@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBinding;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBindingPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+
+/**
+ * {@link Endpoint} to expose the {@link ConfigurationProperties} beans in the current
+ * context, along with their prefix and the time taken to bind and validate them.
+ * 
+ * @author Dave Syer
+ */
+@ConfigurationProperties(name = "endpoints.configprops", ignoreUnknownFields = false)
+public class ConfigurationPropertiesReportEndpoint extends
+		AbstractEndpoint<Map<String, Object>> implements ApplicationContextAware {
+
+	private ApplicationContext context;
+
+	/**
+	 * Create a new {@link ConfigurationPropertiesReportEndpoint} instance.
+	 */
+	public ConfigurationPropertiesReportEndpoint() {
+		super("/configprops");
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext context) throws BeansException {
+		this.context = context;
+	}
+
+	@Override
+	public Map<String, Object> invoke() {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		for (ConfigurationPropertiesBindingPostProcessor binder : this.context
+				.getBeansOfType(ConfigurationPropertiesBindingPostProcessor.class)
+				.values()) {
+			for (ConfigurationPropertiesBinding binding : binder.getBindings()) {
+				Map<String, Object> map = new LinkedHashMap<String, Object>();
+				map.put("prefix", binding.getPrefix());
+				map.put("type", binding.getType().getName());
+				map.put("bindTime", binding.getBindTime());
+				map.put("validateTime", binding.getValidateTime());
+				result.put(binding.getBeanName(), map);
+			}
+		}
+		return result;
+	}
+
+}
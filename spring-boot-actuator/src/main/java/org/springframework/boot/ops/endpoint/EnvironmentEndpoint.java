@@ -16,6 +16,8 @@
 
 package org.springframework.boot.ops.endpoint;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -27,6 +29,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.StandardEnvironment;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
  * {@link Endpoint} to expose {@link ConfigurableEnvironment environment} information.
  * 
@@ -35,6 +39,7 @@ import org.springframework.core.env.StandardEnvironment;
  */
 @ConfigurationProperties(name = "endpoints.env", ignoreUnknownFields = false)
 public class EnvironmentEndpoint extends AbstractEndpoint<Map<String, Object>> implements
+		StreamingEndpoint<Map<String, Object>>, QueryableEndpoint<Map<String, Object>>,
 		EnvironmentAware {
 
 	private Environment environment;
@@ -62,6 +67,53 @@ public class EnvironmentEndpoint extends AbstractEndpoint<Map<String, Object>> i
 		return result;
 	}
 
+	@Override
+	public Map<String, Object> invoke(String query) {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		if (!query.endsWith("*")) {
+			for (PropertySource<?> source : getPropertySources()) {
+				if (source.containsProperty(query)) {
+					result.put(source.getName(), Collections.singletonMap(query,
+							sanitize(query, source.getProperty(query))));
+				}
+			}
+			return result;
+		}
+		String prefix = query.substring(0, query.length() - 1);
+		for (PropertySource<?> source : getPropertySources()) {
+			if (source instanceof EnumerablePropertySource) {
+				EnumerablePropertySource<?> enumerable = (EnumerablePropertySource<?>) source;
+				Map<String, Object> map = new LinkedHashMap<String, Object>();
+				for (String name : enumerable.getPropertyNames()) {
+					if (name.startsWith(prefix)) {
+						map.put(name, sanitize(name, enumerable.getProperty(name)));
+					}
+				}
+				if (!map.isEmpty()) {
+					result.put(source.getName(), map);
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void writeTo(JsonGenerator generator) throws IOException {
+		generator.writeStartObject();
+		for (PropertySource<?> source : getPropertySources()) {
+			if (source instanceof EnumerablePropertySource) {
+				EnumerablePropertySource<?> enumerable = (EnumerablePropertySource<?>) source;
+				generator.writeObjectFieldStart(source.getName());
+				for (String name : enumerable.getPropertyNames()) {
+					generator.writeObjectField(name,
+							sanitize(name, enumerable.getProperty(name)));
+				}
+				generator.writeEndObject();
+			}
+		}
+		generator.writeEndObject();
+	}
+
 	private Iterable<PropertySource<?>> getPropertySources() {
 		if (this.environment != null
 				&& this.environment instanceof ConfigurableEnvironment) {
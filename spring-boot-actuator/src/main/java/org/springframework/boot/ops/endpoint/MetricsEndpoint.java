@@ -16,20 +16,26 @@
 
 package org.springframework.boot.ops.endpoint;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.ops.metrics.Metric;
 import org.springframework.util.Assert;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
  * {@link Endpoint} to expose {@link PublicMetrics}.
  * 
  * @author Dave Syer
  */
 @ConfigurationProperties(name = "endpoints.metrics", ignoreUnknownFields = false)
-public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>> {
+public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>> implements
+		StreamingEndpoint<Map<String, Object>>, QueryableEndpoint<Map<String, Object>> {
 
 	private PublicMetrics metrics;
 
@@ -48,9 +54,42 @@ public class MetricsEndpoint extends AbstractEndpoint<Map<String, Object>> {
 	public Map<String, Object> invoke() {
 		Map<String, Object> result = new LinkedHashMap<String, Object>();
 		for (Metric metric : this.metrics.metrics()) {
-			result.put(metric.getName(), metric.getValue());
+			if (!result.containsKey(metric.getName())) {
+				result.put(metric.getName(), metric.getValue());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Map<String, Object> invoke(String query) {
+		boolean prefix = query.endsWith("*");
+		String name = (prefix ? query.substring(0, query.length() - 1) : query);
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		for (Metric metric : this.metrics.metrics(name)) {
+			if ((prefix || metric.getName().equals(name))
+					&& !result.containsKey(metric.getName())) {
+				result.put(metric.getName(), metric.getValue());
+			}
 		}
 		return result;
 	}
 
+	/**
+	 * Write the current metric values without collecting them first. Several sources may
+	 * report a metric with the same name, so the first value wins (a JSON object must not
+	 * repeat a field name) as it does for {@link #invoke()}.
+	 */
+	@Override
+	public void writeTo(JsonGenerator generator) throws IOException {
+		Set<String> written = new HashSet<String>();
+		generator.writeStartObject();
+		for (Metric metric : this.metrics.metrics()) {
+			if (written.add(metric.getName())) {
+				generator.writeNumberField(metric.getName(), metric.getValue());
+			}
+		}
+		generator.writeEndObject();
+	}
+
 }
@@ -33,4 +33,10 @@ public interface PublicMetrics {
 	 */
 	Collection<Metric> metrics();
 
+	/**
+	 * @param prefix the prefix of the metric names (empty for all metrics)
+	 * @return the metrics whose names start with the prefix
+	 */
+	Collection<Metric> metrics(String prefix);
+
 }
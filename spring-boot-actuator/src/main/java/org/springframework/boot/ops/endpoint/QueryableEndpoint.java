@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint;
+
+/**
+ * {@link Endpoint} that can return a subset of its result, selected by name. Usually
+ * mapped to sub-paths of the endpoint, e.g. {@code /metrics/counter.status.*}.
+ * 
+ * @author Dave Syer
+ */
+public interface QueryableEndpoint<T> extends Endpoint<T> {
+
+	/**
+	 * Called to invoke the endpoint for only the entries selected by the query.
+	 * @param query the exact name of an entry, or a name prefix followed by {@code *}
+	 * @return the results of the invocation
+	 */
+	T invoke(String query);
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * {@link Endpoint} that can write its result directly to a {@link JsonGenerator} rather
+ * than building it in memory first. Allows mappings to stream large payloads to the
+ * client as they are produced.
+ * 
+ * @author Dave Syer
+ */
+public interface StreamingEndpoint<T> extends Endpoint<T> {
+
+	/**
+	 * Write the result of the endpoint to the given generator. The JSON written must be
+	 * the same as the serialized form of {@link #invoke()}.
+	 * @param generator the generator to write to
+	 * @throws IOException if the result cannot be written
+	 */
+	void writeTo(JsonGenerator generator) throws IOException;
+
+}
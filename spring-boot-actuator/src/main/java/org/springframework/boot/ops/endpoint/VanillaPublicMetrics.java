@@ -16,8 +16,17 @@
 
 package org.springframework.boot.ops.endpoint;
 
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
 
 import org.springframework.boot.ops.metrics.Metric;
 import org.springframework.boot.ops.metrics.MetricRepository;
@@ -25,7 +34,16 @@ import org.springframework.util.Assert;
 
 /**
  * Default implementation of {@link PublicMetrics} that exposes all metrics from the
- * {@link MetricRepository} along with memory information.
+ * {@link MetricRepository} along with information about the JVM: memory (including
+ * heap, non-heap and individual memory pools), garbage collection, threads, class
+ * loading and uptime. Memory sizes are in kilobytes and times in milliseconds. When
+ * only metrics with a given prefix are requested, the repository is queried by prefix
+ * and JVM metrics that cannot match are not read at all.
+ * 
+ * <p>
+ * The platform MXBeans are looked up once, when this instance is created, and only
+ * cheap attributes are read (e.g. thread counts rather than thread dumps), so the cost
+ * of each call is bounded by the (fixed) number of collectors and memory pools.
  * 
  * @author Dave Syer
  */
@@ -33,20 +51,125 @@ public class VanillaPublicMetrics implements PublicMetrics {
 
 	private MetricRepository metricRepository;
 
+	private final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final ClassLoadingMXBean classLoading = ManagementFactory
+			.getClassLoadingMXBean();
+
+	private final GarbageCollectorMXBean[] collectors;
+
+	private final String[] collectorNames;
+
+	private final MemoryPoolMXBean[] pools;
+
+	private final String[] poolNames;
+
 	public VanillaPublicMetrics(MetricRepository metricRepository) {
 		Assert.notNull(metricRepository, "MetricRepository must not be null");
 		this.metricRepository = metricRepository;
+		List<GarbageCollectorMXBean> collectors = ManagementFactory
+				.getGarbageCollectorMXBeans();
+		this.collectors = collectors.toArray(new GarbageCollectorMXBean[collectors
+				.size()]);
+		this.collectorNames = new String[this.collectors.length];
+		for (int i = 0; i < this.collectors.length; i++) {
+			this.collectorNames[i] = "gc." + beautify(this.collectors[i].getName());
+		}
+		List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+		this.pools = pools.toArray(new MemoryPoolMXBean[pools.size()]);
+		this.poolNames = new String[this.pools.length];
+		for (int i = 0; i < this.pools.length; i++) {
+			this.poolNames[i] = "mempool." + beautify(this.pools[i].getName());
+		}
+	}
+
+	private String beautify(String name) {
+		return name.replaceAll("[^A-Za-z0-9]+", "_").toLowerCase();
 	}
 
 	@Override
 	public Collection<Metric> metrics() {
+		return metrics("");
+	}
+
+	@Override
+	public Collection<Metric> metrics(String prefix) {
 		Collection<Metric> result = new LinkedHashSet<Metric>(
-				this.metricRepository.findAll());
-		result.add(new Metric("mem", new Long(Runtime.getRuntime().totalMemory()) / 1024));
-		result.add(new Metric("mem.free",
-				new Long(Runtime.getRuntime().freeMemory()) / 1024));
-		result.add(new Metric("processors", Runtime.getRuntime().availableProcessors()));
+				this.metricRepository.findAll(prefix));
+		if (matches(prefix, "mem")) {
+			add(result, prefix, "mem", Runtime.getRuntime().totalMemory() / 1024);
+			add(result, prefix, "mem.free", Runtime.getRuntime().freeMemory() / 1024);
+		}
+		if (matches(prefix, "processors")) {
+			add(result, prefix, "processors", Runtime.getRuntime().availableProcessors());
+		}
+		if (matches(prefix, "uptime")) {
+			add(result, prefix, "uptime", this.runtime.getUptime());
+		}
+		if (matches(prefix, "heap")) {
+			addMemoryUsage(result, prefix, "heap", this.memory.getHeapMemoryUsage());
+		}
+		if (matches(prefix, "nonheap")) {
+			addMemoryUsage(result, prefix, "nonheap",
+					this.memory.getNonHeapMemoryUsage());
+		}
+		for (int i = 0; i < this.pools.length; i++) {
+			if (matches(prefix, this.poolNames[i])) {
+				MemoryUsage usage = this.pools[i].getUsage();
+				if (usage != null) {
+					addMemoryUsage(result, prefix, this.poolNames[i], usage);
+				}
+			}
+		}
+		for (int i = 0; i < this.collectors.length; i++) {
+			if (matches(prefix, this.collectorNames[i])) {
+				add(result, prefix, this.collectorNames[i] + ".count",
+						this.collectors[i].getCollectionCount());
+				add(result, prefix, this.collectorNames[i] + ".time",
+						this.collectors[i].getCollectionTime());
+			}
+		}
+		if (matches(prefix, "threads")) {
+			add(result, prefix, "threads", this.threads.getThreadCount());
+			add(result, prefix, "threads.peak", this.threads.getPeakThreadCount());
+			add(result, prefix, "threads.daemon", this.threads.getDaemonThreadCount());
+		}
+		if (matches(prefix, "classes")) {
+			add(result, prefix, "classes", this.classLoading.getLoadedClassCount());
+			add(result, prefix, "classes.loaded",
+					this.classLoading.getTotalLoadedClassCount());
+			add(result, prefix, "classes.unloaded",
+					this.classLoading.getUnloadedClassCount());
+		}
 		return result;
 	}
 
+	/**
+	 * Returns if any metric in the group with the given name could start with the
+	 * prefix, so that metrics that cannot match are never read.
+	 */
+	private boolean matches(String prefix, String group) {
+		return group.startsWith(prefix) || prefix.startsWith(group);
+	}
+
+	private void addMemoryUsage(Collection<Metric> result, String prefix, String name,
+			MemoryUsage usage) {
+		add(result, prefix, name + ".used", usage.getUsed() / 1024);
+		add(result, prefix, name + ".committed", usage.getCommitted() / 1024);
+		if (usage.getMax() >= 0) {
+			add(result, prefix, name + ".max", usage.getMax() / 1024);
+		}
+	}
+
+	private void add(Collection<Metric> result, String prefix, String name,
+			double value) {
+		if (name.startsWith(prefix)) {
+			result.add(new Metric(name, value));
+		}
+	}
+
 }
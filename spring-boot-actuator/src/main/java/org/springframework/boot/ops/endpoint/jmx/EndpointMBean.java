@@ -0,0 +1,139 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint.jmx;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link DynamicMBean} adapter for an {@link Endpoint}. The endpoint is only invoked by
+ * the {@code invoke} operation (never when attributes are read) and its result is
+ * converted to standard {@code java.util} types so that any JMX client can display it.
+ * 
+ * @author Dave Syer
+ * @see EndpointMBeanExporter
+ */
+public class EndpointMBean implements DynamicMBean {
+
+	private static final String PATH = "Path";
+
+	private static final String SENSITIVE = "Sensitive";
+
+	private static final String INVOKE = "invoke";
+
+	private final Endpoint<?> endpoint;
+
+	private final ObjectMapper mapper;
+
+	private final MBeanInfo info;
+
+	/**
+	 * Create a new {@link EndpointMBean} instance.
+	 * @param endpoint the endpoint to expose
+	 * @param mapper the object mapper used to convert results
+	 */
+	public EndpointMBean(Endpoint<?> endpoint, ObjectMapper mapper) {
+		Assert.notNull(endpoint, "Endpoint must not be null");
+		Assert.notNull(mapper, "Mapper must not be null");
+		this.endpoint = endpoint;
+		this.mapper = mapper;
+		this.info = createInfo(endpoint);
+	}
+
+	private static MBeanInfo createInfo(Endpoint<?> endpoint) {
+		MBeanAttributeInfo[] attributes = {
+				new MBeanAttributeInfo(PATH, String.class.getName(),
+						"The HTTP path of the endpoint", true, false, false),
+				new MBeanAttributeInfo(SENSITIVE, boolean.class.getName(),
+						"If the endpoint is sensitive", true, false, true) };
+		MBeanOperationInfo[] operations = { new MBeanOperationInfo(INVOKE,
+				"Invoke the endpoint", new MBeanParameterInfo[0], Object.class.getName(),
+				MBeanOperationInfo.INFO) };
+		return new MBeanInfo(endpoint.getClass().getName(), "Endpoint "
+				+ endpoint.getPath(), attributes, null, operations, null);
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		if (PATH.equals(attribute)) {
+			return this.endpoint.getPath();
+		}
+		if (SENSITIVE.equals(attribute)) {
+			return this.endpoint.isSensitive();
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList list = new AttributeList();
+		for (String attribute : attributes) {
+			try {
+				list.add(new Attribute(attribute, getAttribute(attribute)));
+			}
+			catch (AttributeNotFoundException ex) {
+				// Skip as required by the DynamicMBean contract
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Attribute " + attribute.getName()
+				+ " is read-only");
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature)
+			throws MBeanException, ReflectionException {
+		if (!INVOKE.equals(actionName) || (params != null && params.length > 0)) {
+			throw new ReflectionException(new NoSuchMethodException(actionName));
+		}
+		try {
+			return this.mapper.convertValue(this.endpoint.invoke(), Object.class);
+		}
+		catch (RuntimeException ex) {
+			throw new MBeanException(ex, "Failed to invoke endpoint "
+					+ this.endpoint.getPath());
+		}
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		return this.info;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint.jmx;
+
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.beans.BeansException;
+import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.boot.ops.metrics.MetricRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.export.UnableToRegisterMBeanException;
+import org.springframework.jmx.support.ObjectNameManager;
+import org.springframework.jmx.support.RegistrationPolicy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link MBeanExporter} that registers every {@link Endpoint} (as an
+ * {@link EndpointMBean}) and every {@link MetricRepository} (as a
+ * {@link MetricRepositoryMBean}) found in the {@link ApplicationContext}. Registration
+ * happens once the context is refreshed, and the MBeans are unregistered when it is
+ * closed.
+ * 
+ * @author Dave Syer
+ */
+public class EndpointMBeanExporter extends MBeanExporter implements
+		ApplicationContextAware, ApplicationListener<ContextRefreshedEvent> {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private String domain = "org.springframework.boot";
+
+	private ApplicationContext applicationContext;
+
+	/**
+	 * Create a new {@link EndpointMBeanExporter} instance.
+	 */
+	public EndpointMBeanExporter() {
+		setAutodetect(false);
+		setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Set the JMX domain of the exported MBeans. Defaults to
+	 * {@code org.springframework.boot}.
+	 * @param domain the domain
+	 */
+	public void setDomain(String domain) {
+		this.domain = domain;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext)
+			throws BeansException {
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() == this.applicationContext) {
+			registerEndpoints();
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void registerEndpoints() {
+		Map<String, Endpoint> endpoints = this.applicationContext
+				.getBeansOfType(Endpoint.class);
+		for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+			register(new EndpointMBean(entry.getValue(), this.mapper), "Endpoint",
+					entry.getKey());
+		}
+		Map<String, MetricRepository> repositories = this.applicationContext
+				.getBeansOfType(MetricRepository.class);
+		for (Map.Entry<String, MetricRepository> entry : repositories.entrySet()) {
+			register(new MetricRepositoryMBean(entry.getValue()), "Metrics",
+					entry.getKey());
+		}
+	}
+
+	private void register(Object mbean, String type, String name) {
+		try {
+			doRegister(mbean, getObjectName(type, name));
+		}
+		catch (JMException ex) {
+			throw new UnableToRegisterMBeanException("Unable to register " + type
+					+ " MBean [" + name + "]", ex);
+		}
+	}
+
+	private ObjectName getObjectName(String type, String name)
+			throws MalformedObjectNameException {
+		if (!name.matches("[\\w.-]+")) {
+			name = ObjectName.quote(name);
+		}
+		return ObjectNameManager.getInstance(this.domain + ":type=" + type + ",name="
+				+ name);
+	}
+
+}
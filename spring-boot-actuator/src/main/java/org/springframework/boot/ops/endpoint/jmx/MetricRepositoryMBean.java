@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint.jmx;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+
+import org.springframework.boot.ops.metrics.Metric;
+import org.springframework.boot.ops.metrics.MetricRepository;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DynamicMBean} exposing each {@link Metric} of a {@link MetricRepository} as a
+ * read-only attribute. Attribute values are looked up individually when they are read.
+ * Listing the attributes requires a scan of the whole repository, so the
+ * {@link MBeanInfo} is cached and only rebuilt when it is older than the
+ * {@link #setRefreshInterval(long) refresh interval} and the metric names have changed,
+ * or when a metric that it does not list yet is read.
+ * 
+ * @author Dave Syer
+ * @see EndpointMBeanExporter
+ */
+public class MetricRepositoryMBean implements DynamicMBean {
+
+	private final MetricRepository repository;
+
+	private final Map<String, MBeanAttributeInfo> attributes = new LinkedHashMap<String, MBeanAttributeInfo>();
+
+	private MBeanInfo info;
+
+	private long lastRefresh;
+
+	private long refreshInterval = 5000;
+
+	/**
+	 * Create a new {@link MetricRepositoryMBean} instance.
+	 * @param repository the metric repository to expose
+	 */
+	public MetricRepositoryMBean(MetricRepository repository) {
+		Assert.notNull(repository, "Repository must not be null");
+		this.repository = repository;
+	}
+
+	/**
+	 * Set the minimum time (in milliseconds) between scans of the repository for new or
+	 * deleted metrics. Defaults to 5000.
+	 * @param refreshInterval the refresh interval
+	 */
+	public void setRefreshInterval(long refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		Metric metric = find(attribute);
+		if (metric == null) {
+			throw new AttributeNotFoundException("No such metric " + attribute);
+		}
+		return metric.getValue();
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList list = new AttributeList();
+		for (String attribute : attributes) {
+			Metric metric = find(attribute);
+			if (metric != null) {
+				list.add(new Attribute(attribute, metric.getValue()));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Find the metric with the given name, or {@code null} if there is none. Repositories
+	 * return a zero value from {@link MetricRepository#findOne(String)} for unknown
+	 * names, so the (indexed) prefix query is used to check that the metric exists.
+	 */
+	private Metric find(String name) {
+		for (Metric metric : this.repository.findAll(name)) {
+			if (metric.getName().equals(name)) {
+				synchronized (this) {
+					if (!this.attributes.containsKey(name)) {
+						// Make sure the next request for the MBeanInfo lists it
+						this.info = null;
+					}
+				}
+				return metric;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metric " + attribute.getName()
+				+ " is read-only");
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature)
+			throws ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	@Override
+	public synchronized MBeanInfo getMBeanInfo() {
+		long now = System.currentTimeMillis();
+		if (this.info != null && now - this.lastRefresh < this.refreshInterval) {
+			return this.info;
+		}
+		this.lastRefresh = now;
+		Set<String> names = new HashSet<String>();
+		boolean changed = false;
+		for (Metric metric : this.repository.findAll()) {
+			String name = metric.getName();
+			names.add(name);
+			if (!this.attributes.containsKey(name)) {
+				this.attributes.put(name, new MBeanAttributeInfo(name,
+						Double.class.getName(), "Metric " + name, true, false, false));
+				changed = true;
+			}
+		}
+		changed |= this.attributes.keySet().retainAll(names);
+		if (changed || this.info == null) {
+			this.info = new MBeanInfo(getClass().getName(), "Metrics",
+					this.attributes.values().toArray(
+							new MBeanAttributeInfo[this.attributes.size()]), null, null,
+					null);
+		}
+		return this.info;
+	}
+
+}
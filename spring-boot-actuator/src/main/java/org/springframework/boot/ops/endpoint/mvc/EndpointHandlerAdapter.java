@@ -16,6 +16,8 @@
 
 package org.springframework.boot.ops.endpoint.mvc;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -29,23 +31,34 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.boot.ops.endpoint.QueryableEndpoint;
+import org.springframework.boot.ops.endpoint.StreamingEndpoint;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import org.springframework.web.servlet.mvc.method.annotation.AbstractMessageConverterMethodProcessor;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
  * MVC {@link HandlerAdapter} for {@link Endpoint}s. Similar in may respects to
  * {@link AbstractMessageConverterMethodProcessor} but not tied to annotated methods.
+ * {@link StreamingEndpoint}s are rendered straight to JSON when JSON is requested,
+ * without building the result object first. The JSON is buffered so that a failure
+ * part way through does not leave a truncated response. Requests for a sub-path of a
+ * {@link QueryableEndpoint} only return the entries selected by that sub-path.
  * 
  * @author Phillip Webb
  * @see EndpointHandlerMapping
@@ -56,6 +69,8 @@ public final class EndpointHandlerAdapter implements HandlerAdapter {
 
 	private static final MediaType MEDIA_TYPE_APPLICATION = new MediaType("application");
 
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
 	private ContentNegotiationManager contentNegotiationManager = new ContentNegotiationManager();
 
 	private List<HttpMessageConverter<?>> messageConverters;
@@ -88,7 +103,18 @@ public final class EndpointHandlerAdapter implements HandlerAdapter {
 	private void handle(HttpServletRequest request, HttpServletResponse response,
 			Endpoint<?> endpoint) throws Exception {
 
-		Object result = endpoint.invoke();
+		String query = getQuery(request);
+		Object result;
+		if (query != null && endpoint instanceof QueryableEndpoint) {
+			result = ((QueryableEndpoint<?>) endpoint).invoke(query);
+		}
+		else if (endpoint instanceof StreamingEndpoint
+				&& stream(request, response, (StreamingEndpoint<?>) endpoint)) {
+			return;
+		}
+		else {
+			result = endpoint.invoke();
+		}
 		Class<?> resultClass = result.getClass();
 
 		List<MediaType> mediaTypes = getMediaTypes(request, endpoint, resultClass);
@@ -118,6 +144,65 @@ public final class EndpointHandlerAdapter implements HandlerAdapter {
 		}
 	}
 
+	private String getQuery(HttpServletRequest request) {
+		String pattern = (String) request
+				.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		if (pattern == null || !pattern.endsWith("/**")) {
+			return null;
+		}
+		String path = (String) request
+				.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+		return (StringUtils.hasText(path) ? path : null);
+	}
+
+	private boolean stream(HttpServletRequest request, HttpServletResponse response,
+			StreamingEndpoint<?> endpoint) throws Exception {
+		MappingJackson2HttpMessageConverter converter = getJsonConverter();
+		if (converter == null) {
+			return false;
+		}
+		MediaType selectedMediaType;
+		try {
+			selectedMediaType = selectMediaType(getMediaTypes(request, endpoint,
+					Object.class));
+		}
+		catch (HttpMediaTypeNotAcceptableException ex) {
+			// Let the standard path report the failure
+			return false;
+		}
+		if (selectedMediaType == null
+				|| !converter.canWrite(Object.class, selectedMediaType)) {
+			return false;
+		}
+		ObjectMapper objectMapper = converter.getObjectMapper();
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(json,
+				JsonEncoding.UTF8);
+		if (objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			generator.useDefaultPrettyPrinter();
+		}
+		endpoint.writeTo(generator);
+		generator.close();
+		response.setContentType(new MediaType(selectedMediaType.getType(),
+				selectedMediaType.getSubtype(), UTF8).toString());
+		response.setContentLength(json.size());
+		json.writeTo(response.getOutputStream());
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Streamed [" + endpoint + "] as \"" + selectedMediaType
+					+ "\"");
+		}
+		return true;
+	}
+
+	private MappingJackson2HttpMessageConverter getJsonConverter() {
+		for (HttpMessageConverter<?> messageConverter : this.messageConverters) {
+			if (messageConverter instanceof MappingJackson2HttpMessageConverter) {
+				return (MappingJackson2HttpMessageConverter) messageConverter;
+			}
+		}
+		return null;
+	}
+
 	private List<MediaType> getMediaTypes(HttpServletRequest request,
 			Endpoint<?> endpoint, Class<?> resultClass)
 			throws HttpMediaTypeNotAcceptableException {
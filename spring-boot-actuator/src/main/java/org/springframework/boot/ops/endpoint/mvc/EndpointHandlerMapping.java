@@ -27,6 +27,7 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.ops.endpoint.ActionEndpoint;
 import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.boot.ops.endpoint.QueryableEndpoint;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.util.Assert;
@@ -38,7 +39,8 @@ import org.springframework.web.servlet.handler.AbstractUrlHandlerMapping;
 /**
  * {@link HandlerMapping} to map {@link Endpoint}s to URLs via {@link Endpoint#getPath()}.
  * Standard {@link Endpoint}s are mapped to GET requests, {@link ActionEndpoint}s are
- * mapped to POST requests.
+ * mapped to POST requests. {@link QueryableEndpoint}s are also mapped to the sub-paths
+ * of their path, the remainder of which is used as the query.
  * 
  * @author Phillip Webb
  * @see EndpointHandlerAdapter
@@ -77,6 +79,9 @@ public class EndpointHandlerMapping extends AbstractUrlHandlerMapping implements
 		if (!this.disabled) {
 			for (Endpoint<?> endpoint : this.endpoints) {
 				registerHandler(this.prefix + endpoint.getPath(), endpoint);
+				if (endpoint instanceof QueryableEndpoint) {
+					registerHandler(this.prefix + endpoint.getPath() + "/**", endpoint);
+				}
 			}
 		}
 	}
@@ -96,7 +101,8 @@ public class EndpointHandlerMapping extends AbstractUrlHandlerMapping implements
 					.getHandler() : handler);
 			String method = (endpoint instanceof ActionEndpoint<?> ? "POST" : "GET");
 			if (request.getMethod().equals(method)) {
-				return endpoint;
+				// Keep any chain so that the path within the mapping is exposed
+				return handler;
 			}
 		}
 		return null;
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.health;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * {@link HealthIndicator} that aggregates a number of other named indicators. The
+ * indicators are called in parallel on a small bounded thread pool, each with its own
+ * timeout, and their results are cached for a configurable time so that frequent health
+ * checks (e.g. from several load balancers) do not repeatedly hit the underlying
+ * resources. An indicator that is still running is never called again until it
+ * completes, so a stalled dependency ties up at most one thread, and a result that
+ * arrives after its caller stopped waiting is used by the next check.
+ * 
+ * <p>
+ * The result contains a {@code status} of {@value #UP} if every indicator returned
+ * normally within its timeout, or {@value #DOWN} otherwise, followed by the result of
+ * each indicator under its name.
+ * 
+ * @author Dave Syer
+ */
+public class CompositeHealthIndicator implements HealthIndicator<Map<String, Object>>,
+		DisposableBean {
+
+	/**
+	 * Status reported when all indicators are healthy.
+	 */
+	public static final String UP = "ok";
+
+	/**
+	 * Status reported when any indicator failed or timed out.
+	 */
+	public static final String DOWN = "down";
+
+	private final Map<String, HealthIndicator<?>> indicators;
+
+	private final Map<String, CachedResult> results = new ConcurrentHashMap<String, CachedResult>();
+
+	private final Map<String, Future<CachedResult>> running = new HashMap<String, Future<CachedResult>>();
+
+	private final ExecutorService executor;
+
+	private final boolean ownExecutor;
+
+	private Map<String, Long> timeouts = new HashMap<String, Long>();
+
+	private long timeout = 2000;
+
+	private long timeToLive = 1000;
+
+	/**
+	 * Create a new {@link CompositeHealthIndicator} instance with its own thread pool,
+	 * which is shut down when the indicator is {@link #destroy() destroyed}.
+	 * @param indicators the indicators keyed by name
+	 * @param poolSize the maximum number of indicators called at the same time
+	 */
+	public CompositeHealthIndicator(Map<String, ? extends HealthIndicator<?>> indicators,
+			int poolSize) {
+		this(indicators, createExecutor(indicators.size(), poolSize), true);
+	}
+
+	/**
+	 * Create a new {@link CompositeHealthIndicator} instance that calls the indicators
+	 * using the given executor. The lifecycle of the executor is managed by the caller.
+	 * @param indicators the indicators keyed by name
+	 * @param executor the executor used to call the indicators
+	 */
+	public CompositeHealthIndicator(Map<String, ? extends HealthIndicator<?>> indicators,
+			ExecutorService executor) {
+		this(indicators, executor, false);
+	}
+
+	private CompositeHealthIndicator(Map<String, ? extends HealthIndicator<?>> indicators,
+			ExecutorService executor, boolean ownExecutor) {
+		Assert.notNull(indicators, "Indicators must not be null");
+		Assert.notNull(executor, "Executor must not be null");
+		this.indicators = new LinkedHashMap<String, HealthIndicator<?>>(indicators);
+		this.executor = executor;
+		this.ownExecutor = ownExecutor;
+	}
+
+	private static ExecutorService createExecutor(int indicators, int poolSize) {
+		Assert.isTrue(poolSize > 0, "PoolSize must be greater than 0");
+		// At most one call per indicator is ever queued or running
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(Math.max(indicators,
+						1)), new HealthThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Set the default time (in milliseconds) to wait for an indicator. Defaults to 2000.
+	 * @param timeout the timeout
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Set the time (in milliseconds) to wait for specific indicators, overriding the
+	 * {@link #setTimeout(long) default}.
+	 * @param timeouts the timeouts keyed by indicator name
+	 */
+	public void setTimeouts(Map<String, Long> timeouts) {
+		this.timeouts = new HashMap<String, Long>(timeouts);
+	}
+
+	/**
+	 * Set the time (in milliseconds) for which the result of an indicator is reused.
+	 * Defaults to 1000.
+	 * @param timeToLive the time to live of cached results
+	 */
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	@Override
+	public Map<String, Object> health() {
+		long now = System.currentTimeMillis();
+		Map<String, Future<CachedResult>> pending = new LinkedHashMap<String, Future<CachedResult>>();
+		for (String name : this.indicators.keySet()) {
+			CachedResult cached = this.results.get(name);
+			if (cached == null || now - cached.timestamp >= this.timeToLive) {
+				pending.put(name, refresh(name));
+			}
+		}
+		for (Map.Entry<String, Future<CachedResult>> entry : pending.entrySet()) {
+			String name = entry.getKey();
+			Future<CachedResult> future = entry.getValue();
+			long wait = now + getTimeout(name) - System.currentTimeMillis();
+			CachedResult result = await(future, wait);
+			if (future.isDone()) {
+				completed(name, future);
+			}
+			this.results.put(name, result);
+		}
+		Map<String, Object> health = new LinkedHashMap<String, Object>();
+		health.put("status", UP);
+		for (String name : this.indicators.keySet()) {
+			CachedResult result = this.results.get(name);
+			if (!result.healthy) {
+				health.put("status", DOWN);
+			}
+			health.put(name, result.value);
+		}
+		return health;
+	}
+
+	private Future<CachedResult> refresh(final String name) {
+		synchronized (this.running) {
+			Future<CachedResult> future = this.running.get(name);
+			if (future != null) {
+				// Either still running or finished after an earlier caller timed out
+				return future;
+			}
+			final HealthIndicator<?> indicator = this.indicators.get(name);
+			try {
+				future = this.executor.submit(new Callable<CachedResult>() {
+					@Override
+					public CachedResult call() throws Exception {
+						return new CachedResult(indicator.health(), true);
+					}
+				});
+			}
+			catch (RejectedExecutionException ex) {
+				future = new FailedFuture(new CachedResult(error(ex), false));
+			}
+			this.running.put(name, future);
+			return future;
+		}
+	}
+
+	private void completed(String name, Future<CachedResult> future) {
+		synchronized (this.running) {
+			if (this.running.get(name) == future) {
+				this.running.remove(name);
+			}
+		}
+	}
+
+	private CachedResult await(Future<CachedResult> future, long wait) {
+		try {
+			return future.get(Math.max(wait, 0), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex) {
+			return new CachedResult(error("Timed out"), false);
+		}
+		catch (ExecutionException ex) {
+			return new CachedResult(error(ex.getCause()), false);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return new CachedResult(error("Interrupted"), false);
+		}
+	}
+
+	private long getTimeout(String name) {
+		Long timeout = this.timeouts.get(name);
+		return (timeout != null ? timeout : this.timeout);
+	}
+
+	private Map<String, Object> error(Throwable ex) {
+		return error(ex.getClass().getName() + ": " + ex.getMessage());
+	}
+
+	private Map<String, Object> error(String message) {
+		Map<String, Object> error = new LinkedHashMap<String, Object>();
+		error.put("status", DOWN);
+		error.put("error", message);
+		return error;
+	}
+
+	@Override
+	public void destroy() {
+		if (this.ownExecutor) {
+			this.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The result of calling an indicator.
+	 */
+	private static class CachedResult {
+
+		private final Object value;
+
+		private final boolean healthy;
+
+		private final long timestamp = System.currentTimeMillis();
+
+		public CachedResult(Object value, boolean healthy) {
+			this.value = value;
+			this.healthy = healthy;
+		}
+
+	}
+
+	/**
+	 * An already completed {@link Future} used when an indicator cannot be called.
+	 */
+	private static class FailedFuture implements Future<CachedResult> {
+
+		private final CachedResult result;
+
+		public FailedFuture(CachedResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return false;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		public boolean isDone() {
+			return true;
+		}
+
+		@Override
+		public CachedResult get() {
+			return this.result;
+		}
+
+		@Override
+		public CachedResult get(long timeout, TimeUnit unit) {
+			return this.result;
+		}
+
+	}
+
+	/**
+	 * {@link ThreadFactory} for daemon threads named {@code health-N}.
+	 */
+	private static class HealthThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "health-" + this.count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
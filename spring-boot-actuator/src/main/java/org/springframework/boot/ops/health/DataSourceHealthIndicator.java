@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.health;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link HealthIndicator} for a {@link DataSource}. Borrows a connection and checks it
+ * with {@link Connection#isValid(int)}, which lets the driver use its cheapest probe
+ * (often a protocol level ping) rather than running a query. With a pooled
+ * {@link DataSource} no new physical connection is opened.
+ * 
+ * @author Dave Syer
+ */
+public class DataSourceHealthIndicator implements HealthIndicator<Map<String, Object>> {
+
+	private final DataSource dataSource;
+
+	private int timeout = 1;
+
+	/**
+	 * Create a new {@link DataSourceHealthIndicator} instance.
+	 * @param dataSource the data source to check
+	 */
+	public DataSourceHealthIndicator(DataSource dataSource) {
+		Assert.notNull(dataSource, "DataSource must not be null");
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Set the time (in seconds) the driver may take to validate the connection. Defaults
+	 * to 1.
+	 * @param timeout the validation timeout
+	 */
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	@Override
+	public Map<String, Object> health() {
+		try {
+			Connection connection = this.dataSource.getConnection();
+			try {
+				if (!connection.isValid(this.timeout)) {
+					throw new IllegalStateException("Connection is not valid");
+				}
+				Map<String, Object> health = new LinkedHashMap<String, Object>();
+				health.put("status", "ok");
+				health.put("database", connection.getMetaData().getDatabaseProductName());
+				return health;
+			}
+			finally {
+				connection.close();
+			}
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException("Unable to check connection: "
+					+ ex.getMessage(), ex);
+		}
+	}
+
+}
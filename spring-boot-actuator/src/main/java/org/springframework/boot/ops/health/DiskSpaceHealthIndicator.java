@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.health;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link HealthIndicator} that checks the usable disk space of the file system holding
+ * a given path against a threshold. Only file system metadata is read so the check is
+ * cheap.
+ * 
+ * @author Dave Syer
+ */
+public class DiskSpaceHealthIndicator implements HealthIndicator<Map<String, Object>> {
+
+	private final File path;
+
+	private final long threshold;
+
+	/**
+	 * Create a new {@link DiskSpaceHealthIndicator} instance.
+	 * @param path the path to check
+	 * @param threshold the minimum number of usable bytes
+	 */
+	public DiskSpaceHealthIndicator(File path, long threshold) {
+		Assert.notNull(path, "Path must not be null");
+		this.path = path;
+		this.threshold = threshold;
+	}
+
+	@Override
+	public Map<String, Object> health() {
+		long free = this.path.getUsableSpace();
+		if (free < this.threshold) {
+			throw new IllegalStateException("Usable disk space " + free
+					+ " bytes is below threshold of " + this.threshold + " bytes");
+		}
+		Map<String, Object> health = new LinkedHashMap<String, Object>();
+		health.put("status", "ok");
+		health.put("free", free);
+		health.put("threshold", this.threshold);
+		return health;
+	}
+
+}
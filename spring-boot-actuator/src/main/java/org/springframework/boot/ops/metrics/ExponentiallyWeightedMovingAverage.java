@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.util.Assert;
+
+/**
+ * Exponentially weighted moving average of a series of timestamped values. Older values
+ * decay continuously with the time elapsed (with a time constant equal to the
+ * {@link #getWindow() window}) so samples can arrive at irregular intervals and no
+ * background thread is needed to "tick" the average. Updates are O(1) and lock-free.
+ * 
+ * <p>
+ * Both the weighted {@link #getAverage() average} of the values and the decayed
+ * {@link #getRate(long) rate} (total per second, treating each value as an amount) are
+ * available.
+ * 
+ * @author Dave Syer
+ */
+public class ExponentiallyWeightedMovingAverage {
+
+	private final long window;
+
+	private final AtomicReference<State> state = new AtomicReference<State>(new State(0,
+			0, Long.MIN_VALUE));
+
+	/**
+	 * Create a new {@link ExponentiallyWeightedMovingAverage} instance.
+	 * @param window the time constant of the average
+	 * @param unit the unit of the window
+	 */
+	public ExponentiallyWeightedMovingAverage(long window, TimeUnit unit) {
+		Assert.isTrue(window > 0, "Window must be greater than 0");
+		this.window = unit.toMillis(window);
+	}
+
+	/**
+	 * Returns the time constant of the average in milliseconds.
+	 */
+	public long getWindow() {
+		return this.window;
+	}
+
+	/**
+	 * Add a value.
+	 * @param value the value
+	 * @param timestamp the time of the value in milliseconds
+	 */
+	public void update(double value, long timestamp) {
+		while (true) {
+			State current = this.state.get();
+			if (this.state.compareAndSet(current, current.add(value, timestamp))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the weighted average of the values, or 0 if there are none.
+	 */
+	public double getAverage() {
+		State current = this.state.get();
+		return (current.weight == 0 ? 0 : current.sum / current.weight);
+	}
+
+	/**
+	 * Returns the decayed sum of the values per second.
+	 * @param now the current time in milliseconds
+	 * @return the rate
+	 */
+	public double getRate(long now) {
+		State current = this.state.get();
+		return current.sum * decay(now - current.timestamp) * 1000 / this.window;
+	}
+
+	private double decay(long elapsed) {
+		return (elapsed <= 0 ? 1 : Math.exp(-(double) elapsed / this.window));
+	}
+
+	/**
+	 * Immutable state of the average.
+	 */
+	private class State {
+
+		private final double sum;
+
+		private final double weight;
+
+		private final long timestamp;
+
+		public State(double sum, double weight, long timestamp) {
+			this.sum = sum;
+			this.weight = weight;
+			this.timestamp = timestamp;
+		}
+
+		public State add(double value, long timestamp) {
+			if (this.timestamp == Long.MIN_VALUE) {
+				return new State(value, 1, timestamp);
+			}
+			if (timestamp >= this.timestamp) {
+				double decay = decay(timestamp - this.timestamp);
+				return new State(this.sum * decay + value, this.weight * decay + 1,
+						timestamp);
+			}
+			// A late value counts as if it had already decayed
+			double decay = decay(this.timestamp - timestamp);
+			return new State(this.sum + value * decay, this.weight + decay,
+					this.timestamp);
+		}
+
+	}
+
+}
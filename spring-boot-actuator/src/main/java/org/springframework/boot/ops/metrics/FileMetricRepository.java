@@ -0,0 +1,463 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link MetricRepository} that keeps metrics in memory and journals them to a local,
+ * memory-mapped file so that they survive restarts. The journal is loaded when the
+ * repository is {@link #afterPropertiesSet() initialized}.
+ * 
+ * <p>
+ * Updates never block: values are held in atomics and changed metrics are only marked
+ * as dirty. A background thread periodically appends the latest value of each dirty
+ * metric to the journal, so the cost of a flush is bounded by the number of metrics
+ * rather than the number of updates. When the journal is full it is compacted into a
+ * new file holding a snapshot of all current values. If the compacted file cannot replace
+ * the journal the compaction is retried on the next flush.
+ * 
+ * @author Dave Syer
+ */
+public class FileMetricRepository implements MetricRepository, InitializingBean,
+		DisposableBean {
+
+	private static Log logger = LogFactory.getLog(FileMetricRepository.class);
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final byte END = 0;
+
+	private static final byte SET = 1;
+
+	private static final byte DELETE = 2;
+
+	private static final int RECORD_OVERHEAD = 1 + 2 + 8 + 8;
+
+	private final ConcurrentNavigableMap<String, MetricValue> values = new ConcurrentSkipListMap<String, MetricValue>();
+
+	private final Queue<String> deleted = new ConcurrentLinkedQueue<String>();
+
+	private final File file;
+
+	private int journalSize = 1024 * 1024;
+
+	private long flushInterval = 1000;
+
+	private ScheduledExecutorService executor;
+
+	private FileChannel channel;
+
+	private MappedByteBuffer journal;
+
+	private boolean open;
+
+	/**
+	 * Create a new {@link FileMetricRepository} instance.
+	 * @param file the journal file
+	 */
+	public FileMetricRepository(File file) {
+		Assert.notNull(file, "File must not be null");
+		this.file = file;
+	}
+
+	/**
+	 * Set the size (in bytes) of the journal file. The journal is compacted when it is
+	 * full. Defaults to 1 MB.
+	 * @param journalSize the journal size
+	 */
+	public void setJournalSize(int journalSize) {
+		this.journalSize = journalSize;
+	}
+
+	/**
+	 * Set the interval (in milliseconds) between flushes of changed metrics to the
+	 * journal. Defaults to 1000.
+	 * @param flushInterval the flush interval
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	@Override
+	public void increment(String metricName, int amount, Date timestamp) {
+		getOrCreate(metricName).increment(amount, timestamp.getTime());
+	}
+
+	@Override
+	public void set(String metricName, double value, Date timestamp) {
+		getOrCreate(metricName).set(value, timestamp.getTime());
+	}
+
+	private MetricValue getOrCreate(String metricName) {
+		MetricValue value = this.values.get(metricName);
+		if (value == null) {
+			MetricValue created = new MetricValue();
+			value = this.values.putIfAbsent(metricName, created);
+			value = (value != null ? value : created);
+		}
+		return value;
+	}
+
+	@Override
+	public void delete(String metricName) {
+		if (this.values.remove(metricName) != null) {
+			this.deleted.add(metricName);
+		}
+	}
+
+	@Override
+	public Metric findOne(String metricName) {
+		MetricValue value = this.values.get(metricName);
+		return new Metric(metricName, value == null ? 0 : value.get());
+	}
+
+	@Override
+	public Collection<Metric> findAll() {
+		Collection<Metric> result = new ArrayList<Metric>();
+		for (Map.Entry<String, MetricValue> entry : this.values.entrySet()) {
+			result.add(new Metric(entry.getKey(), entry.getValue().get()));
+		}
+		return result;
+	}
+
+	@Override
+	public Collection<Metric> findAll(String prefix) {
+		Collection<Metric> result = new ArrayList<Metric>();
+		for (Map.Entry<String, MetricValue> entry : this.values.tailMap(prefix)
+				.entrySet()) {
+			if (!entry.getKey().startsWith(prefix)) {
+				break;
+			}
+			result.add(new Metric(entry.getKey(), entry.getValue().get()));
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void afterPropertiesSet() throws IOException {
+		if (this.file.exists()) {
+			load();
+		}
+		File parent = this.file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		compact();
+		this.open = true;
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "metrics-journal");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					flush();
+				}
+				catch (Exception ex) {
+					logger.warn("Unable to flush metrics to "
+							+ FileMetricRepository.this.file, ex);
+				}
+			}
+		}, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		if (this.executor != null) {
+			this.executor.shutdown();
+		}
+		synchronized (this) {
+			if (this.open) {
+				try {
+					flush();
+				}
+				finally {
+					this.open = false;
+					closeJournal();
+				}
+			}
+		}
+	}
+
+	private void load() throws IOException {
+		RandomAccessFile file = new RandomAccessFile(this.file, "r");
+		MappedByteBuffer buffer = null;
+		try {
+			buffer = file.getChannel().map(MapMode.READ_ONLY, 0, file.length());
+			int count = 0;
+			try {
+				while (buffer.hasRemaining()) {
+					byte type = buffer.get();
+					if (type != SET && type != DELETE) {
+						break;
+					}
+					byte[] name = new byte[buffer.getShort()];
+					buffer.get(name);
+					long timestamp = buffer.getLong();
+					double value = buffer.getDouble();
+					apply(type, new String(name, UTF_8), timestamp, value);
+					count++;
+				}
+			}
+			catch (BufferUnderflowException ex) {
+				logger.warn("Ignoring truncated record in " + this.file);
+			}
+			catch (NegativeArraySizeException ex) {
+				logger.warn("Ignoring corrupt record in " + this.file);
+			}
+			logger.debug("Loaded " + count + " metric records from " + this.file);
+		}
+		finally {
+			unmap(buffer);
+			file.close();
+		}
+	}
+
+	private void apply(byte type, String name, long timestamp, double value) {
+		if (type == DELETE) {
+			this.values.remove(name);
+		}
+		else {
+			getOrCreate(name).set(value, timestamp);
+		}
+	}
+
+	/**
+	 * Write all metrics that changed since the last flush to the journal.
+	 * @throws IOException if the journal cannot be written
+	 */
+	public synchronized void flush() throws IOException {
+		if (!this.open) {
+			return;
+		}
+		if (this.journal == null) {
+			// An earlier compaction failed, the snapshot includes all current values
+			logger.warn("Retrying compaction of " + this.file);
+			compact();
+			return;
+		}
+		String name;
+		while ((name = this.deleted.poll()) != null) {
+			if (!this.values.containsKey(name)) {
+				append(DELETE, name, System.currentTimeMillis(), 0);
+			}
+		}
+		for (Map.Entry<String, MetricValue> entry : this.values.entrySet()) {
+			MetricValue value = entry.getValue();
+			if (value.clearDirty()) {
+				append(SET, entry.getKey(), value.getTimestamp(), value.get());
+			}
+		}
+		this.journal.force();
+	}
+
+	private void append(byte type, String name, long timestamp, double value)
+			throws IOException {
+		byte[] bytes = name.getBytes(UTF_8);
+		if (bytes.length > Short.MAX_VALUE) {
+			logger.warn("Not journaling metric with overlong name " + name);
+			return;
+		}
+		if (this.journal.remaining() < RECORD_OVERHEAD + bytes.length) {
+			// The snapshot includes the latest value of this metric
+			compact();
+			return;
+		}
+		write(this.journal, type, bytes, timestamp, value);
+	}
+
+	private void write(MappedByteBuffer buffer, byte type, byte[] name, long timestamp,
+			double value) {
+		int start = buffer.position();
+		buffer.put(END);
+		buffer.putShort((short) name.length).put(name).putLong(timestamp)
+				.putDouble(value);
+		// Mark the record as complete last so a torn write is ignored on load
+		buffer.put(start, type);
+	}
+
+	private void compact() throws IOException {
+		File compacted = new File(this.file.getPath() + ".tmp");
+		Collection<byte[]> names = new ArrayList<byte[]>();
+		int size = 0;
+		for (String name : this.values.keySet()) {
+			byte[] bytes = name.getBytes(UTF_8);
+			names.add(bytes);
+			size += RECORD_OVERHEAD + bytes.length;
+		}
+		size = Math.max(this.journalSize, size * 2);
+		if (compacted.exists() && !compacted.delete()) {
+			throw new IOException("Unable to delete " + compacted);
+		}
+		int position;
+		RandomAccessFile file = new RandomAccessFile(compacted, "rw");
+		MappedByteBuffer buffer = null;
+		try {
+			buffer = file.getChannel().map(MapMode.READ_WRITE, 0, size);
+			for (byte[] name : names) {
+				MetricValue value = this.values.get(new String(name, UTF_8));
+				if (value != null) {
+					value.clearDirty();
+					write(buffer, SET, name, value.getTimestamp(), value.get());
+				}
+			}
+			buffer.force();
+			position = buffer.position();
+		}
+		finally {
+			unmap(buffer);
+			file.close();
+		}
+		// A file that is still mapped cannot be replaced on some platforms (e.g. Windows)
+		closeJournal();
+		if (!compacted.renameTo(this.file)) {
+			if (this.file.exists() && !this.file.delete()) {
+				throw new IOException("Unable to delete " + this.file);
+			}
+			if (!compacted.renameTo(this.file)) {
+				throw new IOException("Unable to rename " + compacted + " to "
+						+ this.file);
+			}
+		}
+		RandomAccessFile journal = new RandomAccessFile(this.file, "rw");
+		this.channel = journal.getChannel();
+		this.journal = this.channel.map(MapMode.READ_WRITE, 0, journal.length());
+		this.journal.position(position);
+	}
+
+	private void closeJournal() throws IOException {
+		MappedByteBuffer journal = this.journal;
+		this.journal = null;
+		unmap(journal);
+		if (this.channel != null) {
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	/**
+	 * Release a mapped buffer immediately rather than when it is garbage collected. The
+	 * buffer must not be used afterwards.
+	 */
+	private void unmap(MappedByteBuffer buffer) {
+		if (buffer == null) {
+			return;
+		}
+		try {
+			Method cleanerMethod = ReflectionUtils.findMethod(buffer.getClass(), "cleaner");
+			if (cleanerMethod == null) {
+				return;
+			}
+			ReflectionUtils.makeAccessible(cleanerMethod);
+			Object cleaner = ReflectionUtils.invokeMethod(cleanerMethod, buffer);
+			if (cleaner != null) {
+				Method cleanMethod = ReflectionUtils.findMethod(cleaner.getClass(),
+						"clean");
+				ReflectionUtils.makeAccessible(cleanMethod);
+				ReflectionUtils.invokeMethod(cleanMethod, cleaner);
+			}
+		}
+		catch (RuntimeException ex) {
+			// Not available on this JVM, the mapping is released by the garbage collector
+			logger.debug("Unable to unmap buffer for " + this.file, ex);
+		}
+	}
+
+	/**
+	 * The current value of a metric.
+	 */
+	private static class MetricValue {
+
+		private final AtomicLong bits = new AtomicLong(Double.doubleToLongBits(0));
+
+		private volatile long timestamp;
+
+		private final AtomicBoolean dirty = new AtomicBoolean();
+
+		public void increment(int amount, long timestamp) {
+			while (true) {
+				long current = this.bits.get();
+				double value = Double.longBitsToDouble(current) + amount;
+				if (this.bits.compareAndSet(current, Double.doubleToLongBits(value))) {
+					break;
+				}
+			}
+			changed(timestamp);
+		}
+
+		public void set(double value, long timestamp) {
+			this.bits.set(Double.doubleToLongBits(value));
+			changed(timestamp);
+		}
+
+		private void changed(long timestamp) {
+			this.timestamp = timestamp;
+			if (!this.dirty.get()) {
+				this.dirty.set(true);
+			}
+		}
+
+		public double get() {
+			return Double.longBitsToDouble(this.bits.get());
+		}
+
+		public long getTimestamp() {
+			return this.timestamp;
+		}
+
+		public boolean clearDirty() {
+			return this.dirty.getAndSet(false);
+		}
+
+	}
+
+}
@@ -19,15 +19,16 @@ package org.springframework.boot.ops.metrics;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * @author Dave Syer
  */
 public class InMemoryMetricRepository implements MetricRepository {
 
-	private ConcurrentMap<String, Measurement> metrics = new ConcurrentHashMap<String, Measurement>();
+	private ConcurrentNavigableMap<String, Measurement> metrics = new ConcurrentSkipListMap<String, Measurement>();
 
 	@Override
 	public void increment(String metricName, int amount, Date timestamp) {
@@ -80,4 +81,17 @@ public class InMemoryMetricRepository implements MetricRepository {
 		return result;
 	}
 
+	@Override
+	public Collection<Metric> findAll(String prefix) {
+		ArrayList<Metric> result = new ArrayList<Metric>();
+		for (Map.Entry<String, Measurement> entry : this.metrics.tailMap(prefix)
+				.entrySet()) {
+			if (!entry.getKey().startsWith(prefix)) {
+				break;
+			}
+			result.add(entry.getValue().getMetric());
+		}
+		return result;
+	}
+
 }
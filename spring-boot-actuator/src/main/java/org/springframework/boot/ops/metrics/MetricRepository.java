@@ -42,4 +42,12 @@ public interface MetricRepository {
 
 	Collection<Metric> findAll();
 
+	/**
+	 * Find all the metrics whose names start with the given prefix. Implementations
+	 * should use an index on the metric names rather than filtering {@link #findAll()}.
+	 * @param prefix the prefix of the metric names (empty for all metrics)
+	 * @return the matching metrics
+	 */
+	Collection<Metric> findAll(String prefix);
+
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MetricRepository} decorator that maintains exponentially weighted moving
+ * averages (over 1, 5 and 15 minutes) alongside the metrics of another repository.
+ * Increments (i.e. counters) are tracked as per-second rates, exposed as
+ * {@code <name>.rate.1m} etc, and values that are set (i.e. gauges) as averages, exposed
+ * as {@code <name>.avg.1m} etc. The derived metrics are updated in O(1) as metrics
+ * change and are never calculated from stored history. A metric of the underlying
+ * repository always takes precedence over a derived metric with the same name.
+ * 
+ * @author Dave Syer
+ * @see ExponentiallyWeightedMovingAverage
+ */
+public class MovingAverageMetricRepository implements MetricRepository,
+		InitializingBean, DisposableBean {
+
+	private static final String[] WINDOW_NAMES = { "1m", "5m", "15m" };
+
+	private static final long[] WINDOWS = { 1, 5, 15 };
+
+	private static final String RATE = ".rate.";
+
+	private static final String AVERAGE = ".avg.";
+
+	private final MetricRepository delegate;
+
+	private final ConcurrentNavigableMap<String, MovingAverages> rates = new ConcurrentSkipListMap<String, MovingAverages>();
+
+	private final ConcurrentNavigableMap<String, MovingAverages> averages = new ConcurrentSkipListMap<String, MovingAverages>();
+
+	/**
+	 * Create a new {@link MovingAverageMetricRepository} instance.
+	 * @param delegate the repository holding the underlying metrics
+	 */
+	public MovingAverageMetricRepository(MetricRepository delegate) {
+		Assert.notNull(delegate, "Delegate must not be null");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void increment(String metricName, int amount, Date timestamp) {
+		this.delegate.increment(metricName, amount, timestamp);
+		getOrCreate(this.rates, metricName).update(amount, timestamp.getTime());
+	}
+
+	@Override
+	public void set(String metricName, double value, Date timestamp) {
+		this.delegate.set(metricName, value, timestamp);
+		getOrCreate(this.averages, metricName).update(value, timestamp.getTime());
+	}
+
+	private MovingAverages getOrCreate(ConcurrentMap<String, MovingAverages> map,
+			String metricName) {
+		MovingAverages averages = map.get(metricName);
+		if (averages == null) {
+			MovingAverages created = new MovingAverages();
+			averages = map.putIfAbsent(metricName, created);
+			averages = (averages != null ? averages : created);
+		}
+		return averages;
+	}
+
+	@Override
+	public void delete(String metricName) {
+		this.delegate.delete(metricName);
+		this.rates.remove(metricName);
+		this.averages.remove(metricName);
+	}
+
+	@Override
+	public Metric findOne(String metricName) {
+		Metric derived = findDerived(metricName, true);
+		derived = (derived != null ? derived : findDerived(metricName, false));
+		if (derived == null || exists(metricName)) {
+			return this.delegate.findOne(metricName);
+		}
+		return derived;
+	}
+
+	private boolean exists(String metricName) {
+		// The delegate returns a zero metric from findOne() for unknown names
+		for (Metric metric : this.delegate.findAll(metricName)) {
+			if (metric.getName().equals(metricName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Metric findDerived(String metricName, boolean rate) {
+		String type = (rate ? RATE : AVERAGE);
+		Map<String, MovingAverages> map = (rate ? this.rates : this.averages);
+		for (int i = 0; i < WINDOW_NAMES.length; i++) {
+			String suffix = type + WINDOW_NAMES[i];
+			if (metricName.endsWith(suffix)) {
+				MovingAverages averages = map.get(metricName.substring(0,
+						metricName.length() - suffix.length()));
+				if (averages != null) {
+					return new Metric(metricName, averages.get(i, rate,
+							System.currentTimeMillis()));
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Collection<Metric> findAll() {
+		return addDerived(this.delegate.findAll(), "");
+	}
+
+	@Override
+	public Collection<Metric> findAll(String prefix) {
+		return addDerived(this.delegate.findAll(prefix), prefix);
+	}
+
+	private Collection<Metric> addDerived(Collection<Metric> metrics, String prefix) {
+		Collection<Metric> result = new ArrayList<Metric>(metrics);
+		Set<String> names = new HashSet<String>();
+		for (Metric metric : metrics) {
+			names.add(metric.getName());
+		}
+		long now = System.currentTimeMillis();
+		addDerived(result, names, prefix, true, now);
+		addDerived(result, names, prefix, false, now);
+		return result;
+	}
+
+	private void addDerived(Collection<Metric> result, Set<String> names,
+			String prefix, boolean rate, long now) {
+		ConcurrentNavigableMap<String, MovingAverages> map = (rate ? this.rates
+				: this.averages);
+		for (Map.Entry<String, MovingAverages> entry : map.tailMap(prefix).entrySet()) {
+			if (!entry.getKey().startsWith(prefix)) {
+				break;
+			}
+			addDerived(result, names, prefix, entry.getKey(), entry.getValue(), rate,
+					now);
+		}
+		// The prefix may extend past the name of the metric (e.g. "foo.rate.")
+		for (int i = 1; i < prefix.length(); i++) {
+			String metricName = prefix.substring(0, i);
+			MovingAverages averages = map.get(metricName);
+			if (averages != null) {
+				addDerived(result, names, prefix, metricName, averages, rate, now);
+			}
+		}
+	}
+
+	private void addDerived(Collection<Metric> result, Set<String> names,
+			String prefix, String metricName, MovingAverages averages, boolean rate,
+			long now) {
+		String type = (rate ? RATE : AVERAGE);
+		for (int i = 0; i < WINDOW_NAMES.length; i++) {
+			String name = metricName + type + WINDOW_NAMES[i];
+			// Never shadow a real metric
+			if (name.startsWith(prefix) && !names.contains(name)) {
+				result.add(new Metric(name, averages.get(i, rate, now)));
+			}
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (this.delegate instanceof InitializingBean) {
+			((InitializingBean) this.delegate).afterPropertiesSet();
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (this.delegate instanceof DisposableBean) {
+			((DisposableBean) this.delegate).destroy();
+		}
+	}
+
+	/**
+	 * The moving averages of a single metric.
+	 */
+	private static class MovingAverages {
+
+		private final ExponentiallyWeightedMovingAverage[] averages = new ExponentiallyWeightedMovingAverage[WINDOWS.length];
+
+		public MovingAverages() {
+			for (int i = 0; i < WINDOWS.length; i++) {
+				this.averages[i] = new ExponentiallyWeightedMovingAverage(WINDOWS[i],
+						TimeUnit.MINUTES);
+			}
+		}
+
+		public void update(double value, long timestamp) {
+			for (ExponentiallyWeightedMovingAverage average : this.averages) {
+				average.update(value, timestamp);
+			}
+		}
+
+		public double get(int index, boolean rate, long now) {
+			ExponentiallyWeightedMovingAverage average = this.averages[index];
+			return (rate ? average.getRate(now) : average.getAverage());
+		}
+
+	}
+
+}
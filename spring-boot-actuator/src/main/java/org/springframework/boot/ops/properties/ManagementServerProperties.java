@@ -41,6 +41,10 @@ public class ManagementServerProperties {
 
 	private boolean allowShutdown = false;
 
+	private int maxThreads = 4;
+
+	private int acceptCount = 10;
+
 	public boolean isAllowShutdown() {
 		return this.allowShutdown;
 	}
@@ -66,6 +70,30 @@ public class ManagementServerProperties {
 		this.port = port;
 	}
 
+	/**
+	 * Returns the maximum number of request threads of the management server (only used
+	 * when it runs on a different port).
+	 */
+	public int getMaxThreads() {
+		return this.maxThreads;
+	}
+
+	public void setMaxThreads(int maxThreads) {
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Returns the accept queue length of the management server (only used when it runs
+	 * on a different port).
+	 */
+	public int getAcceptCount() {
+		return this.acceptCount;
+	}
+
+	public void setAcceptCount(int acceptCount) {
+		this.acceptCount = acceptCount;
+	}
+
 	public InetAddress getAddress() {
 		return this.address;
 	}
@@ -23,6 +23,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -89,6 +90,12 @@ public class WebRequestTraceFilter implements Filter, Ordered {
 		HttpServletRequest request = (HttpServletRequest) req;
 		HttpServletResponse response = (HttpServletResponse) res;
 
+		if (request.getDispatcherType() == DispatcherType.ASYNC) {
+			// The request was traced when it was first dispatched
+			chain.doFilter(request, response);
+			return;
+		}
+
 		Map<String, Object> trace = getTrace(request);
 		this.traceRepository.add(trace);
 		if (this.logger.isTraceEnabled()) {
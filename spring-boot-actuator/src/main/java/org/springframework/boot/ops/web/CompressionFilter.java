@@ -0,0 +1,662 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.boot.ops.metrics.CounterService;
+import org.springframework.boot.ops.metrics.GaugeService;
+import org.springframework.core.Ordered;
+
+/**
+ * Servlet {@link Filter} that gzip compresses responses on the fly. Only responses with
+ * a compressible content type and a body of at least {@link #setMinResponseSize(int)
+ * minResponseSize} bytes are compressed; smaller responses are cheaper to send as they
+ * are. The response is buffered only until that threshold is reached, after which it is
+ * streamed through a {@link Deflater} obtained from a {@link DeflaterPool}.
+ *
+ * <p>
+ * If a {@link CounterService} is provided the number of compressed and skipped responses
+ * is counted, and if a {@link GaugeService} is provided the compression ratio (compressed
+ * size divided by original size) of the last compressed response is recorded.
+ *
+ * <p>
+ * A strong {@code ETag} set on a compressed response is weakened (prefixed with
+ * {@code W/}) since the compressed body is no longer byte-for-byte identical to the
+ * entity it identifies. When request processing continues asynchronously the response
+ * is finished once the async request completes.
+ *
+ * @author Dave Syer
+ */
+public class CompressionFilter implements Filter, Ordered {
+
+	private static final int GZIP_MAGIC = 0x8b1f;
+
+	private static final String FILTERED_ATTRIBUTE = CompressionFilter.class.getName()
+			+ ".FILTERED";
+
+	private static final Set<String> DEFAULT_MIME_TYPES = new HashSet<String>(
+			Arrays.asList("text/html", "text/xml", "text/plain", "text/css",
+					"text/javascript", "application/javascript", "application/json",
+					"application/xml"));
+
+	private int order = Ordered.HIGHEST_PRECEDENCE + 10;
+
+	private int minResponseSize = 2048;
+
+	private Set<String> mimeTypes = DEFAULT_MIME_TYPES;
+
+	private DeflaterPool deflaterPool = new DeflaterPool(Runtime.getRuntime()
+			.availableProcessors() * 2, Deflater.DEFAULT_COMPRESSION);
+
+	private CounterService counterService;
+
+	private GaugeService gaugeService;
+
+	/**
+	 * @param order the order to set
+	 */
+	public void setOrder(int order) {
+		this.order = order;
+	}
+
+	@Override
+	public int getOrder() {
+		return this.order;
+	}
+
+	/**
+	 * Set the minimum size (in bytes) of a response body before it is compressed.
+	 * Defaults to 2048.
+	 * @param minResponseSize the minimum response size
+	 */
+	public void setMinResponseSize(int minResponseSize) {
+		this.minResponseSize = minResponseSize;
+	}
+
+	/**
+	 * Set the content types that will be compressed (without any parameters, e.g.
+	 * {@code text/html}). Defaults to common text, JSON and XML types.
+	 * @param mimeTypes the mime types
+	 */
+	public void setMimeTypes(Collection<String> mimeTypes) {
+		this.mimeTypes = new HashSet<String>();
+		for (String mimeType : mimeTypes) {
+			this.mimeTypes.add(mimeType.trim().toLowerCase());
+		}
+	}
+
+	/**
+	 * Set the pool of deflaters used to compress responses.
+	 * @param deflaterPool the deflater pool
+	 */
+	public void setDeflaterPool(DeflaterPool deflaterPool) {
+		this.deflaterPool = deflaterPool;
+	}
+
+	/**
+	 * @param counterService the counter service used to count (un)compressed responses
+	 */
+	public void setCounterService(CounterService counterService) {
+		this.counterService = counterService;
+	}
+
+	/**
+	 * @param gaugeService the gauge service used to record the compression ratio
+	 */
+	public void setGaugeService(GaugeService gaugeService) {
+		this.gaugeService = gaugeService;
+	}
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+	}
+
+	@Override
+	public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+			throws IOException, ServletException {
+		if (!(req instanceof HttpServletRequest) || !(res instanceof HttpServletResponse)) {
+			chain.doFilter(req, res);
+			return;
+		}
+		HttpServletRequest request = (HttpServletRequest) req;
+		HttpServletResponse response = (HttpServletResponse) res;
+		if (request.getAttribute(FILTERED_ATTRIBUTE) != null
+				|| !isCompressible(request)) {
+			// Already wrapped (e.g. an async dispatch) or not compressible
+			chain.doFilter(request, response);
+			return;
+		}
+		request.setAttribute(FILTERED_ATTRIBUTE, Boolean.TRUE);
+		response.addHeader("Vary", "Accept-Encoding");
+		final CompressingResponseWrapper wrapper = new CompressingResponseWrapper(
+				response);
+		try {
+			chain.doFilter(request, wrapper);
+		}
+		finally {
+			if (request.isAsyncStarted()) {
+				// The body is still being written so finish once the request completes
+				request.getAsyncContext().addListener(new FinishingAsyncListener(wrapper));
+			}
+			else {
+				wrapper.finish();
+			}
+		}
+	}
+
+	private boolean isCompressible(HttpServletRequest request) {
+		if ("HEAD".equals(request.getMethod()) || request.getHeader("Range") != null) {
+			return false;
+		}
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+	}
+
+	private boolean isCompressibleMimeType(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		int index = contentType.indexOf(';');
+		String mimeType = (index == -1 ? contentType : contentType.substring(0, index));
+		return this.mimeTypes.contains(mimeType.trim().toLowerCase());
+	}
+
+	private void recordMetrics(boolean compressed, long bytesIn, long bytesOut) {
+		if (this.counterService != null) {
+			this.counterService.increment("compression.responses."
+					+ (compressed ? "compressed" : "skipped"));
+		}
+		if (compressed && bytesIn > 0 && this.gaugeService != null) {
+			this.gaugeService.set("compression.ratio", (double) bytesOut / bytesIn);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.deflaterPool.clear();
+	}
+
+	/**
+	 * Response wrapper that defers committing to compression until the response is
+	 * known to be large enough (or is explicitly flushed).
+	 */
+	private class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+		private CompressingOutputStream outputStream;
+
+		private PrintWriter writer;
+
+		private long contentLength = -1;
+
+		public CompressingResponseWrapper(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (this.writer != null) {
+				throw new IllegalStateException("getWriter() has already been called");
+			}
+			return getCompressingOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				if (this.outputStream != null) {
+					throw new IllegalStateException(
+							"getOutputStream() has already been called");
+				}
+				this.writer = new PrintWriter(new OutputStreamWriter(
+						getCompressingOutputStream(), getCharacterEncoding()));
+			}
+			return this.writer;
+		}
+
+		private CompressingOutputStream getCompressingOutputStream() {
+			if (this.outputStream == null) {
+				this.outputStream = new CompressingOutputStream(this);
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthHeader(len);
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthHeader(Long.parseLong(value));
+			}
+			else if ("ETag".equalsIgnoreCase(name)) {
+				super.setHeader(name, getEtag(value));
+			}
+			else {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthHeader(Long.parseLong(value));
+			}
+			else if ("ETag".equalsIgnoreCase(name)) {
+				super.addHeader(name, getEtag(value));
+			}
+			else {
+				super.addHeader(name, value);
+			}
+		}
+
+		private String getEtag(String etag) {
+			boolean compressing = this.outputStream != null
+					&& this.outputStream.isCompressing();
+			return (compressing ? weaken(etag) : etag);
+		}
+
+		private String weaken(String etag) {
+			if (etag == null || etag.startsWith("W/")) {
+				return etag;
+			}
+			return "W/" + etag;
+		}
+
+		@Override
+		public void setIntHeader(String name, int value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthHeader(value);
+			}
+			else {
+				super.setIntHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addIntHeader(String name, int value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthHeader(value);
+			}
+			else {
+				super.addIntHeader(name, value);
+			}
+		}
+
+		private void setContentLengthHeader(long contentLength) {
+			// Held back until we know whether the body is compressed
+			this.contentLength = contentLength;
+			if (this.outputStream != null && this.outputStream.isDecided()
+					&& !this.outputStream.isCompressing()) {
+				applyContentLength();
+			}
+		}
+
+		private void applyContentLength() {
+			if (this.contentLength >= 0) {
+				super.setHeader("Content-Length", String.valueOf(this.contentLength));
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			flush();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void reset() {
+			if (this.outputStream != null && this.outputStream.isDecided()) {
+				throw new IllegalStateException("Response has already been committed");
+			}
+			super.reset();
+			resetBuffer();
+			this.contentLength = -1;
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			if (this.outputStream != null) {
+				this.outputStream.resetBuffer();
+			}
+		}
+
+		private void flush() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (this.outputStream != null) {
+				this.outputStream.flush();
+			}
+		}
+
+		public void finish() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			if (this.outputStream != null) {
+				this.outputStream.finish();
+			}
+			else {
+				applyContentLength();
+			}
+		}
+
+		public boolean shouldCompress() {
+			int status = getStatus();
+			if (status == HttpServletResponse.SC_NO_CONTENT
+					|| status == HttpServletResponse.SC_NOT_MODIFIED
+					|| containsHeader("Content-Encoding")) {
+				return false;
+			}
+			if (this.contentLength >= 0
+					&& this.contentLength < CompressionFilter.this.minResponseSize) {
+				return false;
+			}
+			return isCompressibleMimeType(getContentType());
+		}
+
+		public void startCompression() {
+			super.setHeader("Content-Encoding", "gzip");
+			String etag = getHeader("ETag");
+			if (etag != null) {
+				super.setHeader("ETag", weaken(etag));
+			}
+		}
+
+		public OutputStream getTargetOutputStream() throws IOException {
+			return super.getOutputStream();
+		}
+
+	}
+
+	/**
+	 * {@link ServletOutputStream} that buffers until the compression decision has been
+	 * made and then either streams through gzip or directly to the response.
+	 */
+	private class CompressingOutputStream extends ServletOutputStream {
+
+		private final CompressingResponseWrapper response;
+
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		private OutputStream out;
+
+		private GzipOutputStream gzip;
+
+		private boolean finished;
+
+		public CompressingOutputStream(CompressingResponseWrapper response) {
+			this.response = response;
+		}
+
+		public boolean isDecided() {
+			return this.out != null;
+		}
+
+		public boolean isCompressing() {
+			return this.gzip != null;
+		}
+
+		public void resetBuffer() {
+			if (this.buffer != null) {
+				this.buffer.reset();
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (this.finished) {
+				throw new IOException("Stream has been closed");
+			}
+			if (this.out != null) {
+				this.out.write(b, off, len);
+				return;
+			}
+			this.buffer.write(b, off, len);
+			if (this.buffer.size() >= CompressionFilter.this.minResponseSize) {
+				decide(this.response.shouldCompress());
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (this.finished) {
+				return;
+			}
+			if (this.out == null) {
+				// A flush commits the response so we have to decide now
+				decide(this.buffer.size() >= CompressionFilter.this.minResponseSize
+						&& this.response.shouldCompress());
+			}
+			this.out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			finish();
+		}
+
+		private void decide(boolean compress) throws IOException {
+			if (compress) {
+				this.response.startCompression();
+				this.gzip = new GzipOutputStream(this.response.getTargetOutputStream(),
+						CompressionFilter.this.deflaterPool.obtain());
+				this.out = this.gzip;
+			}
+			else {
+				this.response.applyContentLength();
+				this.out = this.response.getTargetOutputStream();
+			}
+			this.buffer.writeTo(this.out);
+			this.buffer = null;
+		}
+
+		public void finish() throws IOException {
+			if (this.finished) {
+				return;
+			}
+			if (this.out == null) {
+				decide(false);
+			}
+			this.finished = true;
+			if (this.gzip != null) {
+				try {
+					this.gzip.finish();
+				}
+				finally {
+					CompressionFilter.this.deflaterPool.release(this.gzip.getDeflater());
+				}
+				recordMetrics(true, this.gzip.getBytesIn(), this.gzip.getBytesOut());
+			}
+			else {
+				recordMetrics(false, 0, 0);
+			}
+		}
+
+	}
+
+	/**
+	 * {@link AsyncListener} that finishes the response once async processing is over.
+	 */
+	private static class FinishingAsyncListener implements AsyncListener {
+
+		private final CompressingResponseWrapper wrapper;
+
+		public FinishingAsyncListener(CompressingResponseWrapper wrapper) {
+			this.wrapper = wrapper;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+			this.wrapper.finish();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+			// Async processing was restarted so keep listening until it completes
+			event.getAsyncContext().addListener(this);
+		}
+
+	}
+
+	/**
+	 * Writes the gzip format (RFC 1952) using a supplied raw {@link Deflater} so that it
+	 * can be pooled, unlike {@link java.util.zip.GZIPOutputStream} which always creates
+	 * its own.
+	 */
+	private static class GzipOutputStream extends DeflaterOutputStream {
+
+		private final CRC32 crc = new CRC32();
+
+		private final Deflater deflater;
+
+		private long bytesIn;
+
+		private final CountingOutputStream counter;
+
+		public GzipOutputStream(OutputStream out, Deflater deflater) throws IOException {
+			this(new CountingOutputStream(out), deflater);
+		}
+
+		private GzipOutputStream(CountingOutputStream out, Deflater deflater)
+				throws IOException {
+			super(out, deflater, 8192);
+			this.deflater = deflater;
+			this.counter = out;
+			writeHeader();
+		}
+
+		private void writeHeader() throws IOException {
+			this.out.write(new byte[] { (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8),
+					Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 });
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			super.write(b, off, len);
+			this.crc.update(b, off, len);
+			this.bytesIn += len;
+		}
+
+		@Override
+		public void finish() throws IOException {
+			if (!this.deflater.finished()) {
+				super.finish();
+				writeInt((int) this.crc.getValue());
+				writeInt((int) this.bytesIn);
+			}
+		}
+
+		private void writeInt(int i) throws IOException {
+			this.out.write(i & 0xff);
+			this.out.write((i >> 8) & 0xff);
+			this.out.write((i >> 16) & 0xff);
+			this.out.write((i >> 24) & 0xff);
+		}
+
+		public Deflater getDeflater() {
+			return this.deflater;
+		}
+
+		public long getBytesIn() {
+			return this.bytesIn;
+		}
+
+		public long getBytesOut() {
+			return this.counter.getCount();
+		}
+
+	}
+
+	/**
+	 * {@link OutputStream} that counts the bytes written through it.
+	 */
+	private static class CountingOutputStream extends OutputStream {
+
+		private final OutputStream out;
+
+		private long count;
+
+		public CountingOutputStream(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.out.flush();
+		}
+
+		public long getCount() {
+			return this.count;
+		}
+
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.web;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.util.Assert;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Servlet {@link Filter} that limits the number of requests processed concurrently,
+ * except for requests to a set of priority paths which are always let through. Used with
+ * a small container thread pool this keeps threads free for the priority paths (e.g.
+ * health checks) however busy the other paths are. Requests over the limit are rejected
+ * immediately with {@code 503 Service Unavailable} rather than queued.
+ * 
+ * @author Dave Syer
+ */
+public class ConcurrencyLimitFilter implements Filter, Ordered {
+
+	private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+	private final Semaphore permits;
+
+	private final Set<String> priorityPaths;
+
+	private int order = Ordered.HIGHEST_PRECEDENCE;
+
+	/**
+	 * Create a new {@link ConcurrencyLimitFilter} instance.
+	 * @param maxConcurrentRequests the maximum number of non-priority requests processed
+	 * at the same time
+	 * @param priorityPaths the paths (within the application) that are never limited
+	 */
+	public ConcurrencyLimitFilter(int maxConcurrentRequests, String... priorityPaths) {
+		Assert.isTrue(maxConcurrentRequests > 0,
+				"MaxConcurrentRequests must be greater than 0");
+		this.permits = new Semaphore(maxConcurrentRequests);
+		this.priorityPaths = new HashSet<String>(Arrays.asList(priorityPaths));
+	}
+
+	/**
+	 * @param order the order to set
+	 */
+	public void setOrder(int order) {
+		this.order = order;
+	}
+
+	@Override
+	public int getOrder() {
+		return this.order;
+	}
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+	}
+
+	@Override
+	public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+			throws IOException, ServletException {
+		if (!(req instanceof HttpServletRequest) || isPriority((HttpServletRequest) req)) {
+			chain.doFilter(req, res);
+			return;
+		}
+		if (!this.permits.tryAcquire()) {
+			((HttpServletResponse) res)
+					.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			return;
+		}
+		try {
+			chain.doFilter(req, res);
+		}
+		finally {
+			this.permits.release();
+		}
+	}
+
+	private boolean isPriority(HttpServletRequest request) {
+		String path = this.urlPathHelper.getPathWithinApplication(request);
+		if (path.endsWith("/") && path.length() > 1) {
+			path = path.substring(0, path.length() - 1);
+		}
+		return this.priorityPaths.contains(path);
+	}
+
+	@Override
+	public void destroy() {
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.web;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of {@link Deflater}s. Each {@link Deflater} holds native zlib memory
+ * that is only released by {@link Deflater#end()} (or eventually by finalization) so
+ * reusing instances avoids both the allocation cost and the native memory churn of
+ * creating one per response.
+ *
+ * @author Dave Syer
+ */
+public class DeflaterPool {
+
+	private final BlockingQueue<Deflater> deflaters;
+
+	private final int level;
+
+	/**
+	 * Create a new {@link DeflaterPool}.
+	 * @param size the maximum number of idle deflaters to keep
+	 * @param level the compression level of the deflaters
+	 */
+	public DeflaterPool(int size, int level) {
+		this.deflaters = new ArrayBlockingQueue<Deflater>(Math.max(size, 1));
+		this.level = level;
+	}
+
+	/**
+	 * Obtain a {@link Deflater} producing raw (headerless) deflate data, creating a new
+	 * one if the pool is empty.
+	 * @return a deflater ready for use
+	 */
+	public Deflater obtain() {
+		Deflater deflater = this.deflaters.poll();
+		return (deflater != null ? deflater : new Deflater(this.level, true));
+	}
+
+	/**
+	 * Return a {@link Deflater} to the pool. If the pool is full the deflater is
+	 * {@link Deflater#end() ended}.
+	 * @param deflater the deflater to return
+	 */
+	public void release(Deflater deflater) {
+		deflater.reset();
+		if (!this.deflaters.offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * End all pooled deflaters.
+	 */
+	public void clear() {
+		Deflater deflater;
+		while ((deflater = this.deflaters.poll()) != null) {
+			deflater.end();
+		}
+	}
+
+}
@@ -16,13 +16,19 @@
 
 package org.springframework.boot.ops.audit;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.springframework.boot.ops.audit.AuditEvent;
 import org.springframework.boot.ops.audit.InMemoryAuditEventRepository;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link InMemoryAuditEventRepository}.
@@ -44,4 +50,96 @@ public class InMemoryAuditEventRepositoryTests {
 		assertEquals(2, this.repository.find("phil", new Date(0L)).size());
 	}
 
+	@Test
+	public void findFiltersByTimestamp() throws Exception {
+		this.repository.add(event(3000L, "dave"));
+		this.repository.add(event(1000L, "dave"));
+		this.repository.add(event(2000L, "dave"));
+		List<AuditEvent> events = this.repository.find("dave", new Date(1000L));
+		assertEquals(2, events.size());
+		assertEquals(2000L, events.get(0).getTimestamp().getTime());
+		assertEquals(3000L, events.get(1).getTimestamp().getTime());
+		assertEquals(3, this.repository.find("dave", null).size());
+		assertEquals(0, this.repository.find("dave", new Date(3000L)).size());
+	}
+
+	@Test
+	public void capacityKeepsMostRecentEvents() throws Exception {
+		this.repository.setCapacity(2);
+		this.repository.add(event(2000L, "dave"));
+		this.repository.add(event(3000L, "dave"));
+		this.repository.add(event(1000L, "dave"));
+		this.repository.add(event(4000L, "dave"));
+		List<AuditEvent> events = this.repository.find("dave", new Date(0L));
+		assertEquals(2, events.size());
+		assertEquals(3000L, events.get(0).getTimestamp().getTime());
+		assertEquals(4000L, events.get(1).getTimestamp().getTime());
+	}
+
+	@Test
+	public void testAddToMaxEvents() throws Exception {
+		this.repository.setMaxEvents(3);
+		this.repository.add(event(1000L, "phil"));
+		this.repository.add(event(2000L, "dave"));
+		this.repository.add(event(3000L, "dave"));
+		this.repository.add(event(4000L, null));
+		assertEquals(0, this.repository.find("phil", new Date(0L)).size());
+		assertEquals(2, this.repository.find("dave", new Date(0L)).size());
+		assertEquals(1, this.repository.find(null, new Date(0L)).size());
+	}
+
+	@Test
+	public void eventsDroppedByCapacityDoNotCountTowardsMaxEvents() throws Exception {
+		this.repository.setCapacity(1);
+		this.repository.setMaxEvents(2);
+		this.repository.add(event(1000L, "phil"));
+		this.repository.add(event(2000L, "dave"));
+		this.repository.add(event(3000L, "dave"));
+		assertEquals(1, this.repository.find("phil", new Date(0L)).size());
+		assertEquals(1, this.repository.find("dave", new Date(0L)).size());
+		assertEquals(3000L, this.repository.find("dave", new Date(0L)).get(0)
+				.getTimestamp().getTime());
+	}
+
+	@Test
+	public void concurrentAddAndFind() throws Exception {
+		this.repository.setCapacity(50);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			final String principal = (i % 2 == 0 ? "dave" : "phil");
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						latch.await();
+						for (int j = 0; j < 1000; j++) {
+							InMemoryAuditEventRepositoryTests.this.repository
+									.add(new AuditEvent(principal, "UNKNOWN"));
+							List<AuditEvent> events = InMemoryAuditEventRepositoryTests.this.repository
+									.find(principal, new Date(0L));
+							assertTrue(events.size() <= 50);
+						}
+					}
+					catch (Throwable ex) {
+						failure.set(ex);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		latch.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		assertEquals(50, this.repository.find("dave", new Date(0L)).size());
+	}
+
+	private AuditEvent event(long timestamp, String principal) {
+		return new AuditEvent(new Date(timestamp), principal, "UNKNOWN",
+				Collections.<String, Object> emptyMap());
+	}
+
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.audit.listener;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.ops.audit.AuditEvent;
+import org.springframework.boot.ops.audit.InMemoryAuditEventRepository;
+import org.springframework.boot.ops.audit.listener.AsyncAuditListener.OverflowPolicy;
+import org.springframework.boot.ops.metrics.InMemoryMetricRepository;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link AsyncAuditListener}.
+ * 
+ * @author Dave Syer
+ */
+public class AsyncAuditListenerTests {
+
+	private InMemoryAuditEventRepository repository = new InMemoryAuditEventRepository();
+
+	private InMemoryMetricRepository metrics = new InMemoryMetricRepository();
+
+	private AsyncAuditListener listener;
+
+	@After
+	public void close() throws Exception {
+		if (this.listener != null) {
+			this.listener.destroy();
+		}
+	}
+
+	@Test
+	public void eventsStoredInBackground() throws Exception {
+		this.listener = createListener(10, OverflowPolicy.BLOCK);
+		this.listener.start();
+		for (int i = 0; i < 5; i++) {
+			publish(i);
+		}
+		this.listener.destroy();
+		assertEquals(5, this.repository.find("dave", null).size());
+		assertEquals(5, getCount("counter.audit.events.queued"));
+		assertEquals(5, getCount("counter.audit.events.flushed"));
+	}
+
+	@Test
+	public void dropNewestWhenFull() throws Exception {
+		this.listener = createListener(2, OverflowPolicy.DROP_NEWEST);
+		publish(1);
+		publish(2);
+		publish(3);
+		this.listener.start();
+		this.listener.destroy();
+		List<AuditEvent> events = this.repository.find("dave", null);
+		assertEquals(2, events.size());
+		assertEquals(2L, events.get(1).getTimestamp().getTime());
+		assertEquals(1, getCount("counter.audit.events.dropped"));
+	}
+
+	@Test
+	public void dropOldestWhenFull() throws Exception {
+		this.listener = createListener(2, OverflowPolicy.DROP_OLDEST);
+		publish(1);
+		publish(2);
+		publish(3);
+		this.listener.start();
+		this.listener.destroy();
+		List<AuditEvent> events = this.repository.find("dave", null);
+		assertEquals(2, events.size());
+		assertEquals(2L, events.get(0).getTimestamp().getTime());
+		assertEquals(3L, events.get(1).getTimestamp().getTime());
+		assertEquals(1, getCount("counter.audit.events.dropped"));
+		assertEquals(3, getCount("counter.audit.events.queued"));
+	}
+
+	@Test
+	public void dropNewestByDefault() throws Exception {
+		this.listener = new AsyncAuditListener(this.repository, 1);
+		this.listener.setMetricRepository(this.metrics);
+		publish(1);
+		publish(2);
+		this.listener.start();
+		this.listener.destroy();
+		List<AuditEvent> events = this.repository.find("dave", null);
+		assertEquals(1, events.size());
+		assertEquals(1L, events.get(0).getTimestamp().getTime());
+	}
+
+	@Test
+	public void destroyStoresQueuedEvents() throws Exception {
+		this.listener = createListener(10, OverflowPolicy.BLOCK);
+		publish(1);
+		publish(2);
+		this.listener.destroy();
+		assertEquals(2, this.repository.find("dave", null).size());
+		assertEquals(2, getCount("counter.audit.events.flushed"));
+	}
+
+	@Test
+	public void eventsPublishedAfterDestroyAreStored() throws Exception {
+		this.listener = createListener(10, OverflowPolicy.BLOCK);
+		this.listener.start();
+		this.listener.destroy();
+		publish(1);
+		assertEquals(1, this.repository.find("dave", null).size());
+		assertEquals(1, getCount("counter.audit.events.flushed"));
+	}
+
+	private AsyncAuditListener createListener(int capacity, OverflowPolicy policy) {
+		AsyncAuditListener listener = new AsyncAuditListener(this.repository, capacity);
+		listener.setOverflowPolicy(policy);
+		listener.setMetricRepository(this.metrics);
+		return listener;
+	}
+
+	private void publish(long timestamp) {
+		this.listener.onApplicationEvent(new AuditApplicationEvent(new AuditEvent(
+				new Date(timestamp), "dave", "type", Collections
+						.<String, Object> emptyMap())));
+	}
+
+	private int getCount(String metricName) {
+		return (int) this.metrics.findOne(metricName).getValue();
+	}
+
+}
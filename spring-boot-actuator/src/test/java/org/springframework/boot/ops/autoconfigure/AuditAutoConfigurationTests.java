@@ -16,17 +16,26 @@
 
 package org.springframework.boot.ops.autoconfigure;
 
+import org.junit.After;
 import org.junit.Test;
+import org.springframework.boot.TestUtils;
+import org.springframework.boot.autoconfigure.PropertyPlaceholderAutoConfiguration;
 import org.springframework.boot.ops.audit.AuditEventRepository;
 import org.springframework.boot.ops.audit.InMemoryAuditEventRepository;
+import org.springframework.boot.ops.audit.listener.AsyncAuditListener;
+import org.springframework.boot.ops.audit.listener.AsyncAuditListener.OverflowPolicy;
+import org.springframework.boot.ops.audit.listener.AuditListener;
 import org.springframework.boot.ops.autoconfigure.AuditAutoConfiguration;
 import org.springframework.boot.ops.security.AuthenticationAuditListener;
 import org.springframework.boot.ops.security.AuthorizationAuditListener;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
@@ -39,20 +48,65 @@ public class AuditAutoConfigurationTests {
 
 	private AnnotationConfigApplicationContext context;
 
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
 	@Test
 	public void testTraceConfiguration() throws Exception {
 		this.context = new AnnotationConfigApplicationContext();
-		this.context.register(AuditAutoConfiguration.class);
+		this.context.register(PropertyPlaceholderAutoConfiguration.class,
+				AuditAutoConfiguration.class);
 		this.context.refresh();
 		assertNotNull(this.context.getBean(AuditEventRepository.class));
 		assertNotNull(this.context.getBean(AuthenticationAuditListener.class));
 		assertNotNull(this.context.getBean(AuthorizationAuditListener.class));
+		assertThat(this.context.getBean(AuditListener.class),
+				instanceOf(AsyncAuditListener.class));
+	}
+
+	@Test
+	public void asyncListenerDropsByDefault() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.register(PropertyPlaceholderAutoConfiguration.class,
+				AuditAutoConfiguration.class);
+		this.context.refresh();
+		assertThat(ReflectionTestUtils.getField(
+				this.context.getBean(AuditListener.class), "overflowPolicy"),
+				equalTo((Object) OverflowPolicy.DROP_NEWEST));
+	}
+
+	@Test
+	public void overflowPolicyFromProperty() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		TestUtils.addEnviroment(this.context, "audit.async.overflow_policy:BLOCK");
+		this.context.register(PropertyPlaceholderAutoConfiguration.class,
+				AuditAutoConfiguration.class);
+		this.context.refresh();
+		assertThat(ReflectionTestUtils.getField(
+				this.context.getBean(AuditListener.class), "overflowPolicy"),
+				equalTo((Object) OverflowPolicy.BLOCK));
+	}
+
+	@Test
+	public void synchronousListener() throws Exception {
+		this.context = new AnnotationConfigApplicationContext();
+		TestUtils.addEnviroment(this.context, "audit.async.enabled:false");
+		this.context.register(PropertyPlaceholderAutoConfiguration.class,
+				AuditAutoConfiguration.class);
+		this.context.refresh();
+		assertThat(this.context.getBean(AuditListener.class),
+				not(instanceOf(AsyncAuditListener.class)));
 	}
 
 	@Test
 	public void ownAutoRepository() throws Exception {
 		this.context = new AnnotationConfigApplicationContext();
-		this.context.register(Config.class, AuditAutoConfiguration.class);
+		this.context.register(Config.class, PropertyPlaceholderAutoConfiguration.class,
+				AuditAutoConfiguration.class);
 		this.context.refresh();
 		assertThat(this.context.getBean(AuditEventRepository.class),
 				instanceOf(TestAuditEventRepository.class));
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.springframework.boot.TestUtils;
 import org.springframework.boot.ops.autoconfigure.EndpointAutoConfiguration;
 import org.springframework.boot.ops.endpoint.BeansEndpoint;
+import org.springframework.boot.ops.endpoint.ConfigurationPropertiesReportEndpoint;
 import org.springframework.boot.ops.endpoint.DumpEndpoint;
 import org.springframework.boot.ops.endpoint.EnvironmentEndpoint;
 import org.springframework.boot.ops.endpoint.HealthEndpoint;
@@ -54,6 +55,7 @@ public class EndpointAutoConfigurationTests {
 	@Test
 	public void endpoints() throws Exception {
 		assertNotNull(this.context.getBean(BeansEndpoint.class));
+		assertNotNull(this.context.getBean(ConfigurationPropertiesReportEndpoint.class));
 		assertNotNull(this.context.getBean(DumpEndpoint.class));
 		assertNotNull(this.context.getBean(EnvironmentEndpoint.class));
 		assertNotNull(this.context.getBean(HealthEndpoint.class));
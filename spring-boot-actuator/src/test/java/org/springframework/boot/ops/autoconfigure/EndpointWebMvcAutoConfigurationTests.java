@@ -29,6 +29,8 @@ import org.springframework.boot.autoconfigure.web.EmbeddedServletContainerAutoCo
 import org.springframework.boot.autoconfigure.web.ServerPropertiesAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.WebMvcAutoConfiguration;
 import org.springframework.boot.context.embedded.AnnotationConfigEmbeddedWebApplicationContext;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
 import org.springframework.boot.ops.autoconfigure.EndpointWebMvcAutoConfiguration;
 import org.springframework.boot.ops.autoconfigure.ManagementServerPropertiesAutoConfiguration;
 import org.springframework.boot.ops.endpoint.AbstractEndpoint;
@@ -101,6 +103,22 @@ public class EndpointWebMvcAutoConfigurationTests {
 		assertAllClosed();
 	}
 
+	@Test
+	public void onDifferentPortWithUninstantiableContainerFactory() throws Exception {
+		this.applicationContext.register(RootConfig.class, DifferentPortConfig.class,
+				AnonymousContainerFactoryConfig.class,
+				PropertyPlaceholderAutoConfiguration.class,
+				EmbeddedServletContainerAutoConfiguration.class,
+				WebMvcAutoConfiguration.class,
+				ManagementServerPropertiesAutoConfiguration.class,
+				EndpointWebMvcAutoConfiguration.class);
+		this.applicationContext.refresh();
+		assertContent("/controller", 8080, "controlleroutput");
+		assertContent("/endpoint", 8081, "endpointoutput");
+		this.applicationContext.close();
+		assertAllClosed();
+	}
+
 	@Test
 	public void disabled() throws Exception {
 		this.applicationContext.register(RootConfig.class, DisableConfig.class,
@@ -228,6 +246,18 @@ public class EndpointWebMvcAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	public static class AnonymousContainerFactoryConfig {
+
+		@Bean
+		public EmbeddedServletContainerFactory containerFactory() {
+			// Anonymous subclass so that it has no default constructor
+			return new TomcatEmbeddedServletContainerFactory() {
+			};
+		}
+
+	}
+
 	@Configuration
 	public static class DisableConfig {
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.autoconfigure;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.TestUtils;
+import org.springframework.boot.autoconfigure.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.ops.endpoint.HealthEndpoint;
+import org.springframework.boot.ops.health.DataSourceHealthIndicator;
+import org.springframework.boot.ops.health.DiskSpaceHealthIndicator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link HealthIndicatorAutoConfiguration}.
+ * 
+ * @author Dave Syer
+ */
+public class HealthIndicatorAutoConfigurationTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void noIndicatorsByDefault() throws Exception {
+		load();
+		assertEquals(0,
+				this.context.getBeanNamesForType(DataSourceHealthIndicator.class).length);
+		assertEquals(0,
+				this.context.getBeanNamesForType(DiskSpaceHealthIndicator.class).length);
+		assertThat(this.context.getBean(HealthEndpoint.class).invoke(),
+				equalTo((Object) "ok"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void singleIndicatorWrapped() throws Exception {
+		load("health.disk_space.enabled:true", "health.disk_space.threshold:0");
+		Map<String, Object> health = (Map<String, Object>) this.context.getBean(
+				HealthEndpoint.class).invoke();
+		assertThat(health.get("status"), equalTo((Object) "ok"));
+		assertThat(((Map<String, Object>) health.get("diskSpace")).get("threshold"),
+				equalTo((Object) 0L));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void dataSourceAndDiskSpaceIndicators() throws Exception {
+		load(DataSourceAutoConfiguration.class, "health.disk_space.enabled:true",
+				"health.disk_space.threshold:0");
+		Map<String, Object> health = (Map<String, Object>) this.context.getBean(
+				HealthEndpoint.class).invoke();
+		assertThat(health.get("status"), equalTo((Object) "ok"));
+		assertThat(((Map<String, Object>) health.get("db")).get("status"),
+				equalTo((Object) "ok"));
+		assertThat(((Map<String, Object>) health.get("diskSpace")).get("status"),
+				equalTo((Object) "ok"));
+	}
+
+	private void load(String... environment) {
+		load(null, environment);
+	}
+
+	private void load(Class<?> config, String... environment) {
+		this.context = new AnnotationConfigApplicationContext();
+		TestUtils.addEnviroment(this.context, environment);
+		if (config != null) {
+			this.context.register(config);
+		}
+		this.context.register(PropertyPlaceholderAutoConfiguration.class,
+				HealthIndicatorAutoConfiguration.class, EndpointAutoConfiguration.class);
+		this.context.refresh();
+	}
+
+}
@@ -16,17 +16,27 @@
 
 package org.springframework.boot.ops.autoconfigure;
 
+import java.io.File;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.TestUtils;
 import org.springframework.boot.ops.autoconfigure.MetricRepositoryAutoConfiguration;
 import org.springframework.boot.ops.metrics.CounterService;
 import org.springframework.boot.ops.metrics.DefaultCounterService;
 import org.springframework.boot.ops.metrics.DefaultGaugeService;
+import org.springframework.boot.ops.metrics.FileMetricRepository;
 import org.springframework.boot.ops.metrics.GaugeService;
+import org.springframework.boot.ops.metrics.MetricRepository;
+import org.springframework.boot.ops.metrics.MovingAverageMetricRepository;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -38,6 +48,9 @@ import static org.mockito.Mockito.mock;
  */
 public class MetricRepositoryAutoConfigurationTests {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void createServices() {
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
@@ -56,6 +69,43 @@ public class MetricRepositoryAutoConfigurationTests {
 		context.close();
 	}
 
+	@Test
+	public void noMovingAveragesByDefault() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+				MetricRepositoryAutoConfiguration.class);
+		assertThat(context.getBean(MetricRepository.class),
+				not(instanceOf(MovingAverageMetricRepository.class)));
+		context.close();
+	}
+
+	@Test
+	public void movingAverages() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		TestUtils.addEnviroment(context, "metrics.moving_averages.enabled:true");
+		context.register(MetricRepositoryAutoConfiguration.class);
+		context.refresh();
+		MetricRepository repository = context.getBean(MetricRepository.class);
+		assertThat(repository, instanceOf(MovingAverageMetricRepository.class));
+		context.getBean(CounterService.class).increment("foo");
+		assertThat(repository.findOne("counter.foo.rate.1m").getValue() > 0,
+				equalTo(true));
+		context.close();
+	}
+
+	@Test
+	public void fileRepository() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "metrics.dat");
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		TestUtils.addEnviroment(context, "metrics.repository.file:" + file.getPath());
+		context.register(MetricRepositoryAutoConfiguration.class);
+		context.refresh();
+		assertThat(context.getBean(MetricRepository.class),
+				instanceOf(FileMetricRepository.class));
+		context.getBean(CounterService.class).increment("foo");
+		context.close();
+		assertThat(file.exists(), equalTo(true));
+	}
+
 	@Configuration
 	public static class Config {
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ConfigurationPropertiesReportEndpoint}.
+ * 
+ * @author Dave Syer
+ */
+public class ConfigurationPropertiesReportEndpointTests extends
+		AbstractEndpointTests<ConfigurationPropertiesReportEndpoint> {
+
+	public ConfigurationPropertiesReportEndpointTests() {
+		super(Config.class, ConfigurationPropertiesReportEndpoint.class,
+				"/configprops", true, "endpoints.configprops");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void invoke() throws Exception {
+		Map<String, Object> endpoint = (Map<String, Object>) getEndpointBean().invoke()
+				.get("endpoint");
+		assertThat(endpoint, notNullValue());
+		assertThat((String) endpoint.get("prefix"), equalTo("endpoints.configprops"));
+		assertThat(endpoint.get("bindTime"), notNullValue());
+		assertThat(endpoint.get("validateTime"), notNullValue());
+	}
+
+	@Configuration
+	@EnableConfigurationProperties
+	public static class Config {
+
+		@Bean
+		public ConfigurationPropertiesReportEndpoint endpoint() {
+			return new ConfigurationPropertiesReportEndpoint();
+		}
+
+	}
+}
@@ -16,12 +16,23 @@
 
 package org.springframework.boot.ops.endpoint;
 
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Test;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.ops.endpoint.EnvironmentEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertThat;
 
@@ -41,6 +52,39 @@ public class EnvironmentEndpointTests extends AbstractEndpointTests<EnvironmentE
 		assertThat(getEndpointBean().invoke().size(), greaterThan(0));
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void invokeWithQuery() throws Exception {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("foo.bar", "spam");
+		properties.put("foo.password", "secret");
+		properties.put("other", "value");
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(
+				new MapPropertySource("test", properties));
+		EnvironmentEndpoint endpoint = new EnvironmentEndpoint();
+		endpoint.setEnvironment(environment);
+		Map<String, Object> test = (Map<String, Object>) endpoint.invoke("foo.bar").get(
+				"test");
+		assertThat(test, equalTo(Collections.<String, Object> singletonMap("foo.bar",
+				"spam")));
+		test = (Map<String, Object>) endpoint.invoke("foo.*").get("test");
+		assertThat(test.size(), equalTo(2));
+		assertThat(test.get("foo.password"), equalTo((Object) "******"));
+		assertThat(endpoint.invoke("missing").size(), equalTo(0));
+	}
+
+	@Test
+	public void writeTo() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = mapper.getFactory().createGenerator(writer);
+		getEndpointBean().writeTo(generator);
+		generator.close();
+		assertThat(writer.toString(),
+				equalTo(mapper.writeValueAsString(getEndpointBean().invoke())));
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
@@ -16,6 +16,8 @@
 
 package org.springframework.boot.ops.endpoint;
 
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -27,6 +29,9 @@ import org.springframework.boot.ops.metrics.Metric;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 
@@ -46,6 +51,49 @@ public class MetricsEndpointTests extends AbstractEndpointTests<MetricsEndpoint>
 		assertThat(getEndpointBean().invoke().get("a"), equalTo((Object) 0.5));
 	}
 
+	@Test
+	public void invokeWithQuery() throws Exception {
+		assertThat(getEndpointBean().invoke("a").get("a"), equalTo((Object) 0.5));
+		assertThat(getEndpointBean().invoke("a*").size(), equalTo(1));
+		assertThat(getEndpointBean().invoke("b*").size(), equalTo(0));
+	}
+
+	@Test
+	public void writeTo() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = mapper.getFactory().createGenerator(writer);
+		getEndpointBean().writeTo(generator);
+		generator.close();
+		assertThat(writer.toString(),
+				equalTo(mapper.writeValueAsString(getEndpointBean().invoke())));
+	}
+
+	@Test
+	public void writeToWithDuplicateNames() throws Exception {
+		final Collection<Metric> duplicates = Arrays.asList(new Metric("a", 1),
+				new Metric("b", 2), new Metric("a", 3));
+		MetricsEndpoint endpoint = new MetricsEndpoint(new PublicMetrics() {
+			@Override
+			public Collection<Metric> metrics() {
+				return duplicates;
+			}
+
+			@Override
+			public Collection<Metric> metrics(String prefix) {
+				return duplicates;
+			}
+		});
+		ObjectMapper mapper = new ObjectMapper();
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = mapper.getFactory().createGenerator(writer);
+		endpoint.writeTo(generator);
+		generator.close();
+		assertThat(writer.toString(), equalTo("{\"a\":1.0,\"b\":2.0}"));
+		assertThat(writer.toString(),
+				equalTo(mapper.writeValueAsString(endpoint.invoke())));
+	}
+
 	@Configuration
 	@EnableConfigurationProperties
 	public static class Config {
@@ -58,6 +106,12 @@ public class MetricsEndpointTests extends AbstractEndpointTests<MetricsEndpoint>
 				public Collection<Metric> metrics() {
 					return Collections.singleton(metric);
 				}
+
+				@Override
+				public Collection<Metric> metrics(String prefix) {
+					return (metric.getName().startsWith(prefix) ? metrics() : Collections
+							.<Metric> emptySet());
+				}
 			};
 			return new MetricsEndpoint(metrics);
 		}
@@ -16,9 +16,12 @@
 
 package org.springframework.boot.ops.endpoint;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Test;
 import org.springframework.boot.ops.endpoint.VanillaPublicMetrics;
@@ -49,4 +52,43 @@ public class VanillaPublicMetricsTests {
 		assertTrue(results.containsKey("mem.free"));
 		assertThat(results.get("a").getValue(), equalTo(0.5));
 	}
+
+	@Test
+	public void testJvmMetrics() throws Exception {
+		VanillaPublicMetrics publicMetrics = new VanillaPublicMetrics(
+				new InMemoryMetricRepository());
+		Map<String, Metric> results = new HashMap<String, Metric>();
+		for (Metric metric : publicMetrics.metrics()) {
+			results.put(metric.getName(), metric);
+		}
+		assertTrue(results.containsKey("uptime"));
+		assertTrue(results.containsKey("heap.used"));
+		assertTrue(results.containsKey("nonheap.committed"));
+		assertTrue(results.containsKey("threads"));
+		assertTrue(results.containsKey("classes.loaded"));
+		assertTrue(results.get("threads").getValue() > 0);
+		boolean gc = false;
+		boolean pool = false;
+		for (String name : results.keySet()) {
+			gc |= name.startsWith("gc.") && name.endsWith(".count");
+			pool |= name.startsWith("mempool.") && name.endsWith(".used");
+		}
+		assertTrue("No GC metrics in " + results.keySet(), gc);
+		assertTrue("No memory pool metrics in " + results.keySet(), pool);
+	}
+
+	@Test
+	public void testMetricsWithPrefix() throws Exception {
+		InMemoryMetricRepository repository = new InMemoryMetricRepository();
+		repository.set("a", 0.5, new Date());
+		repository.set("threads.custom", 1, new Date());
+		VanillaPublicMetrics publicMetrics = new VanillaPublicMetrics(repository);
+		Map<String, Metric> results = new HashMap<String, Metric>();
+		for (Metric metric : publicMetrics.metrics("threads")) {
+			results.put(metric.getName(), metric);
+		}
+		assertThat(results.keySet(), equalTo((Set<String>) new HashSet<String>(Arrays
+				.asList("threads", "threads.peak", "threads.daemon", "threads.custom"))));
+	}
+
 }
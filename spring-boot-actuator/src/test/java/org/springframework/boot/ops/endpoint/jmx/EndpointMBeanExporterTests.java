@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint.jmx;
+
+import java.util.Date;
+
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.ops.endpoint.HealthEndpoint;
+import org.springframework.boot.ops.health.VanillaHealthIndicator;
+import org.springframework.boot.ops.metrics.InMemoryMetricRepository;
+import org.springframework.boot.ops.metrics.MetricRepository;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link EndpointMBeanExporter}.
+ * 
+ * @author Dave Syer
+ */
+public class EndpointMBeanExporterTests {
+
+	private final MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+	private GenericApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void registerEndpoint() throws Exception {
+		load();
+		ObjectName name = new ObjectName(
+				"org.springframework.boot:type=Endpoint,name=endpoint");
+		assertThat(this.server.getAttribute(name, "Path"), equalTo((Object) "/health"));
+		assertThat(this.server.invoke(name, "invoke", null, null),
+				equalTo((Object) "ok"));
+		this.context.close();
+		assertFalse(this.server.isRegistered(name));
+	}
+
+	@Test
+	public void registerMetricsIncrementally() throws Exception {
+		load();
+		MetricRepository repository = this.context.getBean(MetricRepository.class);
+		ObjectName name = new ObjectName(
+				"org.springframework.boot:type=Metrics,name=metrics");
+		assertThat(this.server.getMBeanInfo(name).getAttributes().length, equalTo(0));
+		repository.increment("counter.foo", 3, new Date());
+		assertThat(this.server.getAttribute(name, "counter.foo"), equalTo((Object) 3.0));
+		MBeanAttributeInfo[] attributes = this.server.getMBeanInfo(name).getAttributes();
+		assertThat(attributes.length, equalTo(1));
+		assertThat(attributes[0].getName(), equalTo("counter.foo"));
+		repository.increment("counter.foo", 1, new Date());
+		assertThat(this.server.getAttribute(name, "counter.foo"), equalTo((Object) 4.0));
+		assertTrue(this.server.isRegistered(name));
+	}
+
+	private void load() {
+		this.context = new GenericApplicationContext();
+		this.context.registerBeanDefinition("endpoint", new RootBeanDefinition(
+				TestHealthEndpoint.class));
+		this.context.registerBeanDefinition("metrics", new RootBeanDefinition(
+				InMemoryMetricRepository.class));
+		RootBeanDefinition exporter = new RootBeanDefinition(EndpointMBeanExporter.class);
+		exporter.getPropertyValues().add("server", this.server);
+		this.context.registerBeanDefinition("exporter", exporter);
+		this.context.refresh();
+	}
+
+	public static class TestHealthEndpoint extends HealthEndpoint<String> {
+
+		public TestHealthEndpoint() {
+			super(new VanillaHealthIndicator());
+		}
+
+	}
+
+}
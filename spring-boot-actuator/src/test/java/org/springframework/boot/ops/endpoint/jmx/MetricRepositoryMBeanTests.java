@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.endpoint.jmx;
+
+import java.util.Date;
+
+import javax.management.AttributeNotFoundException;
+
+import org.junit.Test;
+import org.springframework.boot.ops.metrics.InMemoryMetricRepository;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link MetricRepositoryMBean}.
+ * 
+ * @author Dave Syer
+ */
+public class MetricRepositoryMBeanTests {
+
+	private final InMemoryMetricRepository repository = new InMemoryMetricRepository();
+
+	private final MetricRepositoryMBean mbean = new MetricRepositoryMBean(
+			this.repository);
+
+	@Test(expected = AttributeNotFoundException.class)
+	public void unknownMetric() throws Exception {
+		this.mbean.getAttribute("counter.foo");
+	}
+
+	@Test
+	public void unknownMetricsSkipped() throws Exception {
+		this.repository.increment("counter.foo", 2, new Date());
+		assertThat(this.mbean.getAttributes(new String[] { "counter.foo", "counter.bar" })
+				.size(), equalTo(1));
+	}
+
+	@Test
+	public void infoCached() throws Exception {
+		this.repository.increment("counter.foo", 1, new Date());
+		this.mbean.setRefreshInterval(60000);
+		assertThat(this.mbean.getMBeanInfo().getAttributes().length, equalTo(1));
+		this.repository.increment("counter.bar", 1, new Date());
+		assertThat(this.mbean.getMBeanInfo().getAttributes().length, equalTo(1));
+		assertThat(this.mbean.getAttribute("counter.bar"), equalTo((Object) 1.0));
+		assertThat(this.mbean.getMBeanInfo().getAttributes().length, equalTo(2));
+	}
+
+	@Test
+	public void infoRebuiltOnlyWhenNamesChange() throws Exception {
+		this.repository.increment("counter.foo", 1, new Date());
+		this.mbean.setRefreshInterval(0);
+		Object info = this.mbean.getMBeanInfo();
+		this.repository.increment("counter.foo", 1, new Date());
+		assertThat(this.mbean.getMBeanInfo(), sameInstance(info));
+		this.repository.delete("counter.foo");
+		assertThat(this.mbean.getMBeanInfo().getAttributes().length, equalTo(0));
+	}
+
+}
@@ -16,12 +16,27 @@
 
 package org.springframework.boot.ops.endpoint.mvc;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 import org.junit.Test;
 import org.springframework.boot.ops.endpoint.Endpoint;
+import org.springframework.boot.ops.endpoint.MetricsEndpoint;
+import org.springframework.boot.ops.endpoint.PublicMetrics;
 import org.springframework.boot.ops.endpoint.mvc.EndpointHandlerAdapter;
+import org.springframework.boot.ops.metrics.Metric;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -33,12 +48,99 @@ public class EndpointHandlerAdapterTests {
 
 	private EndpointHandlerAdapter adapter = new EndpointHandlerAdapter();
 
+	private PublicMetrics metrics = new PublicMetrics() {
+
+		@Override
+		public Collection<Metric> metrics() {
+			return metrics("");
+		}
+
+		@Override
+		public Collection<Metric> metrics(String prefix) {
+			List<Metric> result = new ArrayList<Metric>();
+			for (Metric metric : Arrays.asList(new Metric("a", 0.5),
+					new Metric("b", 1))) {
+				if (metric.getName().startsWith(prefix)) {
+					result.add(metric);
+				}
+			}
+			return result;
+		}
+
+	};
+
 	@Test
 	public void onlySupportsEndpoints() throws Exception {
 		assertTrue(this.adapter.supports(mock(Endpoint.class)));
 		assertFalse(this.adapter.supports(mock(Object.class)));
 	}
 
+	@Test
+	public void streamsJson() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics");
+		request.addHeader("Accept", "application/json");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.adapter.handle(request, response, new MetricsEndpoint(this.metrics));
+		assertThat(response.getContentType(), equalTo("application/json;charset=UTF-8"));
+		assertThat(response.getContentAsString(), equalTo("{\"a\":0.5,\"b\":1.0}"));
+	}
+
+	@Test
+	public void invokesQueryFromSubPath() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics/b");
+		request.addHeader("Accept", "application/json");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+				"/metrics/**");
+		request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "b");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.adapter.handle(request, response, new MetricsEndpoint(this.metrics));
+		assertThat(response.getContentAsString(), equalTo("{\"b\":1.0}"));
+	}
+
+	@Test
+	public void failedStreamWritesNothing() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics");
+		request.addHeader("Accept", "application/json");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		PublicMetrics metrics = new PublicMetrics() {
+
+			@Override
+			public Collection<Metric> metrics() {
+				return new AbstractList<Metric>() {
+
+					@Override
+					public Metric get(int index) {
+						if (index > 0) {
+							throw new IllegalStateException("Expected");
+						}
+						return new Metric("a", 0.5);
+					}
+
+					@Override
+					public int size() {
+						return 2;
+					}
+
+				};
+			}
+
+			@Override
+			public Collection<Metric> metrics(String prefix) {
+				return metrics();
+			}
+
+		};
+		try {
+			this.adapter.handle(request, response, new MetricsEndpoint(metrics));
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		assertFalse(response.isCommitted());
+		assertThat(response.getContentAsString(), equalTo(""));
+	}
+
 	// FIXME tests
 
 }
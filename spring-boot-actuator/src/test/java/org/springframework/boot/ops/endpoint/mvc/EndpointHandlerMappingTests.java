@@ -21,8 +21,13 @@ import java.util.Arrays;
 import org.junit.Test;
 import org.springframework.boot.ops.endpoint.AbstractEndpoint;
 import org.springframework.boot.ops.endpoint.ActionEndpoint;
+import org.springframework.boot.ops.endpoint.QueryableEndpoint;
 import org.springframework.boot.ops.endpoint.mvc.EndpointHandlerMapping;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
@@ -88,6 +93,26 @@ public class EndpointHandlerMappingTests {
 		assertNotNull(mapping.getHandler(new MockHttpServletRequest("POST", "/a")));
 	}
 
+	@Test
+	public void subPathsForQueryableEndpoints() throws Exception {
+		TestEndpoint endpointA = new TestEndpoint("/a");
+		TestEndpoint endpointB = new TestQueryableEndpoint("/b");
+		EndpointHandlerMapping mapping = new EndpointHandlerMapping(Arrays.asList(
+				endpointA, endpointB));
+		mapping.afterPropertiesSet();
+		assertThat(mapping.getHandler(new MockHttpServletRequest("GET", "/a/foo")),
+				nullValue());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/b/foo.*");
+		HandlerExecutionChain chain = mapping.getHandler(request);
+		assertThat(chain.getHandler(), equalTo((Object) endpointB));
+		for (HandlerInterceptor interceptor : chain.getInterceptors()) {
+			interceptor.preHandle(request, new MockHttpServletResponse(), endpointB);
+		}
+		assertThat(
+				request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE),
+				equalTo((Object) "foo.*"));
+	}
+
 	@Test
 	public void disabled() throws Exception {
 		TestEndpoint endpointA = new TestEndpoint("/a");
@@ -112,6 +137,20 @@ public class EndpointHandlerMappingTests {
 
 	}
 
+	private static class TestQueryableEndpoint extends TestEndpoint implements
+			QueryableEndpoint<Object> {
+
+		public TestQueryableEndpoint(String path) {
+			super(path);
+		}
+
+		@Override
+		public Object invoke(String query) {
+			return null;
+		}
+
+	}
+
 	private static class TestActionEndpoint extends TestEndpoint implements
 			ActionEndpoint<Object> {
 
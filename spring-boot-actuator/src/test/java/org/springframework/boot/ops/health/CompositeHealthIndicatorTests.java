@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link CompositeHealthIndicator}.
+ * 
+ * @author Dave Syer
+ */
+public class CompositeHealthIndicatorTests {
+
+	private final Map<String, HealthIndicator<?>> indicators = new LinkedHashMap<String, HealthIndicator<?>>();
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+
+	private CompositeHealthIndicator composite;
+
+	@After
+	public void close() {
+		this.latch.countDown();
+		if (this.composite != null) {
+			this.composite.destroy();
+		}
+	}
+
+	@Test
+	public void allHealthy() throws Exception {
+		this.indicators.put("one", new VanillaHealthIndicator());
+		this.indicators.put("two", new VanillaHealthIndicator());
+		Map<String, Object> health = createComposite().health();
+		assertThat(health.get("status"), equalTo((Object) "ok"));
+		assertThat(health.get("one"), equalTo((Object) "ok"));
+		assertThat(health.get("two"), equalTo((Object) "ok"));
+	}
+
+	@Test
+	public void failingIndicator() throws Exception {
+		this.indicators.put("one", new VanillaHealthIndicator());
+		this.indicators.put("two", new HealthIndicator<String>() {
+			@Override
+			public String health() {
+				throw new IllegalStateException("Expected");
+			}
+		});
+		Map<String, Object> health = createComposite().health();
+		assertThat(health.get("status"), equalTo((Object) "down"));
+		assertThat(((Map<?, ?>) health.get("two")).get("error"),
+				equalTo((Object) "java.lang.IllegalStateException: Expected"));
+	}
+
+	@Test
+	public void stalledIndicatorTimesOut() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		this.indicators.put("one", new VanillaHealthIndicator());
+		this.indicators.put("stalled", new HealthIndicator<String>() {
+			@Override
+			public String health() {
+				calls.incrementAndGet();
+				try {
+					CompositeHealthIndicatorTests.this.latch.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return "ok";
+			}
+		});
+		this.composite = createComposite();
+		this.composite.setTimeToLive(0);
+		this.composite.setTimeout(50);
+		assertThat(this.composite.health().get("status"), equalTo((Object) "down"));
+		assertThat(this.composite.health().get("one"), equalTo((Object) "ok"));
+		// The stalled indicator is not called again while it is still running
+		assertThat(calls.get(), equalTo(1));
+	}
+
+	@Test
+	public void lateResultUsedByNextCall() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		this.indicators.put("slow", new HealthIndicator<String>() {
+			@Override
+			public String health() {
+				if (calls.incrementAndGet() == 1) {
+					try {
+						CompositeHealthIndicatorTests.this.latch.await();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					return "late";
+				}
+				return "fresh";
+			}
+		});
+		this.composite = createComposite();
+		this.composite.setTimeToLive(0);
+		this.composite.setTimeout(50);
+		assertThat(this.composite.health().get("status"), equalTo((Object) "down"));
+		Future<?> running = getRunning("slow");
+		this.latch.countDown();
+		running.get();
+		assertThat(this.composite.health().get("slow"), equalTo((Object) "late"));
+		assertThat(calls.get(), equalTo(1));
+		assertThat(this.composite.health().get("slow"), equalTo((Object) "fresh"));
+	}
+
+	@Test
+	public void sharedExecutorNotShutDown() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			this.indicators.put("one", new VanillaHealthIndicator());
+			this.composite = new CompositeHealthIndicator(this.indicators, executor);
+			assertThat(this.composite.health().get("one"), equalTo((Object) "ok"));
+			this.composite.destroy();
+			assertFalse(executor.isShutdown());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void resultsAreCached() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		this.indicators.put("one", new HealthIndicator<Integer>() {
+			@Override
+			public Integer health() {
+				return calls.incrementAndGet();
+			}
+		});
+		this.composite = createComposite();
+		this.composite.setTimeToLive(60000);
+		this.composite.health();
+		assertThat(this.composite.health().get("one"), equalTo((Object) 1));
+		assertThat(calls.get(), equalTo(1));
+	}
+
+	private CompositeHealthIndicator createComposite() {
+		this.composite = new CompositeHealthIndicator(this.indicators, 2);
+		return this.composite;
+	}
+
+	private Future<?> getRunning(String name) {
+		Map<?, ?> running = (Map<?, ?>) ReflectionTestUtils.getField(this.composite,
+				"running");
+		synchronized (running) {
+			return (Future<?>) running.get(name);
+		}
+	}
+
+}
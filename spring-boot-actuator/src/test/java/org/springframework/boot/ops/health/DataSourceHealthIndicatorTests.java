@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.health;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link DataSourceHealthIndicator}.
+ * 
+ * @author Dave Syer
+ */
+public class DataSourceHealthIndicatorTests {
+
+	private EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(
+			EmbeddedDatabaseType.HSQL).build();
+
+	@After
+	public void close() {
+		this.database.shutdown();
+	}
+
+	@Test
+	public void validConnection() throws Exception {
+		Map<String, Object> health = new DataSourceHealthIndicator(this.database)
+				.health();
+		assertThat(health.get("status"), equalTo((Object) "ok"));
+		assertThat(health.get("database"), equalTo((Object) "HSQL Database Engine"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void invalidConnection() throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		given(dataSource.getConnection()).willReturn(connection);
+		given(connection.isValid(anyInt())).willReturn(false);
+		try {
+			new DataSourceHealthIndicator(dataSource).health();
+		}
+		finally {
+			verify(connection).close();
+		}
+	}
+
+}
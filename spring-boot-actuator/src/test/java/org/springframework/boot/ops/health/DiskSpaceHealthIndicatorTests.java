@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.health;
+
+import java.io.File;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link DiskSpaceHealthIndicator}.
+ * 
+ * @author Dave Syer
+ */
+public class DiskSpaceHealthIndicatorTests {
+
+	private File path = new File(".");
+
+	@Test
+	public void enoughSpace() throws Exception {
+		Map<String, Object> health = new DiskSpaceHealthIndicator(this.path, 0).health();
+		assertThat(health.get("status"), equalTo((Object) "ok"));
+		assertThat(health.get("threshold"), equalTo((Object) 0L));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void belowThreshold() throws Exception {
+		new DiskSpaceHealthIndicator(this.path, Long.MAX_VALUE).health();
+	}
+
+}
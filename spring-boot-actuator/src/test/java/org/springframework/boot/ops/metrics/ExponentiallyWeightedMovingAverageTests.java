@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ExponentiallyWeightedMovingAverage}.
+ * 
+ * @author Dave Syer
+ */
+public class ExponentiallyWeightedMovingAverageTests {
+
+	private ExponentiallyWeightedMovingAverage average = new ExponentiallyWeightedMovingAverage(
+			1, TimeUnit.MINUTES);
+
+	@Test
+	public void empty() throws Exception {
+		assertThat(this.average.getAverage(), equalTo(0.0));
+		assertThat(this.average.getRate(0), equalTo(0.0));
+	}
+
+	@Test
+	public void averageFavorsRecentValues() throws Exception {
+		this.average.update(100, 0);
+		assertThat(this.average.getAverage(), equalTo(100.0));
+		this.average.update(10, 60000);
+		// The first value has decayed by e^-1
+		double weight = Math.exp(-1);
+		assertThat(this.average.getAverage(),
+				closeTo((100 * weight + 10) / (weight + 1), 0.0001));
+	}
+
+	@Test
+	public void steadyRate() throws Exception {
+		// 10 events per second for 10 minutes
+		for (long time = 0; time < 600000; time += 100) {
+			this.average.update(1, time);
+		}
+		assertThat(this.average.getRate(600000), closeTo(10.0, 0.1));
+		// No events for a minute
+		assertThat(this.average.getRate(660000), closeTo(10.0 * Math.exp(-1), 0.1));
+	}
+
+	@Test
+	public void lateValuesDecay() throws Exception {
+		this.average.update(1, 60000);
+		this.average.update(1, 0);
+		assertThat(this.average.getRate(60000),
+				closeTo((1 + Math.exp(-1)) / 60, 0.0001));
+	}
+
+}
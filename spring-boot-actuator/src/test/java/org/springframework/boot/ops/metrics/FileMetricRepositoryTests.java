@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link FileMetricRepository}.
+ * 
+ * @author Dave Syer
+ */
+public class FileMetricRepositoryTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private FileMetricRepository repository;
+
+	@After
+	public void close() throws Exception {
+		if (this.repository != null) {
+			this.repository.destroy();
+		}
+	}
+
+	@Test
+	public void metricsSurviveRestart() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "metrics.dat");
+		this.repository = open(file, 1024);
+		this.repository.increment("counter.foo", 2, new Date());
+		this.repository.increment("counter.foo", 3, new Date());
+		this.repository.set("gauge.bar", 1.5, new Date());
+		this.repository.set("gauge.spam", 1, new Date());
+		this.repository.flush();
+		this.repository.delete("gauge.spam");
+		this.repository.destroy();
+		this.repository = open(file, 1024);
+		assertThat(this.repository.findOne("counter.foo").getValue(), equalTo(5.0));
+		assertThat(this.repository.findOne("gauge.bar").getValue(), equalTo(1.5));
+		assertThat(this.repository.findAll().size(), equalTo(2));
+	}
+
+	@Test
+	public void findAllWithPrefix() throws Exception {
+		this.repository = open(new File(this.temporaryFolder.getRoot(), "metrics.dat"),
+				1024);
+		this.repository.increment("counter.foo", 1, new Date());
+		this.repository.increment("counter.bar", 1, new Date());
+		this.repository.set("gauge.foo", 1, new Date());
+		assertThat(this.repository.findAll("counter.").size(), equalTo(2));
+		assertThat(this.repository.findAll("gauge.foo").size(), equalTo(1));
+		assertThat(this.repository.findAll("gauge.foo.").size(), equalTo(0));
+		assertThat(this.repository.findAll("").size(), equalTo(3));
+	}
+
+	@Test
+	public void journalIsCompactedWhenFull() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "metrics.dat");
+		this.repository = open(file, 64);
+		for (int i = 0; i < 100; i++) {
+			this.repository.increment("counter.foo", 1, new Date());
+			this.repository.set("gauge." + (i % 3), i, new Date());
+			this.repository.flush();
+		}
+		assertThat(file.length() < 1024, equalTo(true));
+		assertThat(new File(file.getPath() + ".tmp").exists(), equalTo(false));
+		this.repository.destroy();
+		this.repository = open(file, 64);
+		assertThat(this.repository.findOne("counter.foo").getValue(), equalTo(100.0));
+		assertThat(this.repository.findOne("gauge.0").getValue(), equalTo(99.0));
+		assertThat(this.repository.findAll().size(), equalTo(4));
+	}
+
+	@Test
+	public void compactionRetriedAfterFailure() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "metrics.dat");
+		this.repository = open(file, 64);
+		// A non-empty directory in place of the journal cannot be replaced
+		file.delete();
+		File blocker = new File(file, "blocker");
+		blocker.mkdirs();
+		int count = 0;
+		try {
+			while (count < 100) {
+				this.repository.increment("counter.foo", 1, new Date());
+				count++;
+				this.repository.flush();
+			}
+			fail("Expected IOException");
+		}
+		catch (IOException ex) {
+			// expected
+		}
+		this.repository.increment("counter.foo", 1, new Date());
+		count++;
+		assertThat(blocker.delete() && file.delete(), equalTo(true));
+		this.repository.flush();
+		this.repository.destroy();
+		this.repository = open(file, 64);
+		assertThat(this.repository.findOne("counter.foo").getValue(),
+				equalTo((double) count));
+	}
+
+	private FileMetricRepository open(File file, int journalSize) throws Exception {
+		FileMetricRepository repository = new FileMetricRepository(file);
+		repository.setJournalSize(journalSize);
+		repository.setFlushInterval(60000);
+		repository.afterPropertiesSet();
+		return repository;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.metrics;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link MovingAverageMetricRepository}.
+ * 
+ * @author Dave Syer
+ */
+public class MovingAverageMetricRepositoryTests {
+
+	private MovingAverageMetricRepository repository = new MovingAverageMetricRepository(
+			new InMemoryMetricRepository());
+
+	@Test
+	public void gaugeAverages() throws Exception {
+		this.repository.set("gauge.foo", 2, new Date());
+		this.repository.set("gauge.foo", 2, new Date());
+		assertThat(this.repository.findOne("gauge.foo").getValue(), equalTo(2.0));
+		assertThat(this.repository.findOne("gauge.foo.avg.5m").getValue(), equalTo(2.0));
+		Map<String, Double> all = getAll();
+		assertThat(all.size(), equalTo(4));
+		assertThat(all.get("gauge.foo.avg.15m"), equalTo(2.0));
+	}
+
+	@Test
+	public void counterRates() throws Exception {
+		this.repository.increment("counter.foo", 60, new Date());
+		assertThat(this.repository.findOne("counter.foo").getValue(), equalTo(60.0));
+		assertThat(this.repository.findOne("counter.foo.rate.1m").getValue() > 0.9,
+				equalTo(true));
+		assertThat(getAll().size(), equalTo(4));
+	}
+
+	@Test
+	public void deleteRemovesDerivedMetrics() throws Exception {
+		this.repository.increment("counter.foo", 1, new Date());
+		this.repository.delete("counter.foo");
+		assertThat(this.repository.findAll().size(), equalTo(0));
+	}
+
+	@Test
+	public void findAllWithPrefix() throws Exception {
+		this.repository.increment("counter.foo", 1, new Date());
+		this.repository.increment("counter.bar", 1, new Date());
+		this.repository.set("gauge.foo", 2, new Date());
+		assertThat(this.repository.findAll("counter.foo").size(), equalTo(4));
+		assertThat(this.repository.findAll("counter.").size(), equalTo(8));
+		assertThat(this.repository.findAll("counter.foo.rate.1").size(), equalTo(2));
+		assertThat(this.repository.findAll("gauge.foo.avg.5m").size(), equalTo(1));
+		assertThat(this.repository.findAll("").size(), equalTo(12));
+	}
+
+	@Test
+	public void realMetricsNotShadowed() throws Exception {
+		this.repository.increment("counter.foo", 60, new Date());
+		this.repository.set("counter.foo.rate.1m", 3, new Date());
+		assertThat(this.repository.findOne("counter.foo.rate.1m").getValue(),
+				equalTo(3.0));
+		assertThat(getAll().get("counter.foo.rate.1m"), equalTo(3.0));
+		// counter.foo and two of its rates, counter.foo.rate.1m and its averages
+		assertThat(this.repository.findAll().size(), equalTo(7));
+		assertThat(this.repository.findAll("counter.foo.rate.1m").size(), equalTo(4));
+	}
+
+	private Map<String, Double> getAll() {
+		Map<String, Double> all = new HashMap<String, Double>();
+		for (Metric metric : this.repository.findAll()) {
+			all.put(metric.getName(), metric.getValue());
+		}
+		return all;
+	}
+
+}
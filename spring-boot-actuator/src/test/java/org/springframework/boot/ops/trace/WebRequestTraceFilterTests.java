@@ -18,10 +18,14 @@ package org.springframework.boot.ops.trace;
 
 import java.util.Map;
 
+import javax.servlet.DispatcherType;
+
 import org.junit.Test;
 import org.springframework.boot.ops.trace.InMemoryTraceRepository;
 import org.springframework.boot.ops.trace.WebRequestTraceFilter;
+import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.junit.Assert.assertEquals;
 
@@ -32,8 +36,9 @@ import static org.junit.Assert.assertEquals;
  */
 public class WebRequestTraceFilterTests {
 
-	private WebRequestTraceFilter filter = new WebRequestTraceFilter(
-			new InMemoryTraceRepository());
+	private InMemoryTraceRepository repository = new InMemoryTraceRepository();
+
+	private WebRequestTraceFilter filter = new WebRequestTraceFilter(this.repository);
 
 	@Test
 	public void filterDumpsRequest() {
@@ -44,4 +49,14 @@ public class WebRequestTraceFilterTests {
 		assertEquals("/foo", trace.get("path"));
 		assertEquals("{Accept=application/json}", trace.get("headers").toString());
 	}
+
+	@Test
+	public void asyncDispatchIsNotTracedTwice() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+		request.setDispatcherType(DispatcherType.ASYNC);
+		this.filter.doFilter(request, response, new MockFilterChain());
+		assertEquals(1, this.repository.findAll().size());
+	}
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.springframework.boot.ops.metrics.CounterService;
+import org.springframework.boot.ops.metrics.GaugeService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link CompressionFilter}.
+ *
+ * @author Dave Syer
+ */
+public class CompressionFilterTests {
+
+	private static final String LARGE_BODY = createBody(4096);
+
+	private CompressionFilter filter = new CompressionFilter();
+
+	@Test
+	public void compressesLargeResponse() throws Exception {
+		MockHttpServletResponse response = doFilter("gzip", "text/html", LARGE_BODY);
+		assertThat(response.getHeader("Content-Encoding"), equalTo((Object) "gzip"));
+		assertThat(response.getHeader("Vary"), equalTo((Object) "Accept-Encoding"));
+		byte[] content = response.getContentAsByteArray();
+		assertThat(content.length, lessThan(LARGE_BODY.length()));
+		assertThat(new String(StreamUtils.copyToByteArray(new GZIPInputStream(
+				new ByteArrayInputStream(content)))), equalTo(LARGE_BODY));
+	}
+
+	@Test
+	public void compressesRepeatedlyWithPooledDeflaters() throws Exception {
+		this.filter.setDeflaterPool(new DeflaterPool(1, 9));
+		for (int i = 0; i < 3; i++) {
+			compressesLargeResponse();
+		}
+	}
+
+	@Test
+	public void smallResponseIsNotCompressed() throws Exception {
+		MockHttpServletResponse response = doFilter("gzip", "text/html", "small");
+		assertThat(response.getHeader("Content-Encoding"), nullValue());
+		assertThat(response.getContentAsString(), equalTo("small"));
+	}
+
+	@Test
+	public void unknownMimeTypeIsNotCompressed() throws Exception {
+		MockHttpServletResponse response = doFilter("gzip", "image/png", LARGE_BODY);
+		assertThat(response.getHeader("Content-Encoding"), nullValue());
+		assertThat(response.getContentAsString(), equalTo(LARGE_BODY));
+	}
+
+	@Test
+	public void notCompressedWhenNotAccepted() throws Exception {
+		MockHttpServletResponse response = doFilter(null, "text/html", LARGE_BODY);
+		assertThat(response.getHeader("Content-Encoding"), nullValue());
+		assertThat(response.getContentAsString(), equalTo(LARGE_BODY));
+	}
+
+	@Test
+	public void contentLengthOnlyKeptForUncompressedResponse() throws Exception {
+		MockHttpServletResponse response = doFilter("gzip", "text/plain", "small");
+		assertThat(response.getContentLength(), equalTo(5));
+		response = doFilter("gzip", "text/plain", LARGE_BODY);
+		assertThat(response.getHeader("Content-Length"), nullValue());
+	}
+
+	@Test
+	public void recordsMetrics() throws Exception {
+		CounterService counterService = mock(CounterService.class);
+		GaugeService gaugeService = mock(GaugeService.class);
+		this.filter.setCounterService(counterService);
+		this.filter.setGaugeService(gaugeService);
+		doFilter("gzip", "text/html", LARGE_BODY);
+		doFilter("gzip", "text/html", "small");
+		verify(counterService).increment("compression.responses.compressed");
+		verify(counterService).increment("compression.responses.skipped");
+		verify(gaugeService).set(eq("compression.ratio"), anyDouble());
+	}
+
+	@Test
+	public void strongEtagIsWeakenedWhenCompressed() throws Exception {
+		MockHttpServletRequest request = createRequest("gzip");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response)
+					throws IOException, ServletException {
+				HttpServletResponse httpResponse = (HttpServletResponse) response;
+				httpResponse.setContentType("text/html");
+				httpResponse.setHeader("ETag", "\"abc\"");
+				httpResponse.getOutputStream().write(LARGE_BODY.getBytes());
+			}
+		});
+		assertThat(response.getHeader("Content-Encoding"), equalTo((Object) "gzip"));
+		assertThat(response.getHeader("ETag"), equalTo((Object) "W/\"abc\""));
+	}
+
+	@Test
+	public void strongEtagIsKeptWhenNotCompressed() throws Exception {
+		MockHttpServletRequest request = createRequest("gzip");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response)
+					throws IOException, ServletException {
+				HttpServletResponse httpResponse = (HttpServletResponse) response;
+				httpResponse.setContentType("text/html");
+				httpResponse.setHeader("ETag", "\"abc\"");
+				httpResponse.getOutputStream().write("small".getBytes());
+			}
+		});
+		assertThat(response.getHeader("ETag"), equalTo((Object) "\"abc\""));
+	}
+
+	@Test
+	public void asyncResponseFinishedOnCompletion() throws Exception {
+		CounterService counterService = mock(CounterService.class);
+		this.filter.setCounterService(counterService);
+		MockHttpServletRequest request = createRequest("gzip");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		final AtomicReference<ServletResponse> asyncResponse = new AtomicReference<ServletResponse>();
+		this.filter.doFilter(request, response, new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response)
+					throws IOException, ServletException {
+				request.startAsync(request, response);
+				asyncResponse.set(response);
+			}
+		});
+		verifyZeroInteractions(counterService);
+		HttpServletResponse httpResponse = (HttpServletResponse) asyncResponse.get();
+		httpResponse.setContentType("text/html");
+		httpResponse.getOutputStream().write(LARGE_BODY.getBytes());
+		request.getAsyncContext().complete();
+		verify(counterService).increment("compression.responses.compressed");
+		assertThat(response.getHeader("Content-Encoding"), equalTo((Object) "gzip"));
+		assertThat(new String(StreamUtils.copyToByteArray(new GZIPInputStream(
+				new ByteArrayInputStream(response.getContentAsByteArray())))),
+				equalTo(LARGE_BODY));
+	}
+
+	private MockHttpServletRequest createRequest(String acceptEncoding) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		if (acceptEncoding != null) {
+			request.addHeader("Accept-Encoding", acceptEncoding);
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse doFilter(String acceptEncoding,
+			final String contentType, final String body) throws Exception {
+		MockHttpServletRequest request = createRequest(acceptEncoding);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response)
+					throws IOException, ServletException {
+				HttpServletResponse httpResponse = (HttpServletResponse) response;
+				httpResponse.setContentType(contentType);
+				httpResponse.setContentLength(body.length());
+				httpResponse.getOutputStream().write(body.getBytes());
+			}
+		});
+		return response;
+	}
+
+	private static String createBody(int size) {
+		StringBuilder body = new StringBuilder();
+		while (body.length() < size) {
+			body.append("<p>Hello World</p>");
+		}
+		return body.toString();
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.ops.web;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ConcurrencyLimitFilter}.
+ * 
+ * @author Dave Syer
+ */
+public class ConcurrencyLimitFilterTests {
+
+	private ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, "/health");
+
+	@Test
+	public void requestsWithinLimitPass() throws Exception {
+		assertThat(doFilter("/metrics", new MockFilterChain()).getStatus(),
+				equalTo(200));
+		assertThat(doFilter("/metrics", new MockFilterChain()).getStatus(),
+				equalTo(200));
+	}
+
+	@Test
+	public void requestsOverLimitRejected() throws Exception {
+		final int[] nestedStatus = new int[2];
+		doFilter("/metrics", new FilterChain() {
+			@Override
+			public void doFilter(ServletRequest request, ServletResponse response)
+					throws IOException, ServletException {
+				// While this request is active the limit has been reached
+				nestedStatus[0] = ConcurrencyLimitFilterTests.this.doFilter("/beans",
+						new MockFilterChain()).getStatus();
+				nestedStatus[1] = ConcurrencyLimitFilterTests.this.doFilter("/health/",
+						new MockFilterChain()).getStatus();
+			}
+		});
+		assertThat(nestedStatus[0], equalTo(503));
+		assertThat(nestedStatus[1], equalTo(200));
+	}
+
+	private MockHttpServletResponse doFilter(String path, FilterChain chain)
+			throws IOException, ServletException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setServletPath(path);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, chain);
+		return response;
+	}
+
+}
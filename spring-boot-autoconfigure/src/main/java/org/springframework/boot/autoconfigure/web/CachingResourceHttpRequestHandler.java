@@ -0,0 +1,351 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * {@link ResourceHttpRequestHandler} that keeps the resolved resources (and their
+ * content) in a bounded in-memory cache so that repeated requests do not need to search
+ * the resource locations or read from nested jars again. Cached responses carry a strong
+ * {@code ETag} derived from the content and conditional requests are answered with
+ * {@code 304 Not Modified}. When a precompressed {@code .gz} variant of a resource exists
+ * next to it, it is served to clients that accept gzip encoding. A cached entry is
+ * reloaded if the last modified time of its resource changes, and resources that could
+ * not be found are not cached at all.
+ *
+ * <p>
+ * Resources whose file name contains a content fingerprint (e.g.
+ * {@code app-5d41402abc4b2a76.js}) never change, so they can be given a separate (far
+ * future) cache period.
+ *
+ * @author Dave Syer
+ */
+public class CachingResourceHttpRequestHandler extends ResourceHttpRequestHandler {
+
+	private static final Pattern FINGERPRINT_PATTERN = Pattern
+			.compile(".*[-.][0-9a-fA-F]{8,}\\.[^/.]+$");
+
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final ResourceCache cache = new ResourceCache();
+
+	private int maxFileSize = 1024 * 1024;
+
+	private int fingerprintedCacheSeconds = -1;
+
+	/**
+	 * Set the maximum total number of bytes held by the cache. Defaults to 10 MB.
+	 * @param maxCacheSize the maximum cache size in bytes
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.cache.setMaxSize(maxCacheSize);
+	}
+
+	/**
+	 * Set the maximum size of a single resource that will be cached. Larger resources are
+	 * streamed from their location on every request. Defaults to 1 MB.
+	 * @param maxFileSize the maximum file size in bytes
+	 */
+	public void setMaxFileSize(int maxFileSize) {
+		this.maxFileSize = maxFileSize;
+	}
+
+	/**
+	 * Set the cache period (in seconds) used for resources that have a content
+	 * fingerprint in their name. Defaults to -1 (the same as
+	 * {@link #setCacheSeconds(int) other resources}).
+	 * @param fingerprintedCacheSeconds the cache period for fingerprinted resources
+	 */
+	public void setFingerprintedCacheSeconds(int fingerprintedCacheSeconds) {
+		this.fingerprintedCacheSeconds = fingerprintedCacheSeconds;
+	}
+
+	@Override
+	public void handleRequest(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+		String path = (String) request
+				.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+		checkAndPrepare(request, response, getCacheSeconds(path), true);
+		CachedResource cached = (path == null ? null : this.cache.get(path));
+		if (cached != null && isStale(cached)) {
+			this.cache.remove(path);
+			cached = null;
+		}
+		if (cached == null) {
+			Resource resource = getResource(request);
+			if (resource == null) {
+				response.sendError(HttpServletResponse.SC_NOT_FOUND);
+				return;
+			}
+			if (resource.contentLength() > this.maxFileSize) {
+				super.handleRequest(request, response);
+				return;
+			}
+			cached = createCachedResource(resource);
+			if (path != null) {
+				this.cache.put(path, cached);
+			}
+		}
+		writeResponse(request, response, cached);
+	}
+
+	private boolean isStale(CachedResource cached) {
+		return getLastModified(cached.resource) != cached.lastModified;
+	}
+
+	private int getCacheSeconds(String path) {
+		if (this.fingerprintedCacheSeconds >= 0 && path != null
+				&& FINGERPRINT_PATTERN.matcher(path).matches()) {
+			return this.fingerprintedCacheSeconds;
+		}
+		return getCacheSeconds();
+	}
+
+	private CachedResource createCachedResource(Resource resource) throws IOException {
+		byte[] content = StreamUtils.copyToByteArray(resource.getInputStream());
+		byte[] gzipContent = null;
+		Resource gzipResource = resource.createRelative(resource.getFilename() + ".gz");
+		if (gzipResource.exists() && gzipResource.isReadable()) {
+			gzipContent = StreamUtils.copyToByteArray(gzipResource.getInputStream());
+		}
+		String hash = DigestUtils.md5DigestAsHex(content);
+		long lastModified = getLastModified(resource);
+		return new CachedResource(resource, content, gzipContent,
+				getMediaType(resource), "\"" + hash + "\"", lastModified, "\"" + hash
+						+ "-gz\"");
+	}
+
+	private long getLastModified(Resource resource) {
+		try {
+			return resource.lastModified();
+		}
+		catch (IOException ex) {
+			return -1;
+		}
+	}
+
+	private void writeResponse(HttpServletRequest request, HttpServletResponse response,
+			CachedResource cached) throws IOException {
+		boolean gzip = cached.gzipContent != null && acceptsGzip(request);
+		String etag = (gzip ? cached.gzipEtag : cached.etag);
+		if (cached.gzipContent != null) {
+			response.setHeader("Vary", "Accept-Encoding");
+		}
+		response.setHeader("ETag", etag);
+		if (cached.lastModified > 0) {
+			response.setDateHeader("Last-Modified", cached.lastModified);
+		}
+		if (isNotModified(request, etag, cached.lastModified)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		byte[] content = (gzip ? cached.gzipContent : cached.content);
+		if (gzip) {
+			response.setHeader("Content-Encoding", "gzip");
+		}
+		if (cached.mediaType != null) {
+			response.setContentType(cached.mediaType.toString());
+		}
+		response.setContentLength(content.length);
+		if (!"HEAD".equals(request.getMethod())) {
+			response.getOutputStream().write(content);
+		}
+	}
+
+	private boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Float gzipQuality = null;
+		Float anyQuality = null;
+		for (String coding : StringUtils.commaDelimitedListToStringArray(acceptEncoding)) {
+			String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+			if (parts.length == 0) {
+				continue;
+			}
+			String name = parts[0].toLowerCase();
+			if (name.equals("gzip") || name.equals("x-gzip")) {
+				gzipQuality = getQuality(parts);
+			}
+			else if (name.equals("*")) {
+				anyQuality = getQuality(parts);
+			}
+		}
+		Float quality = (gzipQuality != null ? gzipQuality : anyQuality);
+		return quality != null && quality > 0;
+	}
+
+	private float getQuality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String parameter = parts[i].replace(" ", "").toLowerCase();
+			if (parameter.startsWith("q=")) {
+				try {
+					return Float.parseFloat(parameter.substring(2));
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private boolean isNotModified(HttpServletRequest request, String etag,
+			long lastModified) {
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			String[] candidates = StringUtils.commaDelimitedListToStringArray(ifNoneMatch);
+			for (String candidate : candidates) {
+				candidate = candidate.trim();
+				if (candidate.equals(etag) || candidate.equals("*")) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if (lastModified > 0) {
+			try {
+				long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+				// HTTP dates only have second precision
+				return ifModifiedSince >= (lastModified / 1000 * 1000);
+			}
+			catch (IllegalArgumentException ex) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Clear all cached resources.
+	 */
+	public void clearCache() {
+		this.cache.clear();
+	}
+
+	/**
+	 * A cached resource and its precomputed response metadata.
+	 */
+	private static class CachedResource {
+
+		private final Resource resource;
+
+		private final byte[] content;
+
+		private final byte[] gzipContent;
+
+		private final MediaType mediaType;
+
+		private final String etag;
+
+		private final long lastModified;
+
+		private final String gzipEtag;
+
+		public CachedResource(Resource resource, byte[] content, byte[] gzipContent,
+				MediaType mediaType, String etag, long lastModified, String gzipEtag) {
+			this.resource = resource;
+			this.content = content;
+			this.gzipContent = gzipContent;
+			this.mediaType = mediaType;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.gzipEtag = gzipEtag;
+		}
+
+		public int getSize() {
+			int size = ENTRY_OVERHEAD;
+			size += (this.content == null ? 0 : this.content.length);
+			size += (this.gzipContent == null ? 0 : this.gzipContent.length);
+			return size;
+		}
+
+	}
+
+	/**
+	 * LRU cache of {@link CachedResource}s bounded by total size.
+	 */
+	private static class ResourceCache {
+
+		private final Map<String, CachedResource> entries = new LinkedHashMap<String, CachedResource>(
+				16, 0.75f, true);
+
+		private long maxSize = 10 * 1024 * 1024;
+
+		private long size;
+
+		public synchronized void setMaxSize(long maxSize) {
+			this.maxSize = maxSize;
+			evict();
+		}
+
+		public synchronized CachedResource get(String path) {
+			return this.entries.get(path);
+		}
+
+		public synchronized void put(String path, CachedResource resource) {
+			CachedResource previous = this.entries.put(path, resource);
+			if (previous != null) {
+				this.size -= previous.getSize() + path.length();
+			}
+			this.size += resource.getSize() + path.length();
+			evict();
+		}
+
+		public synchronized void remove(String path) {
+			CachedResource previous = this.entries.remove(path);
+			if (previous != null) {
+				this.size -= previous.getSize() + path.length();
+			}
+		}
+
+		public synchronized void clear() {
+			this.entries.clear();
+			this.size = 0;
+		}
+
+		private void evict() {
+			Iterator<Map.Entry<String, CachedResource>> iterator = this.entries.entrySet()
+					.iterator();
+			while (this.size > this.maxSize && iterator.hasNext()) {
+				Map.Entry<String, CachedResource> entry = iterator.next();
+				this.size -= entry.getValue().getSize() + entry.getKey().length();
+				iterator.remove();
+			}
+		}
+
+	}
+
+}
@@ -21,6 +21,7 @@ import javax.servlet.Servlet;
 import org.apache.catalina.startup.Tomcat;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.util.Loader;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
@@ -45,6 +46,7 @@ import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.servlet.DispatcherServlet;
 
 /**
@@ -103,6 +105,27 @@ public class EmbeddedServletContainerAutoConfiguration {
 
 	}
 
+	/**
+	 * Nested configuration if Undertow is being used. Undertow requires Java 7 so it is
+	 * only referenced by name, the factory is not part of a Java 6 build.
+	 */
+	@Configuration
+	@ConditionalOnClass(value = Servlet.class, name = { "io.undertow.Undertow",
+			"org.xnio.SslClientAuthMode", EmbeddedUndertow.FACTORY_CLASS })
+	@ConditionalOnMissingBean(value = EmbeddedServletContainerFactory.class, search = SearchStrategy.CURRENT)
+	public static class EmbeddedUndertow {
+
+		static final String FACTORY_CLASS = "org.springframework.boot.context.embedded."
+				+ "undertow.UndertowEmbeddedServletContainerFactory";
+
+		@Bean
+		public EmbeddedServletContainerFactory undertowEmbeddedServletContainerFactory() {
+			return (EmbeddedServletContainerFactory) BeanUtils.instantiateClass(ClassUtils
+					.resolveClassName(FACTORY_CLASS, getClass().getClassLoader()));
+		}
+
+	}
+
 	/**
 	 * Registers a {@link EmbeddedServletContainerCustomizerBeanPostProcessor}. Registered
 	 * via {@link ImportBeanDefinitionRegistrar} for early registration.
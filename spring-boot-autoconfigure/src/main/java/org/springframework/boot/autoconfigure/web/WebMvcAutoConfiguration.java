@@ -16,19 +16,26 @@
 
 package org.springframework.boot.autoconfigure.web;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.servlet.Servlet;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,13 +46,16 @@ import org.springframework.core.convert.converter.GenericConverter;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.format.Formatter;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerAdapter;
 import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.DefaultServletHandlerConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
@@ -70,6 +80,13 @@ import org.springframework.web.servlet.view.ContentNegotiatingViewResolver;
 @AutoConfigureAfter(EmbeddedServletContainerAutoConfiguration.class)
 public class WebMvcAutoConfiguration {
 
+	/**
+	 * Name of an optional user-defined {@link AsyncTaskExecutor} bean used to process
+	 * asynchronous ({@code Callable}) request handling. If no such bean exists a pooled
+	 * executor is created and managed internally.
+	 */
+	public static final String MVC_ASYNC_TASK_EXECUTOR_BEAN_NAME = "mvcAsyncTaskExecutor";
+
 	private static final String[] SERVLET_RESOURCE_LOCATIONS = { "/" };
 
 	private static final String[] CLASSPATH_RESOURCE_LOCATIONS = {
@@ -97,7 +114,8 @@ public class WebMvcAutoConfiguration {
 	// Defined as a nested config to ensure WebMvcConfigurerAdapter it not read when not
 	// on the classpath
 	@EnableWebMvc
-	public static class WebMvcAutoConfigurationAdapter extends WebMvcConfigurerAdapter {
+	public static class WebMvcAutoConfigurationAdapter extends WebMvcConfigurerAdapter
+			implements DisposableBean {
 
 		@Autowired
 		private ListableBeanFactory beanFactory;
@@ -105,6 +123,38 @@ public class WebMvcAutoConfiguration {
 		@Autowired
 		private ResourceLoader resourceLoader;
 
+		@Value("${spring.mvc.async.timeout:-1}")
+		private long asyncTimeout;
+
+		@Value("${spring.mvc.async.executor.enabled:true}")
+		private boolean asyncExecutorEnabled;
+
+		@Value("${spring.mvc.async.executor.core_pool_size:8}")
+		private int asyncCorePoolSize;
+
+		@Value("${spring.mvc.async.executor.max_pool_size:64}")
+		private int asyncMaxPoolSize;
+
+		@Value("${spring.mvc.async.executor.queue_capacity:1000}")
+		private int asyncQueueCapacity;
+
+		private ThreadPoolTaskExecutor asyncTaskExecutor;
+
+		@Value("${spring.resources.cache_period:-1}")
+		private int cachePeriod;
+
+		@Value("${spring.resources.cache.enabled:false}")
+		private boolean resourceCacheEnabled;
+
+		@Value("${spring.resources.fingerprinted_cache_period:31536000}")
+		private int fingerprintedCachePeriod;
+
+		@Value("${spring.resources.cache.max_size:10485760}")
+		private long maxCacheSize;
+
+		@Value("${spring.resources.cache.max_file_size:1048576}")
+		private int maxFileSize;
+
 		@ConditionalOnBean(View.class)
 		@Bean
 		public BeanNameViewResolver beanNameViewResolver() {
@@ -128,6 +178,46 @@ public class WebMvcAutoConfiguration {
 			configurer.enable();
 		}
 
+		@Override
+		public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+			if (this.beanFactory.containsBean(MVC_ASYNC_TASK_EXECUTOR_BEAN_NAME)) {
+				configurer.setTaskExecutor(this.beanFactory.getBean(
+						MVC_ASYNC_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class));
+			}
+			else if (this.asyncExecutorEnabled) {
+				configurer.setTaskExecutor(getAsyncTaskExecutor());
+			}
+			if (this.asyncTimeout > 0) {
+				configurer.setDefaultTimeout(this.asyncTimeout);
+			}
+		}
+
+		/**
+		 * Pooled executor for asynchronous request processing (used instead of the
+		 * default that creates a new thread for each request). Kept private to MVC so
+		 * that it is not picked up as a general purpose {@code TaskExecutor}.
+		 */
+		private synchronized AsyncTaskExecutor getAsyncTaskExecutor() {
+			if (this.asyncTaskExecutor == null) {
+				ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+				executor.setCorePoolSize(this.asyncCorePoolSize);
+				executor.setMaxPoolSize(this.asyncMaxPoolSize);
+				executor.setQueueCapacity(this.asyncQueueCapacity);
+				executor.setThreadNamePrefix("mvc-async-");
+				executor.initialize();
+				this.asyncTaskExecutor = executor;
+			}
+			return this.asyncTaskExecutor;
+		}
+
+		@Override
+		public synchronized void destroy() {
+			if (this.asyncTaskExecutor != null) {
+				this.asyncTaskExecutor.shutdown();
+				this.asyncTaskExecutor = null;
+			}
+		}
+
 		@Override
 		public void addFormatters(FormatterRegistry registry) {
 			for (Converter<?, ?> converter : getBeansOfType(Converter.class)) {
@@ -149,9 +239,49 @@ public class WebMvcAutoConfiguration {
 
 		@Override
 		public void addResourceHandlers(ResourceHandlerRegistry registry) {
-			registry.addResourceHandler("/resources/**").addResourceLocations(
-					RESOURCE_LOCATIONS);
-			registry.addResourceHandler("/**").addResourceLocations(RESOURCE_LOCATIONS);
+			if (this.resourceCacheEnabled) {
+				// Served by the cachingResourceHandlerMapping instead
+				return;
+			}
+			registry.addResourceHandler("/resources/**")
+					.addResourceLocations(RESOURCE_LOCATIONS)
+					.setCachePeriod(this.cachePeriod);
+			registry.addResourceHandler("/**").addResourceLocations(RESOURCE_LOCATIONS)
+					.setCachePeriod(this.cachePeriod);
+		}
+
+		/**
+		 * Serves static resources from an in-memory cache with ETag and precompressed
+		 * (.gz) variant support.
+		 */
+		@Bean
+		@ConditionalOnExpression("${spring.resources.cache.enabled:false}")
+		public SimpleUrlHandlerMapping cachingResourceHandlerMapping(
+				CachingResourceHttpRequestHandler cachingResourceRequestHandler) {
+			SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping();
+			// Same order as the mapping created by the ResourceHandlerRegistry
+			mapping.setOrder(Integer.MAX_VALUE - 1);
+			Map<String, Object> urlMap = new LinkedHashMap<String, Object>();
+			urlMap.put("/resources/**", cachingResourceRequestHandler);
+			urlMap.put("/**", cachingResourceRequestHandler);
+			mapping.setUrlMap(urlMap);
+			return mapping;
+		}
+
+		@Bean
+		@ConditionalOnExpression("${spring.resources.cache.enabled:false}")
+		public CachingResourceHttpRequestHandler cachingResourceRequestHandler() {
+			CachingResourceHttpRequestHandler handler = new CachingResourceHttpRequestHandler();
+			List<Resource> locations = new ArrayList<Resource>();
+			for (String location : RESOURCE_LOCATIONS) {
+				locations.add(this.resourceLoader.getResource(location));
+			}
+			handler.setLocations(locations);
+			handler.setCacheSeconds(this.cachePeriod);
+			handler.setFingerprintedCacheSeconds(this.fingerprintedCachePeriod);
+			handler.setMaxCacheSize(this.maxCacheSize);
+			handler.setMaxFileSize(this.maxFileSize);
+			return handler;
 		}
 
 		@Override
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.web;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link CachingResourceHttpRequestHandler}.
+ *
+ * @author Dave Syer
+ */
+public class CachingResourceHttpRequestHandlerTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private CachingResourceHttpRequestHandler handler = new CachingResourceHttpRequestHandler();
+
+	private File root;
+
+	@Before
+	public void init() throws Exception {
+		this.root = this.temporaryFolder.getRoot();
+		FileCopyUtils.copy("body {}".getBytes(), new File(this.root, "test.css"));
+		FileCopyUtils.copy("zipped".getBytes(), new File(this.root, "test.css.gz"));
+		FileCopyUtils.copy("var a;".getBytes(), new File(this.root,
+				"app-0123456789abcdef.js"));
+		StaticWebApplicationContext context = new StaticWebApplicationContext();
+		context.setServletContext(new MockServletContext());
+		this.handler.setApplicationContext(context);
+		this.handler.setLocations(Collections.<Resource> singletonList(new FileSystemResource(
+				this.root.getAbsolutePath() + "/")));
+	}
+
+	@Test
+	public void servesContentWithEtag() throws Exception {
+		MockHttpServletResponse response = get("test.css", null, null);
+		assertThat(response.getStatus(), equalTo(200));
+		assertThat(response.getContentAsString(), equalTo("body {}"));
+		assertThat((String) response.getHeader("ETag"), containsString("\""));
+		assertThat((String) response.getHeader("Vary"), equalTo("Accept-Encoding"));
+	}
+
+	@Test
+	public void notModifiedForMatchingEtag() throws Exception {
+		String etag = (String) get("test.css", null, null).getHeader("ETag");
+		MockHttpServletResponse response = get("test.css", null, etag);
+		assertThat(response.getStatus(), equalTo(304));
+		assertThat(response.getContentAsByteArray().length, equalTo(0));
+	}
+
+	@Test
+	public void servesPrecompressedVariant() throws Exception {
+		MockHttpServletResponse response = get("test.css", "gzip, deflate", null);
+		assertThat(response.getContentAsString(), equalTo("zipped"));
+		assertThat((String) response.getHeader("Content-Encoding"), equalTo("gzip"));
+	}
+
+	@Test
+	public void gzipRefusedWithZeroQuality() throws Exception {
+		MockHttpServletResponse response = get("test.css", "gzip;q=0, deflate", null);
+		assertThat(response.getContentAsString(), equalTo("body {}"));
+		assertThat(response.getHeader("Content-Encoding"), nullValue());
+		response = get("test.css", "*;q=0.5, gzip; q=0", null);
+		assertThat(response.getContentAsString(), equalTo("body {}"));
+		response = get("test.css", "*;q=0.5", null);
+		assertThat(response.getContentAsString(), equalTo("zipped"));
+	}
+
+	@Test
+	public void servesFromCacheOnceLoaded() throws Exception {
+		File file = new File(this.root, "test.css");
+		get("test.css", null, null);
+		long lastModified = file.lastModified();
+		FileCopyUtils.copy("p {}".getBytes(), file);
+		file.setLastModified(lastModified);
+		MockHttpServletResponse response = get("test.css", null, null);
+		assertThat(response.getContentAsString(), equalTo("body {}"));
+		this.handler.clearCache();
+		assertThat(get("test.css", null, null).getContentAsString(), equalTo("p {}"));
+	}
+
+	@Test
+	public void reloadsModifiedResource() throws Exception {
+		File file = new File(this.root, "test.css");
+		get("test.css", null, null);
+		long lastModified = file.lastModified();
+		FileCopyUtils.copy("p {}".getBytes(), file);
+		file.setLastModified(lastModified + 2000);
+		assertThat(get("test.css", null, null).getContentAsString(), equalTo("p {}"));
+		file.delete();
+		assertThat(get("test.css", null, null).getStatus(), equalTo(404));
+	}
+
+	@Test
+	public void missingResourcesAreNotCached() throws Exception {
+		assertThat(get("other.css", null, null).getStatus(), equalTo(404));
+		FileCopyUtils.copy("a {}".getBytes(), new File(this.root, "other.css"));
+		assertThat(get("other.css", null, null).getContentAsString(), equalTo("a {}"));
+	}
+
+	@Test
+	public void largeFilesAreNotCached() throws Exception {
+		this.handler.setMaxFileSize(2);
+		get("test.css", null, null);
+		new File(this.root, "test.css").delete();
+		assertThat(get("test.css", null, null).getStatus(), equalTo(404));
+	}
+
+	@Test
+	public void fingerprintedResourcesUseSeparateCachePeriod() throws Exception {
+		this.handler.setCacheSeconds(0);
+		this.handler.setFingerprintedCacheSeconds(3600);
+		assertThat((String) get("app-0123456789abcdef.js", null, null).getHeader(
+				"Cache-Control"), equalTo("max-age=3600"));
+		assertThat((String) get("test.css", null, null).getHeader("Cache-Control"),
+				containsString("no-cache"));
+	}
+
+	private MockHttpServletResponse get(String path, String acceptEncoding,
+			String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + path);
+		request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+		if (acceptEncoding != null) {
+			request.addHeader("Accept-Encoding", acceptEncoding);
+		}
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.handler.handleRequest(request, response);
+		return response;
+	}
+
+}
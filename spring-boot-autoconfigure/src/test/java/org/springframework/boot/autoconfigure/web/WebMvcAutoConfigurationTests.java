@@ -32,13 +32,21 @@ import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory
 import org.springframework.boot.context.embedded.MockEmbeddedServletContainerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.servlet.HandlerAdapter;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 import org.springframework.web.servlet.view.AbstractView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link WebMvcAutoConfiguration}.
@@ -87,6 +95,41 @@ public class WebMvcAutoConfigurationTests {
 		assertEquals(2, this.context.getBeanNamesForType(ViewResolver.class).length);
 	}
 
+	@Test
+	public void asyncTaskExecutorCreatedInternally() throws Exception {
+		this.context = new AnnotationConfigEmbeddedWebApplicationContext();
+		this.context.register(Config.class, WebMvcAutoConfiguration.class);
+		this.context.refresh();
+		assertEquals(0, this.context.getBeanNamesForType(TaskExecutor.class).length);
+		RequestMappingHandlerAdapter adapter = this.context
+				.getBean(RequestMappingHandlerAdapter.class);
+		assertTrue(ReflectionTestUtils.getField(adapter, "taskExecutor") instanceof
+				ThreadPoolTaskExecutor);
+	}
+
+	@Test
+	public void asyncTaskExecutorFromUserBean() throws Exception {
+		this.context = new AnnotationConfigEmbeddedWebApplicationContext();
+		this.context.register(Config.class, AsyncConfig.class,
+				WebMvcAutoConfiguration.class);
+		this.context.refresh();
+		Object executor = this.context
+				.getBean(WebMvcAutoConfiguration.MVC_ASYNC_TASK_EXECUTOR_BEAN_NAME);
+		RequestMappingHandlerAdapter adapter = this.context
+				.getBean(RequestMappingHandlerAdapter.class);
+		assertSame(executor, ReflectionTestUtils.getField(adapter, "taskExecutor"));
+	}
+
+	@Configuration
+	protected static class AsyncConfig {
+
+		@Bean(name = WebMvcAutoConfiguration.MVC_ASYNC_TASK_EXECUTOR_BEAN_NAME)
+		public AsyncTaskExecutor mvcAsyncTaskExecutor() {
+			return new SimpleAsyncTaskExecutor();
+		}
+
+	}
+
 	@Configuration
 	protected static class ViewConfig {
 
@@ -29,6 +29,9 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.boot.config.CachingStandardEnvironment;
+import org.springframework.boot.config.CachingStandardServletEnvironment;
+import org.springframework.boot.config.CanonicalNamePropertySource;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -148,6 +151,8 @@ public class SpringApplication {
 
 	private boolean addCommandLineProperties = true;
 
+	private boolean cachePropertyLookups = false;
+
 	private ResourceLoader resourceLoader;
 
 	private BeanNameGenerator beanNameGenerator;
@@ -245,6 +250,8 @@ public class SpringApplication {
 
 		// Create and configure the environment
 		ConfigurableEnvironment environment = getOrCreateEnvironment();
+		CanonicalNamePropertySource.replaceSystemPropertySources(environment
+				.getPropertySources());
 		addPropertySources(environment, args);
 
 		// Call all remaining initializers
@@ -299,9 +306,11 @@ public class SpringApplication {
 			return (ConfigurableEnvironment) this.applicationContext.getEnvironment();
 		}
 		if (this.webEnvironment) {
-			return new StandardServletEnvironment();
+			return (this.cachePropertyLookups ? new CachingStandardServletEnvironment()
+					: new StandardServletEnvironment());
 		}
-		return new StandardEnvironment();
+		return (this.cachePropertyLookups ? new CachingStandardEnvironment()
+				: new StandardEnvironment());
 
 	}
 
@@ -542,6 +551,20 @@ public class SpringApplication {
 		this.addCommandLineProperties = addCommandLineProperties;
 	}
 
+	/**
+	 * Sets if the {@link ConfigurableEnvironment} created for the application should cache
+	 * property lookups until a property source is added, removed or replaced. Changes
+	 * made inside an existing property source (for example to system properties) are not
+	 * seen while cached. Has no effect if an environment is
+	 * {@link #setEnvironment(ConfigurableEnvironment) set} explicitly. Defaults to
+	 * {@code false}.
+	 * @param cachePropertyLookups if property lookups should be cached
+	 * @see CachingStandardEnvironment
+	 */
+	public void setCachePropertyLookups(boolean cachePropertyLookups) {
+		this.cachePropertyLookups = cachePropertyLookups;
+	}
+
 	/**
 	 * Set default command line arguments which will be used in addition to those
 	 * specified to the {@code run} methods. Default arguments can always be overridden by
@@ -228,7 +228,8 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
 
 		PropertyValues propertyValues = (this.properties != null ? new MutablePropertyValues(
 				this.properties)
-				: new PropertySourcesPropertyValues(this.propertySources));
+				: new PropertySourcesPropertyValues(this.propertySources,
+						this.targetName));
 		dataBinder.bind(propertyValues);
 
 		if (this.validator != null) {
@@ -23,10 +23,12 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.beans.PropertyValue;
 import org.springframework.beans.PropertyValues;
+import org.springframework.boot.config.CanonicalNamePropertySource;
 import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.PropertySources;
 import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.DataBinder;
 
 /**
@@ -47,14 +49,27 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 	 * @param propertySources a PropertySources instance
 	 */
 	public PropertySourcesPropertyValues(PropertySources propertySources) {
+		this(propertySources, null);
+	}
+
+	/**
+	 * Create a new PropertyValues from the given PropertySources, only including
+	 * properties that start with the given prefix. {@link CanonicalNamePropertySource}s
+	 * use their index to find relaxed matches for the prefix rather than enumerating all
+	 * of their names, and also to resolve relaxed names in
+	 * {@link #getPropertyValue(String)}.
+	 * @param propertySources a PropertySources instance
+	 * @param prefix an optional prefix (e.g. "server") used to filter properties
+	 */
+	public PropertySourcesPropertyValues(PropertySources propertySources, String prefix) {
 		this.propertySources = propertySources;
 		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
 				propertySources);
+		String namePrefix = (StringUtils.hasLength(prefix) ? prefix + "." : null);
 		for (PropertySource<?> source : propertySources) {
 			if (source instanceof EnumerablePropertySource) {
-				EnumerablePropertySource<?> enumerable = (EnumerablePropertySource<?>) source;
-				if (enumerable.getPropertyNames().length > 0) {
-					for (String propertyName : enumerable.getPropertyNames()) {
+				for (String propertyName : getPropertyNames(source, prefix)) {
+					if (namePrefix == null || propertyName.startsWith(namePrefix)) {
 						Object value = resolver.getProperty(propertyName);
 						this.propertyValues.put(propertyName, new PropertyValue(
 								propertyName, value));
@@ -64,6 +79,13 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 		}
 	}
 
+	private String[] getPropertyNames(PropertySource<?> source, String prefix) {
+		if (StringUtils.hasLength(prefix) && source instanceof CanonicalNamePropertySource) {
+			return ((CanonicalNamePropertySource) source).getPropertyNames(prefix);
+		}
+		return ((EnumerablePropertySource<?>) source).getPropertyNames();
+	}
+
 	@Override
 	public PropertyValue[] getPropertyValues() {
 		Collection<PropertyValue> values = this.propertyValues.values();
@@ -77,7 +99,8 @@ public class PropertySourcesPropertyValues implements PropertyValues {
 			return propertyValue;
 		}
 		for (PropertySource<?> source : this.propertySources) {
-			Object value = source.getProperty(propertyName);
+			Object value = (source instanceof CanonicalNamePropertySource ? ((CanonicalNamePropertySource) source)
+					.getRelaxedProperty(propertyName) : source.getProperty(propertyName));
 			if (value != null) {
 				propertyValue = new PropertyValue(propertyName, value);
 				this.propertyValues.put(propertyName, propertyValue);
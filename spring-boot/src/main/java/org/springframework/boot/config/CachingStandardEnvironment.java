@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.config.PropertyLookupCache.PropertyLookup;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * {@link StandardEnvironment} that caches resolved property values (including misses)
+ * until a property source is added, removed or replaced. Only used by
+ * {@link SpringApplication} when
+ * {@link SpringApplication#setCachePropertyLookups(boolean) enabled}.
+ * 
+ * @author Dave Syer
+ * @see PropertyLookupCache
+ */
+public class CachingStandardEnvironment extends StandardEnvironment {
+
+	private final PropertyLookupCache cache = new PropertyLookupCache(
+			super.getPropertySources(), new PropertyLookup() {
+				@Override
+				public <T> T getProperty(String key, Class<T> targetType) {
+					return CachingStandardEnvironment.super.getProperty(key, targetType);
+				}
+			});
+
+	@Override
+	public MutablePropertySources getPropertySources() {
+		return this.cache.getPropertySources();
+	}
+
+	@Override
+	public String getProperty(String key) {
+		return this.cache.getProperty(key, String.class);
+	}
+
+	@Override
+	public String getProperty(String key, String defaultValue) {
+		return this.cache.getProperty(key, String.class, defaultValue);
+	}
+
+	@Override
+	public <T> T getProperty(String key, Class<T> targetType) {
+		return this.cache.getProperty(key, targetType);
+	}
+
+	@Override
+	public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
+		return this.cache.getProperty(key, targetType, defaultValue);
+	}
+
+	@Override
+	public void merge(ConfigurableEnvironment parent) {
+		super.merge(parent);
+		this.cache.clear();
+	}
+
+	/**
+	 * Discard all cached property values. Only required if the contents of an existing
+	 * property source have changed.
+	 */
+	public void clearCache() {
+		this.cache.clear();
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * {@link EnumerablePropertySource} decorating a {@link MapPropertySource} (typically the
+ * system environment or system properties) that supports relaxed lookups for binding. A
+ * one-time index of canonical names (lower case with '_' and '-' replaced by '.') allows
+ * {@code SERVER_PORT}, {@code server.port} and {@code server-port} to be resolved by
+ * {@link #getRelaxedProperty(String)} without trying each variation in turn. Regular
+ * {@link #getProperty(String)} calls are passed to the decorated source unchanged, so the
+ * environment does not report names that do not exist.
+ * 
+ * <p>
+ * The index of an immutable source (such as the system environment) is built once. For
+ * other sources it is rebuilt when the number of entries in the map changes, which keeps
+ * lookups O(1). Code that replaces one name with another (leaving the size unchanged)
+ * should call {@link #refresh()}.
+ * 
+ * @author Dave Syer
+ */
+public class CanonicalNamePropertySource extends
+		EnumerablePropertySource<Map<String, Object>> {
+
+	private final MapPropertySource delegate;
+
+	private final boolean immutable;
+
+	private volatile Index index;
+
+	/**
+	 * Create a new {@link CanonicalNamePropertySource} instance.
+	 * @param name the name of the property source
+	 * @param source the source map (not copied)
+	 */
+	public CanonicalNamePropertySource(String name, Map<String, Object> source) {
+		this(new MapPropertySource(name, source));
+	}
+
+	/**
+	 * Create a new {@link CanonicalNamePropertySource} instance.
+	 * @param delegate the property source to decorate
+	 */
+	public CanonicalNamePropertySource(MapPropertySource delegate) {
+		this(delegate, false);
+	}
+
+	/**
+	 * Create a new {@link CanonicalNamePropertySource} instance.
+	 * @param delegate the property source to decorate
+	 * @param immutable if the names in the source never change (so that they only need
+	 * to be indexed once)
+	 */
+	public CanonicalNamePropertySource(MapPropertySource delegate, boolean immutable) {
+		super(delegate.getName(), delegate.getSource());
+		this.delegate = delegate;
+		this.immutable = immutable;
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		return this.delegate.getPropertyNames();
+	}
+
+	/**
+	 * Return the names of all properties that start with the given prefix (followed by
+	 * a '.'). The canonical name index is used to find candidates so that the full set of
+	 * names does not need to be scanned.
+	 * @param prefix the property prefix
+	 * @return the matching property names
+	 */
+	public String[] getPropertyNames(String prefix) {
+		String canonicalPrefix = canonicalName(prefix) + ".";
+		String namePrefix = prefix + ".";
+		List<String> names = new ArrayList<String>();
+		SortedMap<String, List<String>> candidates = getIndex().getNames().subMap(
+				canonicalPrefix, canonicalPrefix + Character.MAX_VALUE);
+		for (List<String> candidate : candidates.values()) {
+			for (String name : candidate) {
+				if (name.startsWith(namePrefix)) {
+					names.add(name);
+				}
+			}
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return this.delegate.getProperty(name);
+	}
+
+	@Override
+	public boolean containsProperty(String name) {
+		return this.delegate.containsProperty(name);
+	}
+
+	/**
+	 * Return the value of the property with the given name or, if there is no such
+	 * property, of a property with the same canonical name.
+	 * @param name the property name
+	 * @return the property value or {@code null}
+	 */
+	public Object getRelaxedProperty(String name) {
+		Object value = this.source.get(name);
+		if (value == null) {
+			List<String> actual = getIndex().getNames().get(canonicalName(name));
+			if (actual != null) {
+				value = this.source.get(actual.get(0));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Discard the index of canonical names so that it is rebuilt on the next relaxed
+	 * lookup. Only required if names were replaced without changing the size of the
+	 * source map.
+	 */
+	public void refresh() {
+		this.index = null;
+	}
+
+	private Index getIndex() {
+		Index index = this.index;
+		if (index == null || (!this.immutable && index.size != this.source.size())) {
+			index = new Index(this.source);
+			this.index = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Return the canonical form of the specified property name.
+	 * @param name the property name
+	 * @return the canonical name
+	 */
+	public static String canonicalName(String name) {
+		return name.toLowerCase(Locale.ENGLISH).replace('_', '.').replace('-', '.');
+	}
+
+	/**
+	 * Replace the standard system environment and system properties sources with
+	 * {@link CanonicalNamePropertySource}s.
+	 * @param propertySources the property sources to update
+	 */
+	public static void replaceSystemPropertySources(
+			MutablePropertySources propertySources) {
+		// The system environment is an unmodifiable map
+		replace(propertySources,
+				StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, true);
+		replace(propertySources,
+				StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME, false);
+	}
+
+	private static void replace(MutablePropertySources propertySources, String name,
+			boolean immutable) {
+		PropertySource<?> existing = propertySources.get(name);
+		if (existing instanceof MapPropertySource) {
+			propertySources.replace(name, new CanonicalNamePropertySource(
+					(MapPropertySource) existing, immutable));
+		}
+	}
+
+	private static class Index {
+
+		private final int size;
+
+		private final TreeMap<String, List<String>> names = new TreeMap<String, List<String>>();
+
+		public Index(Map<String, Object> source) {
+			Set<String> keys = source.keySet();
+			for (Object key : keys.toArray()) {
+				if (key instanceof String) {
+					String name = (String) key;
+					String canonical = canonicalName(name);
+					List<String> actual = this.names.get(canonical);
+					if (actual == null) {
+						actual = new ArrayList<String>(1);
+						this.names.put(canonical, actual);
+					}
+					actual.add(name);
+				}
+			}
+			this.size = keys.size();
+		}
+
+		public SortedMap<String, List<String>> getNames() {
+			return this.names;
+		}
+
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.core.env.MutablePropertySources;
+
+/**
+ * Cache of resolved property values that is discarded whenever a property source is
+ * added, removed or replaced. Shared by the caching environments, which expose
+ * {@link #getPropertySources()} in place of their own sources so that structural changes
+ * are tracked (see {@link VersionedPropertySources}). Values are cached per target type
+ * since the same key can be converted to different types. Misses are cached too, up to
+ * a {@link #setMaxMisses(int) limit} per generation so that lookups of arbitrary keys
+ * cannot grow the cache without bound.
+ * 
+ * <p>
+ * Note that changes made inside an existing property source (for example a call to
+ * {@link System#setProperty(String, String)}) are not detected, {@link #clear()} should
+ * be called if such changes need to be seen.
+ * 
+ * @author Dave Syer
+ */
+public class PropertyLookupCache {
+
+	private static final Object NO_VALUE = new Object();
+
+	private final VersionedPropertySources propertySources;
+
+	private final PropertyLookup lookup;
+
+	private volatile Generation generation = new Generation(-1);
+
+	private int maxMisses = 1000;
+
+	/**
+	 * Create a new {@link PropertyLookupCache} instance.
+	 * @param propertySources the property sources that the cached values derive from
+	 * @param lookup the lookup used to obtain uncached values
+	 */
+	public PropertyLookupCache(MutablePropertySources propertySources,
+			PropertyLookup lookup) {
+		this.propertySources = new VersionedPropertySources(propertySources);
+		this.lookup = lookup;
+	}
+
+	/**
+	 * Set the maximum number of misses (keys without a value) cached until the next
+	 * structural change. Defaults to 1000.
+	 * @param maxMisses the maximum number of cached misses
+	 */
+	public void setMaxMisses(int maxMisses) {
+		this.maxMisses = maxMisses;
+	}
+
+	/**
+	 * @return a view of the property sources that tracks structural changes
+	 */
+	public MutablePropertySources getPropertySources() {
+		return this.propertySources;
+	}
+
+	/**
+	 * Return the cached value of a property, using the lookup on a cache miss.
+	 * @param key the property key
+	 * @param targetType the target type
+	 * @return the property value or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getProperty(String key, Class<T> targetType) {
+		Generation generation = getGeneration();
+		ConcurrentMap<String, Object> values = generation.getValues(targetType);
+		Object value = values.get(key);
+		if (value == null) {
+			// If the sources change while we resolve, the value goes into a generation
+			// that is already stale and is never seen again
+			value = this.lookup.getProperty(key, targetType);
+			if (value != null) {
+				values.put(key, value);
+			}
+			else if (generation.misses.incrementAndGet() <= this.maxMisses) {
+				values.put(key, NO_VALUE);
+			}
+		}
+		return (value == NO_VALUE ? null : (T) value);
+	}
+
+	/**
+	 * Return the cached value of a property or a default.
+	 * @param key the property key
+	 * @param targetType the target type
+	 * @param defaultValue the value to return if the property is not found
+	 * @return the property value or the default
+	 */
+	public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
+		T value = getProperty(key, targetType);
+		return (value == null ? defaultValue : value);
+	}
+
+	/**
+	 * Discard all cached values.
+	 */
+	public void clear() {
+		this.propertySources.invalidate();
+	}
+
+	private Generation getGeneration() {
+		Generation generation = this.generation;
+		long version = this.propertySources.getVersion();
+		if (generation.version != version) {
+			generation = new Generation(version);
+			this.generation = generation;
+		}
+		return generation;
+	}
+
+	/**
+	 * Strategy used to lookup values that are not cached.
+	 */
+	public static interface PropertyLookup {
+
+		<T> T getProperty(String key, Class<T> targetType);
+
+	}
+
+	private static class Generation {
+
+		private final long version;
+
+		private final AtomicInteger misses = new AtomicInteger();
+
+		private final ConcurrentMap<Class<?>, ConcurrentMap<String, Object>> values = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, Object>>();
+
+		public Generation(long version) {
+			this.version = version;
+		}
+
+		public ConcurrentMap<String, Object> getValues(Class<?> type) {
+			ConcurrentMap<String, Object> values = this.values.get(type);
+			if (values == null) {
+				values = new ConcurrentHashMap<String, Object>();
+				ConcurrentMap<String, Object> existing = this.values.putIfAbsent(type,
+						values);
+				values = (existing == null ? values : existing);
+			}
+			return values;
+		}
+
+	}
+
+}
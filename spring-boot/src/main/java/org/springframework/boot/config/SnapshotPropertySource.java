@@ -0,0 +1,295 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.util.Assert;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * {@link PropertySource} backed by a binary snapshot of already flattened properties.
+ * Snapshots are written with {@link #write(File, Map, String)} and consist of a small
+ * header, a sorted index of key/value positions and a de-duplicated string table. The
+ * file is read into memory in a single operation and lookups use a binary search over
+ * the index, so no parsing is required at startup. The file is not kept open (or mapped)
+ * so it can be replaced while the property source is in use.
+ *
+ * <p>
+ * Each snapshot carries a fingerprint (typically a hash of the files that it was created
+ * from) that callers can use to decide if it is still valid.
+ *
+ * @author Dave Syer
+ */
+public class SnapshotPropertySource extends EnumerablePropertySource<ByteBuffer> {
+
+	private static final int MAGIC = 0x53425053;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 12;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final Comparator<byte[]> KEY_COMPARATOR = new Comparator<byte[]>() {
+		@Override
+		public int compare(byte[] o1, byte[] o2) {
+			int length = Math.min(o1.length, o2.length);
+			for (int i = 0; i < length; i++) {
+				int result = (o1[i] & 0xff) - (o2[i] & 0xff);
+				if (result != 0) {
+					return result;
+				}
+			}
+			return o1.length - o2.length;
+		}
+	};
+
+	private final int count;
+
+	private final int indexOffset;
+
+	private final String fingerprint;
+
+	private volatile String[] propertyNames;
+
+	SnapshotPropertySource(String name, ByteBuffer buffer) {
+		super(name, buffer);
+		Assert.isTrue(buffer.getInt(0) == MAGIC, "Not a property snapshot");
+		Assert.isTrue(buffer.getInt(4) == VERSION, "Unsupported snapshot version");
+		this.count = buffer.getInt(8);
+		this.fingerprint = readString(HEADER_SIZE);
+		this.indexOffset = HEADER_SIZE + 4 + buffer.getInt(HEADER_SIZE);
+		Assert.isTrue(this.count >= 0 && this.indexOffset >= HEADER_SIZE
+				&& this.indexOffset + (this.count * 8L) <= buffer.limit(),
+				"Truncated snapshot");
+		for (int i = 0; i < this.count * 2; i++) {
+			// Check each string up front so that lookups cannot fail later
+			int position = buffer.getInt(this.indexOffset + (i * 4));
+			Assert.isTrue(position >= 0 && position <= buffer.limit() - 4,
+					"Truncated snapshot");
+			int length = buffer.getInt(position);
+			Assert.isTrue(length >= 0 && length <= buffer.limit() - 4 - position,
+					"Truncated snapshot");
+		}
+	}
+
+	/**
+	 * @return the fingerprint that was stored when the snapshot was written
+	 */
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		byte[] key = name.getBytes(UTF_8);
+		int low = 0;
+		int high = this.count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int result = compareKey(getIndexEntry(mid, 0), key);
+			if (result < 0) {
+				low = mid + 1;
+			}
+			else if (result > 0) {
+				high = mid - 1;
+			}
+			else {
+				return readString(getIndexEntry(mid, 4));
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsProperty(String name) {
+		return getProperty(name) != null;
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		String[] names = this.propertyNames;
+		if (names == null) {
+			names = new String[this.count];
+			for (int i = 0; i < this.count; i++) {
+				names[i] = readString(getIndexEntry(i, 0));
+			}
+			this.propertyNames = names;
+		}
+		return names.clone();
+	}
+
+	private int getIndexEntry(int index, int offset) {
+		return this.source.getInt(this.indexOffset + (index * 8) + offset);
+	}
+
+	private int compareKey(int position, byte[] key) {
+		int length = this.source.getInt(position);
+		int common = Math.min(length, key.length);
+		for (int i = 0; i < common; i++) {
+			int result = (this.source.get(position + 4 + i) & 0xff) - (key[i] & 0xff);
+			if (result != 0) {
+				return result;
+			}
+		}
+		return length - key.length;
+	}
+
+	private String readString(int position) {
+		ByteBuffer buffer = this.source.duplicate();
+		byte[] bytes = new byte[buffer.getInt(position)];
+		buffer.position(position + 4);
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	/**
+	 * Load an existing snapshot file.
+	 * @param name the name of the property source
+	 * @param file the snapshot file
+	 * @return the property source or {@code null} if the file does not exist or is not a
+	 * valid snapshot
+	 */
+	public static SnapshotPropertySource load(String name, File file) {
+		if (!file.exists()) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(FileCopyUtils.copyToByteArray(file));
+			if (buffer.limit() < HEADER_SIZE + 4 || buffer.getInt(0) != MAGIC
+					|| buffer.getInt(4) != VERSION) {
+				return null;
+			}
+			return new SnapshotPropertySource(name, buffer);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		catch (RuntimeException ex) {
+			// Truncated or corrupt, the caller will create a new snapshot
+			return null;
+		}
+	}
+
+	/**
+	 * Write a snapshot file containing the specified properties.
+	 * @param file the destination file
+	 * @param properties the flattened properties to write
+	 * @param fingerprint a fingerprint used to validate the snapshot when it is loaded
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(File file, Map<String, String> properties,
+			String fingerprint) throws IOException {
+		byte[][] keys = new byte[properties.size()][];
+		int i = 0;
+		for (String key : properties.keySet()) {
+			keys[i++] = key.getBytes(UTF_8);
+		}
+		// Sort on the encoded form so that lookups can compare raw bytes
+		Arrays.sort(keys, KEY_COMPARATOR);
+
+		byte[] fingerprintBytes = fingerprint.getBytes(UTF_8);
+		int stringTableOffset = HEADER_SIZE + 4 + fingerprintBytes.length
+				+ (keys.length * 8);
+		StringTable strings = new StringTable(stringTableOffset);
+		int[] index = new int[keys.length * 2];
+		for (i = 0; i < keys.length; i++) {
+			String key = new String(keys[i], UTF_8);
+			index[i * 2] = strings.add(key);
+			index[i * 2 + 1] = strings.add(properties.get(key));
+		}
+
+		File temp = new File(file.getPath() + ".tmp");
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		DataOutputStream out = new DataOutputStream(new FileOutputStream(temp));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(keys.length);
+			out.writeInt(fingerprintBytes.length);
+			out.write(fingerprintBytes);
+			for (int position : index) {
+				out.writeInt(position);
+			}
+			strings.writeTo(out);
+		}
+		finally {
+			out.close();
+		}
+		if (!temp.renameTo(file)) {
+			if (file.exists() && !file.delete()) {
+				throw new IOException("Unable to delete snapshot " + file);
+			}
+			if (!temp.renameTo(file)) {
+				throw new IOException("Unable to move snapshot to " + file);
+			}
+		}
+	}
+
+	/**
+	 * De-duplicating table of length-prefixed UTF-8 strings.
+	 */
+	private static class StringTable {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private final DataOutputStream data = new DataOutputStream(this.bytes);
+
+		private final Map<String, Integer> positions = new HashMap<String, Integer>();
+
+		private final int offset;
+
+		public StringTable(int offset) {
+			this.offset = offset;
+		}
+
+		public int add(String value) throws IOException {
+			Integer position = this.positions.get(value);
+			if (position == null) {
+				position = this.offset + this.data.size();
+				byte[] encoded = value.getBytes(UTF_8);
+				this.data.writeInt(encoded.length);
+				this.data.write(encoded);
+				this.positions.put(value, position);
+			}
+			return position;
+		}
+
+		public void writeTo(DataOutputStream out) throws IOException {
+			this.data.flush();
+			this.bytes.writeTo(out);
+		}
+
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+
+/**
+ * {@link MutablePropertySources} that delegates to another instance and keeps a version
+ * number that is incremented whenever a source is added, removed or replaced. Allows
+ * callers to cache values derived from the sources and cheaply detect when the cache is
+ * stale.
+ * 
+ * @author Dave Syer
+ * @see PropertyLookupCache
+ */
+public class VersionedPropertySources extends MutablePropertySources {
+
+	private final MutablePropertySources delegate;
+
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Create a new {@link VersionedPropertySources} instance.
+	 * @param delegate the property sources to delegate to
+	 */
+	public VersionedPropertySources(MutablePropertySources delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @return the current version, incremented on every structural change
+	 */
+	public long getVersion() {
+		return this.version.get();
+	}
+
+	/**
+	 * Increment the version. Should be called if the delegate is changed directly.
+	 */
+	public void invalidate() {
+		this.version.incrementAndGet();
+	}
+
+	@Override
+	public boolean contains(String name) {
+		return this.delegate.contains(name);
+	}
+
+	@Override
+	public PropertySource<?> get(String name) {
+		return this.delegate.get(name);
+	}
+
+	@Override
+	public Iterator<PropertySource<?>> iterator() {
+		final Iterator<PropertySource<?>> iterator = this.delegate.iterator();
+		return new Iterator<PropertySource<?>>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public PropertySource<?> next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				invalidate();
+			}
+
+		};
+	}
+
+	@Override
+	public void addFirst(PropertySource<?> propertySource) {
+		this.delegate.addFirst(propertySource);
+		invalidate();
+	}
+
+	@Override
+	public void addLast(PropertySource<?> propertySource) {
+		this.delegate.addLast(propertySource);
+		invalidate();
+	}
+
+	@Override
+	public void addBefore(String relativePropertySourceName,
+			PropertySource<?> propertySource) {
+		this.delegate.addBefore(relativePropertySourceName, propertySource);
+		invalidate();
+	}
+
+	@Override
+	public void addAfter(String relativePropertySourceName,
+			PropertySource<?> propertySource) {
+		this.delegate.addAfter(relativePropertySourceName, propertySource);
+		invalidate();
+	}
+
+	@Override
+	public int precedenceOf(PropertySource<?> propertySource) {
+		return this.delegate.precedenceOf(propertySource);
+	}
+
+	@Override
+	public PropertySource<?> remove(String name) {
+		PropertySource<?> removed = this.delegate.remove(name);
+		invalidate();
+		return removed;
+	}
+
+	@Override
+	public void replace(String name, PropertySource<?> propertySource) {
+		this.delegate.replace(name, propertySource);
+		invalidate();
+	}
+
+	@Override
+	public int size() {
+		return this.delegate.size();
+	}
+
+	@Override
+	public String toString() {
+		return this.delegate.toString();
+	}
+
+}
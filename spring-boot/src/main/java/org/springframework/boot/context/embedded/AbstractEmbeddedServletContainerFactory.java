@@ -17,6 +17,7 @@
 package org.springframework.boot.context.embedded;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.JarURLConnection;
@@ -33,6 +34,8 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Abstract base class for {@link EmbeddedServletContainerFactory} implementations.
@@ -70,6 +73,16 @@ public abstract class AbstractEmbeddedServletContainerFactory implements
 
 	private int sessionTimeout;
 
+	private long shutdownTimeout;
+
+	private long warmupTimeout = TimeUnit.SECONDS.toMillis(30);
+
+	private int maxThreads;
+
+	private int acceptCount;
+
+	private Ssl ssl;
+
 	/**
 	 * Create a new {@link AbstractEmbeddedServletContainerFactory} instance.
 	 */
@@ -158,6 +171,70 @@ public abstract class AbstractEmbeddedServletContainerFactory implements
 		return this.address;
 	}
 
+	@Override
+	public void setSsl(Ssl ssl) {
+		this.ssl = ssl;
+	}
+
+	/**
+	 * @return the SSL configuration or {@code null}
+	 */
+	public Ssl getSsl() {
+		return this.ssl;
+	}
+
+	/**
+	 * Return if an enabled SSL configuration has been set. An enabled configuration must
+	 * provide a key store.
+	 * @return true if an enabled SSL configuration has been set
+	 * @throws EmbeddedServletContainerException if SSL is enabled without a key store
+	 */
+	protected boolean isSslEnabled() {
+		if (this.ssl == null || !this.ssl.isEnabled()) {
+			return false;
+		}
+		if (!StringUtils.hasText(this.ssl.getKeyStore())) {
+			throw new EmbeddedServletContainerException("SSL is enabled but no key "
+					+ "store has been configured (set server.ssl.key-store or disable "
+					+ "SSL with server.ssl.enabled=false)", null);
+		}
+		return true;
+	}
+
+	/**
+	 * Utility method that can be used by subclasses to turn a key store or trust store
+	 * location (a file path or any location supported by {@link ResourceUtils}) into a
+	 * URL string that the container can open.
+	 * @param location the location to resolve
+	 * @return the URL string
+	 */
+	protected final String getStoreUrl(String location) {
+		try {
+			return ResourceUtils.getURL(location).toString();
+		}
+		catch (FileNotFoundException ex) {
+			throw new EmbeddedServletContainerException("Could not find SSL store "
+					+ location, ex);
+		}
+	}
+
+	/**
+	 * Utility method that can be used by subclasses to turn a key store or trust store
+	 * location into an absolute file path, for containers that can only open stores from
+	 * the file system.
+	 * @param location the location to resolve
+	 * @return the absolute file path
+	 */
+	protected final String getStoreFile(String location) {
+		try {
+			return ResourceUtils.getFile(location).getAbsolutePath();
+		}
+		catch (FileNotFoundException ex) {
+			throw new EmbeddedServletContainerException("Could not load SSL store "
+					+ location + " from the file system", ex);
+		}
+	}
+
 	public void setSessionTimeout(int sessionTimeout) {
 		this.sessionTimeout = sessionTimeout;
 	}
@@ -174,6 +251,58 @@ public abstract class AbstractEmbeddedServletContainerFactory implements
 		return this.sessionTimeout;
 	}
 
+	@Override
+	public void setShutdownTimeout(int shutdownTimeout) {
+		setShutdownTimeout(shutdownTimeout, TimeUnit.SECONDS);
+	}
+
+	@Override
+	public void setShutdownTimeout(int shutdownTimeout, TimeUnit timeUnit) {
+		Assert.notNull(timeUnit, "TimeUnit must not be null");
+		this.shutdownTimeout = timeUnit.toMillis(shutdownTimeout);
+	}
+
+	/**
+	 * @return the graceful shutdown timeout in milliseconds
+	 */
+	public long getShutdownTimeout() {
+		return this.shutdownTimeout;
+	}
+
+	@Override
+	public void setMaxThreads(int maxThreads) {
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * @return the maximum number of request threads (0 for the container default)
+	 */
+	public int getMaxThreads() {
+		return this.maxThreads;
+	}
+
+	@Override
+	public void setAcceptCount(int acceptCount) {
+		this.acceptCount = acceptCount;
+	}
+
+	/**
+	 * @return the accept queue length (0 for the container default)
+	 */
+	public int getAcceptCount() {
+		return this.acceptCount;
+	}
+
+	@Override
+	public void setWarmupTimeout(int warmupTimeout) {
+		this.warmupTimeout = TimeUnit.SECONDS.toMillis(warmupTimeout);
+	}
+
+	@Override
+	public long getWarmupTimeout() {
+		return this.warmupTimeout;
+	}
+
 	@Override
 	public void setInitializers(List<? extends ServletContextInitializer> initializers) {
 		Assert.notNull(initializers, "Initializers must not be null");
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletRequest;
+
+/**
+ * Keeps track of the requests that an embedded servlet container is processing so that
+ * they can be drained on a {@link GracefulShutdownCapable graceful shutdown}. Containers
+ * call {@link #begin(ServletRequest)} and {@link #end(ServletRequest)} around each
+ * dispatch. A request that goes asynchronous stays active until its
+ * {@link javax.servlet.AsyncContext} completes and later dispatches of the same request
+ * are not counted again.
+ * 
+ * @author Dave Syer
+ */
+public class ActiveRequestTracker {
+
+	private static final String TRACKED_ATTRIBUTE = ActiveRequestTracker.class
+			.getName() + ".TRACKED";
+
+	private final Object monitor = new Object();
+
+	private final AsyncListener completionListener = new CompletionListener();
+
+	private int active;
+
+	private int completed;
+
+	/**
+	 * Called by the container before a request is dispatched.
+	 * @param request the request
+	 * @return {@code true} if the request is new, {@code false} if it is a later
+	 * dispatch of a request that is already being tracked
+	 */
+	public boolean begin(ServletRequest request) {
+		if (request.getAttribute(TRACKED_ATTRIBUTE) != null) {
+			return false;
+		}
+		request.setAttribute(TRACKED_ATTRIBUTE, Boolean.TRUE);
+		synchronized (this.monitor) {
+			this.active++;
+		}
+		return true;
+	}
+
+	/**
+	 * Called by the container once the first dispatch of a request returns (i.e. only
+	 * when {@link #begin(ServletRequest)} returned {@code true}).
+	 * @param request the request
+	 */
+	public void end(ServletRequest request) {
+		if (request.isAsyncStarted()) {
+			request.getAsyncContext().addListener(this.completionListener);
+		}
+		else {
+			completed();
+		}
+	}
+
+	private void completed() {
+		synchronized (this.monitor) {
+			this.active--;
+			this.completed++;
+			if (this.active == 0) {
+				this.monitor.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Wait for all active requests to complete.
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return {@code true} if there are no more active requests
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 */
+	public boolean awaitCompletion(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		long end = System.currentTimeMillis() + unit.toMillis(timeout);
+		synchronized (this.monitor) {
+			while (this.active > 0) {
+				long remaining = end - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				this.monitor.wait(remaining);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * @return the number of requests currently being processed
+	 */
+	public int getActive() {
+		synchronized (this.monitor) {
+			return this.active;
+		}
+	}
+
+	/**
+	 * @return the number of requests that have completed
+	 */
+	public int getCompleted() {
+		synchronized (this.monitor) {
+			return this.completed;
+		}
+	}
+
+	/**
+	 * {@link AsyncListener} that marks an asynchronous request as completed.
+	 */
+	private class CompletionListener implements AsyncListener {
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+			completed();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+			// Listeners are removed when async processing is restarted
+			event.getAsyncContext().addListener(this);
+		}
+
+	}
+
+}
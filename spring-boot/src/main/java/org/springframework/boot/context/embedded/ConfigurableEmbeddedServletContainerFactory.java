@@ -68,12 +68,65 @@ public interface ConfigurableEmbeddedServletContainerFactory extends
 	 */
 	void setSessionTimeout(int sessionTimeout, TimeUnit timeUnit);
 
+	/**
+	 * The time in seconds that active requests are given to complete when the container
+	 * is {@link GracefulShutdownCapable#shutdownGracefully() shut down gracefully}
+	 * (default 0). If 0 or negative the container is stopped without waiting.
+	 * @param shutdownTimeout the shutdown timeout
+	 */
+	void setShutdownTimeout(int shutdownTimeout);
+
+	/**
+	 * The time in the specified {@link TimeUnit} that active requests are given to
+	 * complete when the container is {@link GracefulShutdownCapable#shutdownGracefully()
+	 * shut down gracefully}. If 0 or negative the container is stopped without waiting.
+	 * @param shutdownTimeout the shutdown timeout
+	 * @param timeUnit the time unit
+	 */
+	void setShutdownTimeout(int shutdownTimeout, TimeUnit timeUnit);
+
+	/**
+	 * The maximum number of threads that process requests. If 0 or negative the
+	 * container default is used.
+	 * @param maxThreads the maximum number of request threads
+	 */
+	void setMaxThreads(int maxThreads);
+
+	/**
+	 * The maximum length of the queue of incoming connections waiting to be accepted. If
+	 * 0 or negative the container default is used.
+	 * @param acceptCount the accept queue length
+	 */
+	void setAcceptCount(int acceptCount);
+
+	/**
+	 * The maximum time in seconds to wait for {@link WarmupTask}s before the container
+	 * starts accepting requests (default 30).
+	 * @param warmupTimeout the warm-up timeout
+	 */
+	void setWarmupTimeout(int warmupTimeout);
+
+	/**
+	 * The maximum time to wait for {@link WarmupTask}s before the container starts
+	 * accepting requests.
+	 * @return the warm-up timeout in milliseconds
+	 */
+	long getWarmupTimeout();
+
 	/**
 	 * Sets the specific network address that the server should bind to.
 	 * @param address the address to set (defaults to {@code null})
 	 */
 	void setAddress(InetAddress address);
 
+	/**
+	 * Sets the SSL configuration that will be applied to the container's default
+	 * connector. When {@code null} or not {@link Ssl#isEnabled() enabled} plain HTTP is
+	 * used.
+	 * @param ssl the SSL configuration (defaults to {@code null})
+	 */
+	void setSsl(Ssl ssl);
+
 	/**
 	 * The class name for the jsp servlet if used. If
 	 * {@link #setRegisterJspServlet(boolean) <code>registerJspServlet</code>} is true
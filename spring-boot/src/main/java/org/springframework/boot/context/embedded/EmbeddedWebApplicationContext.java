@@ -24,6 +24,15 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.Filter;
 import javax.servlet.MultipartConfigElement;
@@ -69,6 +78,11 @@ import org.springframework.web.context.support.WebApplicationContextUtils;
  * URLs ('/*').
  * 
  * <p>
+ * Before the embedded servlet container starts accepting requests any {@link WarmupTask}
+ * beans are run (in parallel) so that the first real requests do not pay for lazy
+ * initialization.
+ * 
+ * <p>
  * For more advanced configuration, the context can instead define beans that implement
  * the {@link ServletContextInitializer} interface (most often
  * {@link ServletRegistrationBean}s and/or {@link FilterRegistrationBean}s). To prevent
@@ -95,8 +109,12 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 	 */
 	public static final String DISPATCHER_SERVLET_NAME = "dispatcherServlet";
 
+	private static final long DEFAULT_WARMUP_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
 	private EmbeddedServletContainer embeddedServletContainer;
 
+	private long warmupTimeout = DEFAULT_WARMUP_TIMEOUT;
+
 	private ServletConfig servletConfig;
 
 	private String namespace;
@@ -123,11 +141,14 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 	@Override
 	protected void finishRefresh() {
 		super.finishRefresh();
+		runWarmupTasks();
 		startEmbeddedServletContainer();
 	}
 
 	@Override
 	protected void doClose() {
+		// Let in-flight requests finish before the beans they use are destroyed
+		shutdownEmbeddedServletContainerGracefully();
 		super.doClose();
 		stopAndReleaseEmbeddedServletContainer();
 	}
@@ -135,6 +156,10 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 	private synchronized void createEmbeddedServletContainer() {
 		if (this.embeddedServletContainer == null && getServletContext() == null) {
 			EmbeddedServletContainerFactory containerFactory = getEmbeddedServletContainerFactory();
+			if (containerFactory instanceof ConfigurableEmbeddedServletContainerFactory) {
+				this.warmupTimeout = ((ConfigurableEmbeddedServletContainerFactory) containerFactory)
+						.getWarmupTimeout();
+			}
 			this.embeddedServletContainer = containerFactory
 					.getEmbeddedServletContainer(getSelfInitializer());
 		}
@@ -318,12 +343,72 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 		return beans;
 	}
 
+	private void runWarmupTasks() {
+		final ServletContext servletContext = getServletContext();
+		Collection<WarmupTask> tasks = getBeanFactory().getBeansOfType(WarmupTask.class)
+				.values();
+		if (tasks.isEmpty() || this.embeddedServletContainer == null) {
+			return;
+		}
+		long startTime = System.currentTimeMillis();
+		long deadline = startTime + this.warmupTimeout;
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()),
+				new WarmupThreadFactory());
+		try {
+			List<Future<Object>> futures = new ArrayList<Future<Object>>();
+			for (final WarmupTask task : tasks) {
+				futures.add(executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						task.warmup(servletContext);
+						return null;
+					}
+				}));
+			}
+			for (Future<Object> future : futures) {
+				try {
+					future.get(Math.max(deadline - System.currentTimeMillis(), 0),
+							TimeUnit.MILLISECONDS);
+				}
+				catch (ExecutionException ex) {
+					this.logger.warn("Warm-up task failed", ex.getCause());
+				}
+			}
+			this.logger.info("Warm-up completed in "
+					+ (System.currentTimeMillis() - startTime) + " ms");
+		}
+		catch (TimeoutException ex) {
+			this.logger.warn("Warm-up did not complete within " + this.warmupTimeout
+					+ " ms, starting anyway");
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private void startEmbeddedServletContainer() {
 		if (this.embeddedServletContainer != null) {
 			this.embeddedServletContainer.start();
 		}
 	}
 
+	private synchronized void shutdownEmbeddedServletContainerGracefully() {
+		if (this.embeddedServletContainer instanceof GracefulShutdownCapable) {
+			try {
+				((GracefulShutdownCapable) this.embeddedServletContainer)
+						.shutdownGracefully();
+			}
+			catch (Exception ex) {
+				this.logger.warn("Graceful shutdown of embedded servlet container failed",
+						ex);
+			}
+		}
+	}
+
 	private synchronized void stopAndReleaseEmbeddedServletContainer() {
 		if (this.embeddedServletContainer != null) {
 			try {
@@ -372,4 +457,20 @@ public class EmbeddedWebApplicationContext extends GenericWebApplicationContext
 		return this.embeddedServletContainer;
 	}
 
+	/**
+	 * {@link ThreadFactory} for the daemon threads that run {@link WarmupTask}s.
+	 */
+	private static class WarmupThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "warmup-" + this.count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+/**
+ * Optional interface that can be implemented by an {@link EmbeddedServletContainer} that
+ * is able to drain active requests before it is {@link EmbeddedServletContainer#stop()
+ * stopped}.
+ * 
+ * @author Dave Syer
+ * @see EmbeddedWebApplicationContext
+ */
+public interface GracefulShutdownCapable {
+
+	/**
+	 * Gracefully shuts down the embedded servlet container. New connections are no
+	 * longer accepted and requests that are already active are given until the
+	 * configured {@link ConfigurableEmbeddedServletContainerFactory#setShutdownTimeout(int)
+	 * shutdown timeout} to complete. The container still needs to be
+	 * {@link EmbeddedServletContainer#stop() stopped} afterwards. Containers that have no
+	 * shutdown timeout configured return immediately.
+	 * @return the outcome of the graceful shutdown
+	 * @throws EmbeddedServletContainerException if the container cannot be paused
+	 */
+	GracefulShutdownResult shutdownGracefully() throws EmbeddedServletContainerException;
+
+}
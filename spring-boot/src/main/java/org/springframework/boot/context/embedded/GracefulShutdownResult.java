@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+/**
+ * The outcome of an {@link GracefulShutdownCapable#shutdownGracefully() graceful
+ * shutdown}: how many in-flight requests completed while the container was draining and
+ * how many were still active when the shutdown timeout expired.
+ * 
+ * @author Dave Syer
+ */
+public final class GracefulShutdownResult {
+
+	/**
+	 * Result used when no draining took place.
+	 */
+	public static final GracefulShutdownResult NONE = new GracefulShutdownResult(0, 0);
+
+	private final int drained;
+
+	private final int aborted;
+
+	public GracefulShutdownResult(int drained, int aborted) {
+		this.drained = drained;
+		this.aborted = aborted;
+	}
+
+	/**
+	 * @return the number of requests that completed while draining
+	 */
+	public int getDrained() {
+		return this.drained;
+	}
+
+	/**
+	 * @return the number of requests that were still active when the timeout expired
+	 */
+	public int getAborted() {
+		return this.aborted;
+	}
+
+	/**
+	 * @return true if all active requests completed before the timeout
+	 */
+	public boolean isComplete() {
+		return this.aborted == 0;
+	}
+
+	@Override
+	public String toString() {
+		return "drained=" + this.drained + ", aborted=" + this.aborted;
+	}
+
+}
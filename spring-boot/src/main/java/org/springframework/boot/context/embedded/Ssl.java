@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+/**
+ * Simple container-independent abstraction for SSL configuration. Key store and trust
+ * store locations can be file paths or any URL supported by
+ * {@link org.springframework.util.ResourceUtils} (e.g. {@code classpath:keystore.jks}).
+ *
+ * @author Dave Syer
+ * @see ConfigurableEmbeddedServletContainerFactory#setSsl(Ssl)
+ */
+public class Ssl {
+
+	private boolean enabled = true;
+
+	private String keyStore;
+
+	private String keyStorePassword;
+
+	private String keyStoreType;
+
+	private String keyPassword;
+
+	private String keyAlias;
+
+	private String trustStore;
+
+	private String trustStorePassword;
+
+	private String trustStoreType;
+
+	private String[] ciphers;
+
+	private String[] enabledProtocols;
+
+	private String protocol = "TLS";
+
+	private boolean needClientAuth;
+
+	private int sessionCacheSize;
+
+	private int sessionTimeout;
+
+	/**
+	 * @return true if SSL should be used
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getKeyStore() {
+		return this.keyStore;
+	}
+
+	public void setKeyStore(String keyStore) {
+		this.keyStore = keyStore;
+	}
+
+	public String getKeyStorePassword() {
+		return this.keyStorePassword;
+	}
+
+	public void setKeyStorePassword(String keyStorePassword) {
+		this.keyStorePassword = keyStorePassword;
+	}
+
+	public String getKeyStoreType() {
+		return this.keyStoreType;
+	}
+
+	public void setKeyStoreType(String keyStoreType) {
+		this.keyStoreType = keyStoreType;
+	}
+
+	/**
+	 * @return the password of the key in the key store (defaults to the key store
+	 * password when not set)
+	 */
+	public String getKeyPassword() {
+		return this.keyPassword;
+	}
+
+	public void setKeyPassword(String keyPassword) {
+		this.keyPassword = keyPassword;
+	}
+
+	public String getKeyAlias() {
+		return this.keyAlias;
+	}
+
+	public void setKeyAlias(String keyAlias) {
+		this.keyAlias = keyAlias;
+	}
+
+	public String getTrustStore() {
+		return this.trustStore;
+	}
+
+	public void setTrustStore(String trustStore) {
+		this.trustStore = trustStore;
+	}
+
+	public String getTrustStorePassword() {
+		return this.trustStorePassword;
+	}
+
+	public void setTrustStorePassword(String trustStorePassword) {
+		this.trustStorePassword = trustStorePassword;
+	}
+
+	public String getTrustStoreType() {
+		return this.trustStoreType;
+	}
+
+	public void setTrustStoreType(String trustStoreType) {
+		this.trustStoreType = trustStoreType;
+	}
+
+	/**
+	 * @return the cipher suites to enable or {@code null} to use the JVM defaults
+	 */
+	public String[] getCiphers() {
+		return this.ciphers;
+	}
+
+	public void setCiphers(String[] ciphers) {
+		this.ciphers = ciphers;
+	}
+
+	/**
+	 * @return the SSL protocols to enable (e.g. {@code TLSv1.2}) or {@code null} to use
+	 * the JVM defaults
+	 */
+	public String[] getEnabledProtocols() {
+		return this.enabledProtocols;
+	}
+
+	public void setEnabledProtocols(String[] enabledProtocols) {
+		this.enabledProtocols = enabledProtocols;
+	}
+
+	/**
+	 * @return the algorithm used to create the {@link javax.net.ssl.SSLContext}
+	 */
+	public String getProtocol() {
+		return this.protocol;
+	}
+
+	public void setProtocol(String protocol) {
+		this.protocol = protocol;
+	}
+
+	public boolean isNeedClientAuth() {
+		return this.needClientAuth;
+	}
+
+	public void setNeedClientAuth(boolean needClientAuth) {
+		this.needClientAuth = needClientAuth;
+	}
+
+	/**
+	 * @return the maximum number of SSL sessions cached for resumption, or 0 to use the
+	 * JVM default
+	 */
+	public int getSessionCacheSize() {
+		return this.sessionCacheSize;
+	}
+
+	public void setSessionCacheSize(int sessionCacheSize) {
+		this.sessionCacheSize = sessionCacheSize;
+	}
+
+	/**
+	 * @return the time in seconds that a cached SSL session can be resumed, or 0 to use
+	 * the JVM default
+	 */
+	public int getSessionTimeout() {
+		return this.sessionTimeout;
+	}
+
+	public void setSessionTimeout(int sessionTimeout) {
+		this.sessionTimeout = sessionTimeout;
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+import javax.servlet.ServletContext;
+
+/**
+ * Task that warms up the application before the embedded servlet container starts
+ * accepting requests, for example by sending synthetic requests through the filter chain
+ * so that caches are populated and hot code paths are compiled before real traffic
+ * arrives. All {@link WarmupTask} beans in an {@link EmbeddedWebApplicationContext} are
+ * run in parallel once the context has been refreshed. The container does not open its
+ * port until they have completed, or the
+ * {@link ConfigurableEmbeddedServletContainerFactory#setWarmupTimeout(int) warm-up
+ * timeout} has expired.
+ * 
+ * @author Dave Syer
+ * @see EmbeddedWebApplicationContext
+ */
+public interface WarmupTask {
+
+	/**
+	 * Warm up the application. Exceptions are logged but do not prevent the container
+	 * from starting.
+	 * @param servletContext the fully initialized servlet context
+	 * @throws Exception if the warm-up fails
+	 */
+	void warmup(ServletContext servletContext) throws Exception;
+
+}
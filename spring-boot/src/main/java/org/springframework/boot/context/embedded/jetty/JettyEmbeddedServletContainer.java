@@ -16,10 +16,24 @@
 
 package org.springframework.boot.context.embedded.jetty;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.springframework.boot.context.embedded.ActiveRequestTracker;
 import org.springframework.boot.context.embedded.EmbeddedServletContainer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerException;
+import org.springframework.boot.context.embedded.GracefulShutdownCapable;
+import org.springframework.boot.context.embedded.GracefulShutdownResult;
 import org.springframework.util.Assert;
 
 /**
@@ -30,22 +44,48 @@ import org.springframework.util.Assert;
  * @author Phillip Webb
  * @see JettyEmbeddedServletContainerFactory
  */
-public class JettyEmbeddedServletContainer implements EmbeddedServletContainer {
+public class JettyEmbeddedServletContainer implements EmbeddedServletContainer,
+		GracefulShutdownCapable {
+
+	private final Log logger = LogFactory.getLog(JettyEmbeddedServletContainer.class);
 
 	private final Server server;
 
+	private final long shutdownTimeout;
+
+	private ActiveRequestTracker activeRequests;
+
 	/**
 	 * Create a new {@link JettyEmbeddedServletContainer} instance.
 	 * @param server the underlying Jetty server
 	 */
 	public JettyEmbeddedServletContainer(Server server) {
+		this(server, 0);
+	}
+
+	/**
+	 * Create a new {@link JettyEmbeddedServletContainer} instance.
+	 * @param server the underlying Jetty server
+	 * @param shutdownTimeout the time in milliseconds that active requests are given to
+	 * complete on a {@link #shutdownGracefully() graceful shutdown}
+	 */
+	public JettyEmbeddedServletContainer(Server server, long shutdownTimeout) {
 		Assert.notNull(server, "Jetty Server must not be null");
 		this.server = server;
+		this.shutdownTimeout = shutdownTimeout;
 		initialize();
 	}
 
 	private synchronized void initialize() {
 		try {
+			if (this.shutdownTimeout > 0) {
+				// Keeps track of active (including suspended) requests
+				this.activeRequests = new ActiveRequestTracker();
+				ActiveRequestsHandler handler = new ActiveRequestsHandler(
+						this.activeRequests);
+				handler.setHandler(this.server.getHandler());
+				this.server.setHandler(handler);
+			}
 			this.server.start();
 			// Start the server so the ServletContext is available, but stop the
 			// connectors to prevent requests from being handled before the Spring context
@@ -76,6 +116,37 @@ public class JettyEmbeddedServletContainer implements EmbeddedServletContainer {
 		}
 	}
 
+	@Override
+	public GracefulShutdownResult shutdownGracefully()
+			throws EmbeddedServletContainerException {
+		if (this.activeRequests == null) {
+			return GracefulShutdownResult.NONE;
+		}
+		try {
+			// Stop accepting new connections, existing ones are left to finish
+			for (Connector connector : this.server.getConnectors()) {
+				connector.close();
+			}
+		}
+		catch (Exception ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to close embedded Jetty connectors", ex);
+		}
+		int completed = this.activeRequests.getCompleted();
+		try {
+			this.activeRequests.awaitCompletion(this.shutdownTimeout,
+					TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		GracefulShutdownResult result = new GracefulShutdownResult(
+				this.activeRequests.getCompleted() - completed,
+				this.activeRequests.getActive());
+		this.logger.info("Graceful shutdown of Jetty: " + result);
+		return result;
+	}
+
 	@Override
 	public synchronized void stop() {
 		try {
@@ -96,4 +167,34 @@ public class JettyEmbeddedServletContainer implements EmbeddedServletContainer {
 	public Server getServer() {
 		return this.server;
 	}
+
+	/**
+	 * {@link HandlerWrapper} that reports the requests being processed to an
+	 * {@link ActiveRequestTracker}.
+	 */
+	private static class ActiveRequestsHandler extends HandlerWrapper {
+
+		private final ActiveRequestTracker tracker;
+
+		public ActiveRequestsHandler(ActiveRequestTracker tracker) {
+			this.tracker = tracker;
+		}
+
+		@Override
+		public void handle(String target, Request baseRequest,
+				HttpServletRequest request, HttpServletResponse response)
+				throws IOException, ServletException {
+			boolean tracked = this.tracker.begin(baseRequest);
+			try {
+				super.handle(target, baseRequest, request, response);
+			}
+			finally {
+				if (tracked) {
+					this.tracker.end(baseRequest);
+				}
+			}
+		}
+
+	}
+
 }
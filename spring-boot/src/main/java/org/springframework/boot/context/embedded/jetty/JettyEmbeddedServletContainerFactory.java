@@ -24,12 +24,17 @@ import java.util.Collection;
 import java.util.List;
 
 import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.server.AbstractConnector;
+import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ErrorHandler;
+import org.eclipse.jetty.server.ssl.SslSelectChannelConnector;
 import org.eclipse.jetty.servlet.ErrorPageErrorHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.servlet.ServletMapping;
 import org.eclipse.jetty.util.resource.Resource;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.webapp.AbstractConfiguration;
 import org.eclipse.jetty.webapp.Configuration;
 import org.eclipse.jetty.webapp.WebAppContext;
@@ -39,6 +44,7 @@ import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory
 import org.springframework.boot.context.embedded.ErrorPage;
 import org.springframework.boot.context.embedded.MimeMappings;
 import org.springframework.boot.context.embedded.ServletContextInitializer;
+import org.springframework.boot.context.embedded.Ssl;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
@@ -63,6 +69,8 @@ import org.springframework.util.StringUtils;
 public class JettyEmbeddedServletContainerFactory extends
 		AbstractEmbeddedServletContainerFactory implements ResourceLoaderAware {
 
+	private static final int MIN_REQUEST_THREADS = 2;
+
 	private List<Configuration> configurations = new ArrayList<Configuration>();
 
 	private ResourceLoader resourceLoader;
@@ -100,7 +108,24 @@ public class JettyEmbeddedServletContainerFactory extends
 		if (getPort() == 0) {
 			return EmbeddedServletContainer.NONE;
 		}
-		Server server = new Server(new InetSocketAddress(getAddress(), getPort()));
+		InetSocketAddress address = new InetSocketAddress(getAddress(), getPort());
+		Server server = new Server(address);
+		if (isSslEnabled()) {
+			SslSelectChannelConnector connector = getSslConnector(getSsl());
+			connector.setHost(address.getAddress().getHostAddress());
+			connector.setPort(address.getPort());
+			server.setConnectors(new Connector[] { connector });
+		}
+		if (getMaxThreads() > 0) {
+			server.setThreadPool(createThreadPool(server));
+		}
+		if (getAcceptCount() > 0) {
+			for (Connector connector : server.getConnectors()) {
+				if (connector instanceof AbstractConnector) {
+					((AbstractConnector) connector).setAcceptQueueSize(getAcceptCount());
+				}
+			}
+		}
 
 		if (this.resourceLoader != null) {
 			context.setClassLoader(this.resourceLoader.getClassLoader());
@@ -129,6 +154,69 @@ public class JettyEmbeddedServletContainerFactory extends
 		return getJettyEmbeddedServletContainer(server);
 	}
 
+	/**
+	 * Create a thread pool that can run {@link #setMaxThreads(int) maxThreads} requests
+	 * at the same time. Jetty takes the acceptor and selector threads of its connectors
+	 * from the same pool, so room is left for those on top.
+	 */
+	private QueuedThreadPool createThreadPool(Server server) {
+		int reserved = 0;
+		for (Connector connector : server.getConnectors()) {
+			if (connector instanceof AbstractConnector) {
+				// One acceptor and one selector thread per acceptor
+				reserved += 2 * ((AbstractConnector) connector).getAcceptors();
+			}
+		}
+		int maxThreads = reserved + Math.max(getMaxThreads(), MIN_REQUEST_THREADS);
+		QueuedThreadPool threadPool = new QueuedThreadPool(maxThreads);
+		threadPool.setMinThreads(Math.min(threadPool.getMinThreads(), maxThreads));
+		return threadPool;
+	}
+
+	/**
+	 * Create the connector used when SSL is enabled. The connector uses direct buffers
+	 * and the {@link SslContextFactory} is configured from the {@link Ssl} settings.
+	 * Subclasses can override this method to customize the connector further.
+	 * @param ssl the SSL configuration
+	 * @return a new SSL connector
+	 */
+	protected SslSelectChannelConnector getSslConnector(Ssl ssl) {
+		SslContextFactory factory = new SslContextFactory();
+		factory.setProtocol(ssl.getProtocol());
+		factory.setNeedClientAuth(ssl.isNeedClientAuth());
+		factory.setKeyStorePath(getStoreUrl(ssl.getKeyStore()));
+		factory.setKeyStorePassword(ssl.getKeyStorePassword());
+		if (ssl.getKeyStoreType() != null) {
+			factory.setKeyStoreType(ssl.getKeyStoreType());
+		}
+		if (ssl.getKeyPassword() != null) {
+			factory.setKeyManagerPassword(ssl.getKeyPassword());
+		}
+		factory.setCertAlias(ssl.getKeyAlias());
+		if (ssl.getTrustStore() != null) {
+			factory.setTrustStore(getStoreUrl(ssl.getTrustStore()));
+			factory.setTrustStorePassword(ssl.getTrustStorePassword());
+			if (ssl.getTrustStoreType() != null) {
+				factory.setTrustStoreType(ssl.getTrustStoreType());
+			}
+		}
+		if (ssl.getCiphers() != null) {
+			factory.setIncludeCipherSuites(ssl.getCiphers());
+		}
+		if (ssl.getEnabledProtocols() != null) {
+			factory.setIncludeProtocols(ssl.getEnabledProtocols());
+		}
+		if (ssl.getSessionCacheSize() > 0) {
+			factory.setSslSessionCacheSize(ssl.getSessionCacheSize());
+		}
+		if (ssl.getSessionTimeout() > 0) {
+			factory.setSslSessionTimeout(ssl.getSessionTimeout());
+		}
+		SslSelectChannelConnector connector = new SslSelectChannelConnector(factory);
+		connector.setUseDirectBuffers(true);
+		return connector;
+	}
+
 	private void configureDocumentRoot(WebAppContext handler) {
 		File root = getValidDocumentRoot();
 		if (root != null) {
@@ -243,7 +331,7 @@ public class JettyEmbeddedServletContainerFactory extends
 	 * @return a new {@link JettyEmbeddedServletContainer} instance
 	 */
 	protected JettyEmbeddedServletContainer getJettyEmbeddedServletContainer(Server server) {
-		return new JettyEmbeddedServletContainer(server);
+		return new JettyEmbeddedServletContainer(server, getShutdownTimeout());
 	}
 
 	@Override
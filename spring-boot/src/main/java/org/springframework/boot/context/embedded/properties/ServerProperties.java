@@ -23,10 +23,13 @@ import javax.validation.constraints.NotNull;
 
 import org.apache.catalina.valves.AccessLogValve;
 import org.apache.catalina.valves.RemoteIpValve;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.boot.context.embedded.ConfigurableEmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizerBeanPostProcessor;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.Ssl;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.StringUtils;
@@ -47,15 +50,33 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 
 	private int sessionTimeout = 30;
 
+	private int shutdownTimeout = 0;
+
+	private int warmupTimeout = 30;
+
 	@NotNull
 	private String contextPath = "";
 
+	private Ssl ssl;
+
 	private Tomcat tomcat = new Tomcat();
 
+	private Undertow undertow = new Undertow();
+
+	private Compression compression = new Compression();
+
 	public Tomcat getTomcat() {
 		return this.tomcat;
 	}
 
+	public Compression getCompression() {
+		return this.compression;
+	}
+
+	public Undertow getUndertow() {
+		return this.undertow;
+	}
+
 	public String getContextPath() {
 		return this.contextPath;
 	}
@@ -88,6 +109,30 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 		this.sessionTimeout = sessionTimeout;
 	}
 
+	public int getShutdownTimeout() {
+		return this.shutdownTimeout;
+	}
+
+	public void setShutdownTimeout(int shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	public int getWarmupTimeout() {
+		return this.warmupTimeout;
+	}
+
+	public void setWarmupTimeout(int warmupTimeout) {
+		this.warmupTimeout = warmupTimeout;
+	}
+
+	public Ssl getSsl() {
+		return this.ssl;
+	}
+
+	public void setSsl(Ssl ssl) {
+		this.ssl = ssl;
+	}
+
 	public void setLoader(String value) {
 		// no op to support Tomcat running as a traditional container (not embedded)
 	}
@@ -98,9 +143,17 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 		factory.setAddress(getAddress());
 		factory.setContextPath(getContextPath());
 		factory.setSessionTimeout(getSessionTimeout());
+		factory.setShutdownTimeout(getShutdownTimeout());
+		factory.setWarmupTimeout(getWarmupTimeout());
+		if (getSsl() != null) {
+			factory.setSsl(getSsl());
+		}
 		if (factory instanceof TomcatEmbeddedServletContainerFactory) {
 			getTomcat().customizeTomcat((TomcatEmbeddedServletContainerFactory) factory);
 		}
+		if (Undertow.isUndertow(factory)) {
+			getUndertow().customizeUndertow(factory);
+		}
 	}
 
 	public static class Tomcat {
@@ -113,6 +166,8 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 
 		private File basedir;
 
+		private boolean fastStart = false;
+
 		public File getBasedir() {
 			return this.basedir;
 		}
@@ -121,6 +176,14 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 			this.basedir = basedir;
 		}
 
+		public boolean isFastStart() {
+			return this.fastStart;
+		}
+
+		public void setFastStart(boolean fastStart) {
+			this.fastStart = fastStart;
+		}
+
 		public String getAccessLogPattern() {
 			return this.accessLogPattern;
 		}
@@ -149,6 +212,7 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 			if (getBasedir() != null) {
 				factory.setBaseDirectory(getBasedir());
 			}
+			factory.setFastStart(isFastStart());
 
 			String remoteIpHeader = getRemoteIpHeader();
 			String protocolHeader = getProtocolHeader();
@@ -171,4 +235,144 @@ public class ServerProperties implements EmbeddedServletContainerCustomizer {
 
 	}
 
+	/**
+	 * Settings for gzip response compression (applied by a filter when enabled, rather
+	 * than by the container).
+	 */
+	public static class Compression {
+
+		private boolean enabled = false;
+
+		private int minResponseSize = 2048;
+
+		private String[] mimeTypes = new String[] { "text/html", "text/xml",
+				"text/plain", "text/css", "text/javascript", "application/javascript",
+				"application/json", "application/xml" };
+
+		private int level = -1;
+
+		private int poolSize = 0;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMinResponseSize() {
+			return this.minResponseSize;
+		}
+
+		public void setMinResponseSize(int minResponseSize) {
+			this.minResponseSize = minResponseSize;
+		}
+
+		public String[] getMimeTypes() {
+			return this.mimeTypes;
+		}
+
+		public void setMimeTypes(String[] mimeTypes) {
+			this.mimeTypes = mimeTypes;
+		}
+
+		public int getLevel() {
+			return this.level;
+		}
+
+		public void setLevel(int level) {
+			this.level = level;
+		}
+
+		public int getPoolSize() {
+			return this.poolSize;
+		}
+
+		public void setPoolSize(int poolSize) {
+			this.poolSize = poolSize;
+		}
+
+	}
+
+	/**
+	 * Undertow settings. Undertow requires Java 7 so its factory is only referenced by
+	 * name and configured through its bean properties.
+	 */
+	public static class Undertow {
+
+		private static final String FACTORY_CLASS = "org.springframework.boot.context."
+				+ "embedded.undertow.UndertowEmbeddedServletContainerFactory";
+
+		private Integer bufferSize;
+
+		private Integer buffersPerRegion;
+
+		private Integer ioThreads;
+
+		private Integer workerThreads;
+
+		private Boolean directBuffers;
+
+		public Integer getBufferSize() {
+			return this.bufferSize;
+		}
+
+		public void setBufferSize(Integer bufferSize) {
+			this.bufferSize = bufferSize;
+		}
+
+		public Integer getBuffersPerRegion() {
+			return this.buffersPerRegion;
+		}
+
+		public void setBuffersPerRegion(Integer buffersPerRegion) {
+			this.buffersPerRegion = buffersPerRegion;
+		}
+
+		public Integer getIoThreads() {
+			return this.ioThreads;
+		}
+
+		public void setIoThreads(Integer ioThreads) {
+			this.ioThreads = ioThreads;
+		}
+
+		public Integer getWorkerThreads() {
+			return this.workerThreads;
+		}
+
+		public void setWorkerThreads(Integer workerThreads) {
+			this.workerThreads = workerThreads;
+		}
+
+		public Boolean getDirectBuffers() {
+			return this.directBuffers;
+		}
+
+		public void setDirectBuffers(Boolean directBuffers) {
+			this.directBuffers = directBuffers;
+		}
+
+		void customizeUndertow(ConfigurableEmbeddedServletContainerFactory factory) {
+			BeanWrapper wrapper = new BeanWrapperImpl(factory);
+			wrapper.setPropertyValue("bufferSize", this.bufferSize);
+			wrapper.setPropertyValue("buffersPerRegion", this.buffersPerRegion);
+			wrapper.setPropertyValue("ioThreads", this.ioThreads);
+			wrapper.setPropertyValue("workerThreads", this.workerThreads);
+			wrapper.setPropertyValue("directBuffers", this.directBuffers);
+		}
+
+		static boolean isUndertow(ConfigurableEmbeddedServletContainerFactory factory) {
+			for (Class<?> type = factory.getClass(); type != null; type = type
+					.getSuperclass()) {
+				if (FACTORY_CLASS.equals(type.getName())) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
 }
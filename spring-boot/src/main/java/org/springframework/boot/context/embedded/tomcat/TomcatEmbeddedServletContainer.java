@@ -16,14 +16,29 @@
 
 package org.springframework.boot.context.embedded.tomcat;
 
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.ServerSocket;
+import java.nio.channels.Channel;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.catalina.valves.ValveBase;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.embedded.ActiveRequestTracker;
 import org.springframework.boot.context.embedded.EmbeddedServletContainer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerException;
+import org.springframework.boot.context.embedded.GracefulShutdownCapable;
+import org.springframework.boot.context.embedded.GracefulShutdownResult;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * {@link EmbeddedServletContainer} that can be used to control an embedded Tomcat server.
@@ -34,7 +49,8 @@ import org.springframework.util.Assert;
  * @author Dave Syer
  * @see TomcatEmbeddedServletContainerFactory
  */
-public class TomcatEmbeddedServletContainer implements EmbeddedServletContainer {
+public class TomcatEmbeddedServletContainer implements EmbeddedServletContainer,
+		GracefulShutdownCapable {
 
 	private final Log logger = LogFactory.getLog(TomcatEmbeddedServletContainer.class);
 
@@ -42,18 +58,37 @@ public class TomcatEmbeddedServletContainer implements EmbeddedServletContainer
 
 	private final Tomcat tomcat;
 
+	private final long shutdownTimeout;
+
+	private final ActiveRequestTracker activeRequests = new ActiveRequestTracker();
+
 	/**
 	 * Create a new {@link TomcatEmbeddedServletContainer} instance.
 	 * @param tomcat the underlying Tomcat server
 	 */
 	public TomcatEmbeddedServletContainer(Tomcat tomcat) {
+		this(tomcat, 0);
+	}
+
+	/**
+	 * Create a new {@link TomcatEmbeddedServletContainer} instance.
+	 * @param tomcat the underlying Tomcat server
+	 * @param shutdownTimeout the time in milliseconds that active requests are given to
+	 * complete on a {@link #shutdownGracefully() graceful shutdown}
+	 */
+	public TomcatEmbeddedServletContainer(Tomcat tomcat, long shutdownTimeout) {
 		Assert.notNull(tomcat, "Tomcat Server must not be null");
 		this.tomcat = tomcat;
+		this.shutdownTimeout = shutdownTimeout;
 		initialize();
 	}
 
 	private synchronized void initialize() throws EmbeddedServletContainerException {
 		try {
+			if (this.shutdownTimeout > 0) {
+				this.tomcat.getEngine().getPipeline()
+						.addValve(new ActiveRequestsValve(this.activeRequests));
+			}
 			this.tomcat.start();
 			// Unlike Jetty, all Tomcat threads are daemon threads. We create a
 			// blocking non-daemon to stop immediate shutdown
@@ -85,6 +120,76 @@ public class TomcatEmbeddedServletContainer implements EmbeddedServletContainer
 		}
 	}
 
+	@Override
+	public GracefulShutdownResult shutdownGracefully()
+			throws EmbeddedServletContainerException {
+		Connector connector = this.tomcat.getConnector();
+		if (this.shutdownTimeout <= 0 || connector == null) {
+			return GracefulShutdownResult.NONE;
+		}
+		try {
+			// Stop accepting new connections, existing ones are left to finish
+			connector.getProtocolHandler().pause();
+		}
+		catch (Exception ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to pause embedded Tomcat connector", ex);
+		}
+		closeServerSocket(connector);
+		int completed = this.activeRequests.getCompleted();
+		try {
+			this.activeRequests.awaitCompletion(this.shutdownTimeout,
+					TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		GracefulShutdownResult result = new GracefulShutdownResult(
+				this.activeRequests.getCompleted() - completed,
+				this.activeRequests.getActive());
+		this.logger.info("Graceful shutdown of Tomcat: " + result);
+		return result;
+	}
+
+	/**
+	 * A paused Tomcat 7 connector no longer accepts connections but the operating system
+	 * still queues them, leaving clients hanging until the container stops. Stopping the
+	 * connector would also interrupt the active requests, so close the listening socket
+	 * of its endpoint directly instead (blocking and NIO endpoints only).
+	 */
+	private void closeServerSocket(Connector connector) {
+		try {
+			Object endpoint = getField(connector.getProtocolHandler(), "endpoint");
+			Object serverSocket = getField(endpoint, "serverSock");
+			if (serverSocket == null) {
+				serverSocket = getField(endpoint, "serverSocket");
+			}
+			if (serverSocket instanceof Channel) {
+				((Channel) serverSocket).close();
+			}
+			else if (serverSocket instanceof ServerSocket) {
+				((ServerSocket) serverSocket).close();
+			}
+			else {
+				this.logger.debug("Unable to close server socket of " + connector
+						+ ", new connections will be queued until it stops");
+			}
+		}
+		catch (IOException ex) {
+			this.logger.warn("Unable to close server socket of " + connector, ex);
+		}
+	}
+
+	private Object getField(Object target, String name) {
+		Field field = (target == null ? null : ReflectionUtils.findField(
+				target.getClass(), name));
+		if (field == null) {
+			return null;
+		}
+		ReflectionUtils.makeAccessible(field);
+		return ReflectionUtils.getField(field, target);
+	}
+
 	@Override
 	public synchronized void stop() throws EmbeddedServletContainerException {
 		try {
@@ -109,4 +214,33 @@ public class TomcatEmbeddedServletContainer implements EmbeddedServletContainer
 		return this.tomcat;
 	}
 
+	/**
+	 * {@link ValveBase Valve} that reports the requests being processed to an
+	 * {@link ActiveRequestTracker}.
+	 */
+	private static class ActiveRequestsValve extends ValveBase {
+
+		private final ActiveRequestTracker tracker;
+
+		public ActiveRequestsValve(ActiveRequestTracker tracker) {
+			super(true);
+			this.tracker = tracker;
+		}
+
+		@Override
+		public void invoke(Request request, Response response) throws IOException,
+				ServletException {
+			boolean tracked = this.tracker.begin(request);
+			try {
+				getNext().invoke(request, response);
+			}
+			finally {
+				if (tracked) {
+					this.tracker.end(request);
+				}
+			}
+		}
+
+	}
+
 }
@@ -22,6 +22,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+
+import javax.servlet.ServletContext;
 
 import org.apache.catalina.Context;
 import org.apache.catalina.Host;
@@ -31,9 +34,15 @@ import org.apache.catalina.Wrapper;
 import org.apache.catalina.connector.Connector;
 import org.apache.catalina.core.StandardContext;
 import org.apache.catalina.loader.WebappLoader;
+import org.apache.catalina.session.StandardManager;
 import org.apache.catalina.startup.Tomcat;
 import org.apache.catalina.startup.Tomcat.FixContextListener;
 import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.apache.tomcat.JarScanner;
+import org.apache.tomcat.JarScannerCallback;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactory;
 import org.springframework.boot.context.embedded.EmbeddedServletContainer;
 import org.springframework.boot.context.embedded.EmbeddedServletContainerException;
@@ -41,10 +50,13 @@ import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory
 import org.springframework.boot.context.embedded.ErrorPage;
 import org.springframework.boot.context.embedded.MimeMappings;
 import org.springframework.boot.context.embedded.ServletContextInitializer;
+import org.springframework.boot.context.embedded.Ssl;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * {@link EmbeddedServletContainerFactory} that can be used to create
@@ -76,6 +88,8 @@ public class TomcatEmbeddedServletContainerFactory extends
 
 	private String protocol = DEFAULT_PROTOCOL;
 
+	private boolean fastStart = false;
+
 	/**
 	 * Create a new {@link TomcatEmbeddedServletContainerFactory} instance.
 	 */
@@ -112,8 +126,9 @@ public class TomcatEmbeddedServletContainerFactory extends
 		if (getPort() == 0) {
 			return EmbeddedServletContainer.NONE;
 		}
+		long startTime = System.currentTimeMillis();
 		File baseDir = (this.baseDirectory != null ? this.baseDirectory
-				: createTempDir("tomcat"));
+				: createWorkingDir("tomcat"));
 		tomcat.setBaseDir(baseDir.getAbsolutePath());
 		connector = new Connector(this.protocol);
 		customizeConnector(connector);
@@ -132,12 +147,15 @@ public class TomcatEmbeddedServletContainerFactory extends
 		tomcat.getEngine().setBackgroundProcessorDelay(-1);
 
 		prepareContext(tomcat.getHost(), initializers);
-		return getTomcatEmbeddedServletContainer(tomcat);
+		TomcatEmbeddedServletContainer container = getTomcatEmbeddedServletContainer(tomcat);
+		this.logger.info("Tomcat initialized in "
+				+ (System.currentTimeMillis() - startTime) + " ms");
+		return container;
 	}
 
 	protected void prepareContext(Host host, ServletContextInitializer[] initializers) {
 		File docBase = getValidDocumentRoot();
-		docBase = (docBase != null ? docBase : createTempDir("tomcat-docbase"));
+		docBase = (docBase != null ? docBase : createWorkingDir("tomcat-docbase"));
 		Context context = new StandardContext();
 		context.setName(getContextPath());
 		context.setPath(getContextPath());
@@ -151,11 +169,23 @@ public class TomcatEmbeddedServletContainerFactory extends
 		if (isRegisterDefaultServlet()) {
 			addDefaultServlet(context);
 		}
-		if (isRegisterJspServlet()
+		boolean jsp = isRegisterJspServlet()
 				&& ClassUtils.isPresent(getJspServletClassName(), getClass()
-						.getClassLoader())) {
+						.getClassLoader());
+		if (jsp) {
 			addJspServlet(context);
 		}
+		if (this.fastStart) {
+			if (!jsp) {
+				// Everything is registered through ServletContextInitializers so
+				// there is nothing to find in the jars unless JSPs need their TLDs
+				context.setJarScanner(new SkipJarScanner());
+			}
+			// The working directory is reused so don't restore sessions from it
+			StandardManager manager = new StandardManager();
+			manager.setPathname(null);
+			context.setManager(manager);
+		}
 		ServletContextInitializer[] initializersToUse = mergeInitializers(initializers);
 		configureContext(context, initializersToUse);
 		host.addChild(context);
@@ -189,9 +219,73 @@ public class TomcatEmbeddedServletContainerFactory extends
 	// Needs to be protected so it can be used by subclasses
 	protected void customizeConnector(Connector connector) {
 		connector.setPort(getPort());
-		if (connector.getProtocolHandler() instanceof AbstractProtocol
-				&& getAddress() != null) {
-			((AbstractProtocol) connector.getProtocolHandler()).setAddress(getAddress());
+		if (connector.getProtocolHandler() instanceof AbstractProtocol) {
+			AbstractProtocol protocol = (AbstractProtocol) connector.getProtocolHandler();
+			if (getAddress() != null) {
+				protocol.setAddress(getAddress());
+			}
+			if (getMaxThreads() > 0) {
+				protocol.setMaxThreads(getMaxThreads());
+			}
+			if (getAcceptCount() > 0) {
+				protocol.setBacklog(getAcceptCount());
+			}
+		}
+		if (isSslEnabled()) {
+			customizeSsl(connector, getSsl());
+		}
+	}
+
+	/**
+	 * Configure the {@link Connector} to accept SSL connections.
+	 * @param connector the connector to configure
+	 * @param ssl the SSL configuration
+	 */
+	protected void customizeSsl(Connector connector, Ssl ssl) {
+		ProtocolHandler handler = connector.getProtocolHandler();
+		Assert.state(handler instanceof AbstractHttp11JsseProtocol,
+				"To use SSL, the connector's protocol handler must be an "
+						+ "AbstractHttp11JsseProtocol subclass");
+		AbstractHttp11JsseProtocol<?> protocol = (AbstractHttp11JsseProtocol<?>) handler;
+		connector.setScheme("https");
+		connector.setSecure(true);
+		protocol.setSSLEnabled(true);
+		protocol.setSslProtocol(ssl.getProtocol());
+		protocol.setClientAuth(Boolean.toString(ssl.isNeedClientAuth()));
+		protocol.setKeystoreFile(getStoreFile(ssl.getKeyStore()));
+		protocol.setKeystorePass(ssl.getKeyStorePassword());
+		if (ssl.getKeyStoreType() != null) {
+			protocol.setKeystoreType(ssl.getKeyStoreType());
+		}
+		if (ssl.getKeyPassword() != null) {
+			protocol.setKeyPass(ssl.getKeyPassword());
+		}
+		protocol.setKeyAlias(ssl.getKeyAlias());
+		if (ssl.getTrustStore() != null) {
+			protocol.setTruststoreFile(getStoreFile(ssl.getTrustStore()));
+			protocol.setTruststorePass(ssl.getTrustStorePassword());
+			if (ssl.getTrustStoreType() != null) {
+				protocol.setTruststoreType(ssl.getTrustStoreType());
+			}
+		}
+		if (ssl.getCiphers() != null) {
+			protocol.setCiphers(StringUtils.arrayToCommaDelimitedString(ssl
+					.getCiphers()));
+		}
+		if (ssl.getEnabledProtocols() != null) {
+			protocol.setSslEnabledProtocols(StringUtils
+					.arrayToCommaDelimitedString(ssl.getEnabledProtocols()));
+		}
+		if (ssl.getSessionCacheSize() > 0) {
+			protocol.setSessionCacheSize(Integer.toString(ssl.getSessionCacheSize()));
+		}
+		if (ssl.getSessionTimeout() > 0) {
+			protocol.setSessionTimeout(Integer.toString(ssl.getSessionTimeout()));
+		}
+		if (handler instanceof Http11NioProtocol) {
+			// Every encrypted byte is copied through the SSL engine buffers so keep them
+			// off-heap (the NIO endpoint already pools them)
+			connector.setProperty("socket.directBuffer", "true");
 		}
 	}
 
@@ -242,7 +336,56 @@ public class TomcatEmbeddedServletContainerFactory extends
 	 */
 	protected TomcatEmbeddedServletContainer getTomcatEmbeddedServletContainer(
 			Tomcat tomcat) {
-		return new TomcatEmbeddedServletContainer(tomcat);
+		return new TomcatEmbeddedServletContainer(tomcat, getShutdownTimeout());
+	}
+
+	private File createWorkingDir(String prefix) {
+		// Directories in the shared temp dir can be created in advance by other users,
+		// so they are only reused in a base directory that has been configured
+		if (this.fastStart && this.baseDirectory != null) {
+			return createStableDir(prefix);
+		}
+		return createTempDir(prefix);
+	}
+
+	private File createStableDir(String prefix) {
+		File dir = new File(this.baseDirectory, prefix + "." + getPort() + "."
+				+ getApplicationKey());
+		if (!dir.isDirectory()) {
+			if (!dir.mkdirs()) {
+				throw new EmbeddedServletContainerException(
+						"Unable to create Tomcat dir " + dir, null);
+			}
+			restrictToOwner(dir);
+		}
+		if (!dir.canRead() || !dir.canWrite()) {
+			// Created by someone else, don't share it
+			this.logger.warn("Unable to reuse Tomcat dir " + dir
+					+ ", using a temporary dir instead");
+			return createTempDir(prefix);
+		}
+		return dir;
+	}
+
+	/**
+	 * Returns a key that identifies the application (by user and working directory) so
+	 * that different applications that happen to use the same port do not share stable
+	 * directories.
+	 */
+	private String getApplicationKey() {
+		String identity = System.getProperty("user.name") + ":"
+				+ new File(System.getProperty("user.dir")).getAbsolutePath();
+		return DigestUtils.md5DigestAsHex(identity.getBytes()).substring(0, 8);
+	}
+
+	private void restrictToOwner(File dir) {
+		boolean restricted = dir.setReadable(false, false)
+				&& dir.setReadable(true, true) && dir.setWritable(false, false)
+				&& dir.setWritable(true, true) && dir.setExecutable(false, false)
+				&& dir.setExecutable(true, true);
+		if (!restricted && this.logger.isDebugEnabled()) {
+			this.logger.debug("Unable to restrict permissions of " + dir);
+		}
 	}
 
 	private File createTempDir(String prefix) {
@@ -272,6 +415,28 @@ public class TomcatEmbeddedServletContainerFactory extends
 		this.baseDirectory = baseDirectory;
 	}
 
+	/**
+	 * Set if the container should start as quickly as possible. Unless JSPs are in use
+	 * jars are not scanned (for TLDs, web fragments or annotations), and instead of
+	 * creating a new temporary document root on every start, a stable one is reused so
+	 * that work files such as compiled JSPs survive a restart. Stable directories are only
+	 * used when a {@link #setBaseDirectory(File) base directory} is set (directories in
+	 * the shared system temp directory could be planted by another user). They are named
+	 * after the port and a key derived from the user and working directory, and are only
+	 * accessible by their owner. Defaults to {@code false}.
+	 * @param fastStart if fast start is enabled
+	 */
+	public void setFastStart(boolean fastStart) {
+		this.fastStart = fastStart;
+	}
+
+	/**
+	 * @return true if fast start is enabled
+	 */
+	public boolean isFastStart() {
+		return this.fastStart;
+	}
+
 	/**
 	 * The Tomcat protocol to use when create the {@link Connector}.
 	 * @see Connector#Connector(String)
@@ -342,4 +507,16 @@ public class TomcatEmbeddedServletContainerFactory extends
 		this.contextLifecycleListeners.addAll(Arrays.asList(contextLifecycleListeners));
 	}
 
+	/**
+	 * {@link JarScanner} that does not scan anything.
+	 */
+	private static class SkipJarScanner implements JarScanner {
+
+		@Override
+		public void scan(ServletContext context, ClassLoader classloader,
+				JarScannerCallback callback, Set<String> jarsToSkip) {
+		}
+
+	}
+
 }
@@ -16,6 +16,9 @@ package org.springframework.boot.context.embedded.tomcat;
  * limitations under the License.
  */
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.apache.catalina.loader.WebappClassLoader;
 
 /**
@@ -24,10 +27,19 @@ import org.apache.catalina.loader.WebappClassLoader;
  * ensure that any custom context classloader is always used (as is the case with some
  * executable archives).
  * 
+ * <p>
+ * Explicit {@link #loadClass(String, boolean) loadClass} calls are made under a per-name
+ * lock rather than a lock on the classloader itself so that threads loading different
+ * classes do not block each other. The classloader is not registered as parallel capable
+ * (Tomcat 7's {@link WebappClassLoader} is not), so loads triggered implicitly by the JVM
+ * still lock the classloader.
+ * 
  * @author Phillip Webb
  */
 public class TomcatEmbeddedWebappClassLoader extends WebappClassLoader {
 
+	private final ConcurrentMap<String, Object> classLoadingLocks = new ConcurrentHashMap<String, Object>();
+
 	public TomcatEmbeddedWebappClassLoader() {
 		super();
 	}
@@ -37,7 +49,13 @@ public class TomcatEmbeddedWebappClassLoader extends WebappClassLoader {
 	}
 
 	@Override
-	public synchronized Class<?> loadClass(String name, boolean resolve)
+	public Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		synchronized (getClassLoadingLock(name)) {
+			return doLoadClass(name, resolve);
+		}
+	}
+
+	private Class<?> doLoadClass(String name, boolean resolve)
 			throws ClassNotFoundException {
 
 		Class<?> resultClass = null;
@@ -99,6 +117,19 @@ public class TomcatEmbeddedWebappClassLoader extends WebappClassLoader {
 		}
 	}
 
+	/**
+	 * Return the lock object used when loading the named class. Overrides
+	 * {@code ClassLoader.getClassLoadingLock} on Java 7, but is also used on Java 6 where
+	 * that method does not exist.
+	 * @param className the class name
+	 * @return the lock object
+	 */
+	protected Object getClassLoadingLock(String className) {
+		Object lock = new Object();
+		Object existing = this.classLoadingLocks.putIfAbsent(className, lock);
+		return (existing == null ? lock : existing);
+	}
+
 	private void checkPackageAccess(String name) throws ClassNotFoundException {
 		if (this.securityManager != null && name.lastIndexOf('.') >= 0) {
 			try {
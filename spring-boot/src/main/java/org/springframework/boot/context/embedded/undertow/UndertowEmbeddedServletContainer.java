@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded.undertow;
+
+import javax.servlet.ServletException;
+
+import org.springframework.boot.context.embedded.EmbeddedServletContainer;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerException;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import io.undertow.Handlers;
+import io.undertow.Undertow;
+import io.undertow.Undertow.Builder;
+import io.undertow.server.HttpHandler;
+import io.undertow.servlet.api.DeploymentManager;
+
+/**
+ * {@link EmbeddedServletContainer} that can be used to control an embedded Undertow
+ * server. Usually this class should be created using the
+ * {@link UndertowEmbeddedServletContainerFactory} and not directly.
+ *
+ * <p>
+ * The servlet deployment is created (and {@code ServletContextInitializer}s called) up
+ * front, but the Undertow server itself is only built and bound to its port when the
+ * container is {@link #start() started}, so requests cannot arrive before the Spring
+ * context is ready.
+ *
+ * @author Dave Syer
+ * @see UndertowEmbeddedServletContainerFactory
+ */
+public class UndertowEmbeddedServletContainer implements EmbeddedServletContainer {
+
+	private final Builder builder;
+
+	private final DeploymentManager manager;
+
+	private final String contextPath;
+
+	private Undertow undertow;
+
+	private boolean started = false;
+
+	/**
+	 * Create a new {@link UndertowEmbeddedServletContainer} instance.
+	 * @param builder the builder used to create the Undertow server
+	 * @param manager the manager of an already deployed servlet deployment
+	 * @param contextPath the root context path
+	 */
+	public UndertowEmbeddedServletContainer(Builder builder, DeploymentManager manager,
+			String contextPath) {
+		Assert.notNull(builder, "Undertow Builder must not be null");
+		Assert.notNull(manager, "DeploymentManager must not be null");
+		this.builder = builder;
+		this.manager = manager;
+		this.contextPath = contextPath;
+	}
+
+	@Override
+	public synchronized void start() throws EmbeddedServletContainerException {
+		if (this.started) {
+			return;
+		}
+		try {
+			this.undertow = createUndertowServer();
+			this.undertow.start();
+			this.started = true;
+		}
+		catch (ServletException ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to start embedded Undertow", ex);
+		}
+		catch (RuntimeException ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to start embedded Undertow", ex);
+		}
+	}
+
+	private Undertow createUndertowServer() throws ServletException {
+		HttpHandler servletHandler = this.manager.start();
+		if (StringUtils.hasLength(this.contextPath)) {
+			this.builder.setHandler(Handlers.path().addPrefixPath(this.contextPath,
+					servletHandler));
+		}
+		else {
+			this.builder.setHandler(servletHandler);
+		}
+		return this.builder.build();
+	}
+
+	@Override
+	public synchronized void stop() throws EmbeddedServletContainerException {
+		if (!this.started) {
+			return;
+		}
+		this.started = false;
+		try {
+			this.undertow.stop();
+			this.undertow = null;
+			this.manager.stop();
+		}
+		catch (ServletException ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to stop embedded Undertow", ex);
+		}
+		catch (RuntimeException ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to stop embedded Undertow", ex);
+		}
+	}
+
+	/**
+	 * Returns access to the underlying Undertow server, or {@code null} if the container
+	 * is not running.
+	 */
+	public Undertow getUndertow() {
+		return this.undertow;
+	}
+
+	/**
+	 * Returns access to the underlying Undertow {@link DeploymentManager}.
+	 */
+	public DeploymentManager getDeploymentManager() {
+		return this.manager;
+	}
+
+}
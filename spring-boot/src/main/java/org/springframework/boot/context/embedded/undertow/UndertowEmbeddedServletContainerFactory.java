@@ -0,0 +1,387 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded.undertow;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.KeyStore;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.servlet.ServletContainerInitializer;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.EmbeddedServletContainer;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerException;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerFactory;
+import org.springframework.boot.context.embedded.ErrorPage;
+import org.springframework.boot.context.embedded.MimeMappings;
+import org.springframework.boot.context.embedded.ServletContextInitializer;
+import org.springframework.boot.context.embedded.Ssl;
+import org.springframework.context.ResourceLoaderAware;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ClassUtils;
+import org.xnio.Options;
+import org.xnio.Sequence;
+import org.xnio.SslClientAuthMode;
+
+import io.undertow.Undertow;
+import io.undertow.Undertow.Builder;
+import io.undertow.server.handlers.resource.FileResourceManager;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.servlet.Servlets;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.api.DeploymentManager;
+import io.undertow.servlet.api.MimeMapping;
+import io.undertow.servlet.api.ServletContainerInitializerInfo;
+import io.undertow.servlet.api.ServletStackTraces;
+import io.undertow.servlet.handlers.DefaultServlet;
+import io.undertow.servlet.util.ImmediateInstanceFactory;
+
+/**
+ * {@link EmbeddedServletContainerFactory} that can be used to create
+ * {@link UndertowEmbeddedServletContainer}s. Can be initialized using Spring's
+ * {@link ServletContextInitializer}s.
+ *
+ * <p>
+ * Unless explicitly configured otherwise this factory will created containers that
+ * listens for HTTP requests on port 8080. The number of XNIO IO and worker threads and
+ * the size of the buffers in the buffer pool default to the Undertow defaults (which
+ * are derived from the number of available processors and the maximum heap) unless set
+ * explicitly.
+ *
+ * @author Dave Syer
+ * @see #setPort(int)
+ * @see #setIoThreads(Integer)
+ * @see #setWorkerThreads(Integer)
+ * @see UndertowEmbeddedServletContainer
+ */
+public class UndertowEmbeddedServletContainerFactory extends
+		AbstractEmbeddedServletContainerFactory implements ResourceLoaderAware {
+
+	private static final Set<Class<?>> NO_CLASSES = Collections.emptySet();
+
+	private ResourceLoader resourceLoader;
+
+	private Integer bufferSize;
+
+	private Integer buffersPerRegion;
+
+	private Integer ioThreads;
+
+	private Integer workerThreads;
+
+	private Boolean directBuffers;
+
+	/**
+	 * Create a new {@link UndertowEmbeddedServletContainerFactory} instance.
+	 */
+	public UndertowEmbeddedServletContainerFactory() {
+		super();
+	}
+
+	/**
+	 * Create a new {@link UndertowEmbeddedServletContainerFactory} that listens for
+	 * requests using the specified port.
+	 * @param port the port to listen on
+	 */
+	public UndertowEmbeddedServletContainerFactory(int port) {
+		super(port);
+	}
+
+	/**
+	 * Create a new {@link UndertowEmbeddedServletContainerFactory} with the specified
+	 * context path and port.
+	 * @param contextPath root the context path
+	 * @param port the port to listen on
+	 */
+	public UndertowEmbeddedServletContainerFactory(String contextPath, int port) {
+		super(contextPath, port);
+	}
+
+	@Override
+	public EmbeddedServletContainer getEmbeddedServletContainer(
+			ServletContextInitializer... initializers) {
+		if (getPort() == 0) {
+			return EmbeddedServletContainer.NONE;
+		}
+		DeploymentManager manager = createDeploymentManager(initializers);
+		Builder builder = createBuilder();
+		return getUndertowEmbeddedServletContainer(builder, manager);
+	}
+
+	private Builder createBuilder() {
+		Builder builder = Undertow.builder();
+		if (this.bufferSize != null) {
+			builder.setBufferSize(this.bufferSize);
+		}
+		if (this.buffersPerRegion != null) {
+			builder.setBuffersPerRegion(this.buffersPerRegion);
+		}
+		if (this.ioThreads != null) {
+			builder.setIoThreads(this.ioThreads);
+		}
+		if (this.workerThreads != null) {
+			builder.setWorkerThreads(this.workerThreads);
+		}
+		else if (getMaxThreads() > 0) {
+			builder.setWorkerThreads(getMaxThreads());
+		}
+		if (getAcceptCount() > 0) {
+			builder.setSocketOption(Options.BACKLOG, getAcceptCount());
+		}
+		if (this.directBuffers != null) {
+			builder.setDirectBuffers(this.directBuffers);
+		}
+		String host = (getAddress() == null ? "0.0.0.0" : getAddress().getHostAddress());
+		if (isSslEnabled()) {
+			configureSsl(builder, host, getSsl());
+		}
+		else {
+			builder.addHttpListener(getPort(), host);
+		}
+		return builder;
+	}
+
+	private void configureSsl(Builder builder, String host, Ssl ssl) {
+		try {
+			SSLContext sslContext = SSLContext.getInstance(ssl.getProtocol());
+			sslContext.init(getKeyManagers(ssl), getTrustManagers(ssl), null);
+			SSLSessionContext sessionContext = sslContext.getServerSessionContext();
+			if (ssl.getSessionCacheSize() > 0) {
+				sessionContext.setSessionCacheSize(ssl.getSessionCacheSize());
+			}
+			if (ssl.getSessionTimeout() > 0) {
+				sessionContext.setSessionTimeout(ssl.getSessionTimeout());
+			}
+			builder.addHttpsListener(getPort(), host, sslContext);
+		}
+		catch (Exception ex) {
+			throw new EmbeddedServletContainerException(
+					"Unable to configure SSL for embedded Undertow", ex);
+		}
+		if (ssl.getCiphers() != null) {
+			builder.setSocketOption(Options.SSL_ENABLED_CIPHER_SUITES,
+					Sequence.of(ssl.getCiphers()));
+		}
+		if (ssl.getEnabledProtocols() != null) {
+			builder.setSocketOption(Options.SSL_ENABLED_PROTOCOLS,
+					Sequence.of(ssl.getEnabledProtocols()));
+		}
+		if (ssl.isNeedClientAuth()) {
+			builder.setSocketOption(Options.SSL_CLIENT_AUTH_MODE,
+					SslClientAuthMode.REQUIRED);
+		}
+	}
+
+	private KeyManager[] getKeyManagers(Ssl ssl) throws Exception {
+		KeyStore keyStore = loadStore(ssl.getKeyStore(), ssl.getKeyStoreType(),
+				ssl.getKeyStorePassword());
+		String password = (ssl.getKeyPassword() != null ? ssl.getKeyPassword() : ssl
+				.getKeyStorePassword());
+		KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory
+				.getDefaultAlgorithm());
+		factory.init(keyStore, (password == null ? null : password.toCharArray()));
+		return factory.getKeyManagers();
+	}
+
+	private TrustManager[] getTrustManagers(Ssl ssl) throws Exception {
+		if (ssl.getTrustStore() == null) {
+			return null;
+		}
+		KeyStore trustStore = loadStore(ssl.getTrustStore(), ssl.getTrustStoreType(),
+				ssl.getTrustStorePassword());
+		TrustManagerFactory factory = TrustManagerFactory
+				.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+		factory.init(trustStore);
+		return factory.getTrustManagers();
+	}
+
+	private KeyStore loadStore(String location, String type, String password)
+			throws Exception {
+		KeyStore store = KeyStore.getInstance(type != null ? type : KeyStore
+				.getDefaultType());
+		InputStream stream = new URL(getStoreUrl(location)).openStream();
+		try {
+			store.load(stream, (password == null ? null : password.toCharArray()));
+		}
+		finally {
+			stream.close();
+		}
+		return store;
+	}
+
+	private DeploymentManager createDeploymentManager(
+			ServletContextInitializer... initializers) {
+		DeploymentInfo deployment = Servlets.deployment();
+		ServletContextInitializer[] initializersToUse = mergeInitializers(initializers);
+		ServletContainerInitializer initializer = new Initializer(initializersToUse);
+		deployment.addServletContainerInitalizer(new ServletContainerInitializerInfo(
+				Initializer.class, new ImmediateInstanceFactory<ServletContainerInitializer>(
+						initializer), NO_CLASSES));
+		deployment.setClassLoader(this.resourceLoader != null ? this.resourceLoader
+				.getClassLoader() : ClassUtils.getDefaultClassLoader());
+		deployment.setContextPath(getContextPath());
+		deployment.setDeploymentName("spring-boot");
+		deployment.setServletStackTraces(ServletStackTraces.NONE);
+		deployment.setResourceManager(getDocumentRootResourceManager());
+		if (isRegisterDefaultServlet()) {
+			deployment.addServlet(Servlets.servlet("default", DefaultServlet.class)
+					.setLoadOnStartup(1));
+		}
+		for (ErrorPage errorPage : getErrorPages()) {
+			deployment.addErrorPage(getUndertowErrorPage(errorPage));
+		}
+		for (MimeMappings.Mapping mapping : getMimeMappings()) {
+			deployment.addMimeMapping(new MimeMapping(mapping.getExtension(), mapping
+					.getMimeType()));
+		}
+		postProcessDeploymentInfo(deployment);
+		DeploymentManager manager = Servlets.defaultContainer().addDeployment(deployment);
+		manager.deploy();
+		int sessionTimeout = (getSessionTimeout() > 0 ? getSessionTimeout() : -1);
+		manager.getDeployment().getSessionManager()
+				.setDefaultSessionTimeout(sessionTimeout);
+		return manager;
+	}
+
+	private ResourceManager getDocumentRootResourceManager() {
+		File root = getValidDocumentRoot();
+		if (root != null && root.isDirectory()) {
+			return new FileResourceManager(root, 0);
+		}
+		return ResourceManager.EMPTY_RESOURCE_MANAGER;
+	}
+
+	private io.undertow.servlet.api.ErrorPage getUndertowErrorPage(ErrorPage errorPage) {
+		if (errorPage.getStatus() != null) {
+			return new io.undertow.servlet.api.ErrorPage(errorPage.getPath(),
+					errorPage.getStatusCode());
+		}
+		if (errorPage.getException() != null) {
+			return new io.undertow.servlet.api.ErrorPage(errorPage.getPath(),
+					errorPage.getException());
+		}
+		return new io.undertow.servlet.api.ErrorPage(errorPage.getPath());
+	}
+
+	/**
+	 * Post process the Undertow {@link DeploymentInfo} before it is deployed. Subclasses
+	 * can override this method to apply additional processing to the deployment.
+	 * @param deploymentInfo the Undertow {@link DeploymentInfo}
+	 */
+	protected void postProcessDeploymentInfo(DeploymentInfo deploymentInfo) {
+	}
+
+	/**
+	 * Factory method called to create the {@link UndertowEmbeddedServletContainer}.
+	 * Subclasses can override this method to return a different
+	 * {@link UndertowEmbeddedServletContainer} or apply additional processing to the
+	 * Undertow builder.
+	 * @param builder the builder that will be used to create the Undertow server
+	 * @param manager the deployment manager
+	 * @return a new {@link UndertowEmbeddedServletContainer} instance
+	 */
+	protected UndertowEmbeddedServletContainer getUndertowEmbeddedServletContainer(
+			Builder builder, DeploymentManager manager) {
+		return new UndertowEmbeddedServletContainer(builder, manager, getContextPath());
+	}
+
+	@Override
+	public void setResourceLoader(ResourceLoader resourceLoader) {
+		this.resourceLoader = resourceLoader;
+	}
+
+	/**
+	 * Set the size (in bytes) of each buffer in the buffer pool.
+	 * @param bufferSize the buffer size or {@code null} to use the Undertow default
+	 */
+	public void setBufferSize(Integer bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Set the number of buffers allocated together as a single region of the buffer
+	 * pool.
+	 * @param buffersPerRegion the buffers per region or {@code null} to use the Undertow
+	 * default
+	 */
+	public void setBuffersPerRegion(Integer buffersPerRegion) {
+		this.buffersPerRegion = buffersPerRegion;
+	}
+
+	/**
+	 * Set the number of XNIO IO threads (the threads that perform non-blocking reads and
+	 * writes).
+	 * @param ioThreads the number of IO threads or {@code null} to use the Undertow
+	 * default
+	 */
+	public void setIoThreads(Integer ioThreads) {
+		this.ioThreads = ioThreads;
+	}
+
+	/**
+	 * Set the number of XNIO worker threads (the threads that run blocking servlet
+	 * requests).
+	 * @param workerThreads the number of worker threads or {@code null} to use the
+	 * Undertow default
+	 */
+	public void setWorkerThreads(Integer workerThreads) {
+		this.workerThreads = workerThreads;
+	}
+
+	/**
+	 * Set if the buffer pool should allocate direct (off-heap) buffers.
+	 * @param directBuffers if direct buffers should be used or {@code null} to use the
+	 * Undertow default
+	 */
+	public void setDirectBuffers(Boolean directBuffers) {
+		this.directBuffers = directBuffers;
+	}
+
+	/**
+	 * {@link ServletContainerInitializer} to initialize {@link ServletContextInitializer
+	 * ServletContextInitializers}.
+	 */
+	private static class Initializer implements ServletContainerInitializer {
+
+		private final ServletContextInitializer[] initializers;
+
+		public Initializer(ServletContextInitializer[] initializers) {
+			this.initializers = initializers;
+		}
+
+		@Override
+		public void onStartup(Set<Class<?>> classes, ServletContext servletContext)
+				throws ServletException {
+			for (ServletContextInitializer initializer : this.initializers) {
+				initializer.onStartup(servletContext);
+			}
+		}
+
+	}
+
+}
@@ -16,12 +16,20 @@
 
 package org.springframework.boot.context.initializer;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.PropertyValues;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.SpringApplicationInitializer;
@@ -29,7 +37,10 @@ import org.springframework.boot.bind.PropertySourcesPropertyValues;
 import org.springframework.boot.bind.RelaxedDataBinder;
 import org.springframework.boot.config.PropertiesPropertySourceLoader;
 import org.springframework.boot.config.PropertySourceLoader;
+import org.springframework.boot.config.SnapshotPropertySource;
 import org.springframework.boot.config.YamlPropertySourceLoader;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesChangedEvent;
 import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.EnvironmentAware;
@@ -38,6 +49,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.env.CommandLinePropertySource;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertySource;
@@ -45,6 +57,8 @@ import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -73,6 +87,23 @@ import org.springframework.util.StringUtils;
  * alternatively the 'spring.config.location' property can be used to specify an exact
  * resource location.
  * 
+ * <p>
+ * If the 'spring.config.watch' property is {@code true} files that were loaded from the
+ * file system will be watched for changes once the context has been refreshed. Changed
+ * files are reloaded and any singleton {@link ConfigurationProperties} beans that are
+ * affected are rebound (see {@link ConfigurationPropertiesChangedEvent}). Rebinding only
+ * sets the properties that are present, so removing a property from a file does not
+ * reset the corresponding field.
+ * 
+ * <p>
+ * The 'spring.config.snapshot' property can be used to specify a file where the loaded
+ * properties are stored in a pre-flattened binary form (see
+ * {@link SnapshotPropertySource}). On subsequent starts the snapshot is used instead of
+ * parsing the files again, provided that the files it was created from are unchanged.
+ * Each loaded file is stored separately (in files with the snapshot name followed by an
+ * index) so that property source names and precedence are the same as when the files
+ * are parsed, and the original files can still be watched.
+ * 
  * @author Dave Syer
  * @author Phillip Webb
  */
@@ -82,6 +113,21 @@ public class ConfigFileApplicationContextInitializer implements
 
 	private static final String LOCATION_VARIABLE = "${spring.config.location}";
 
+	private static final String WATCH_PROPERTY = "spring.config.watch";
+
+	private static final String SNAPSHOT_PROPERTY = "spring.config.snapshot";
+
+	private static final String SNAPSHOT_PROPERTY_SOURCE_NAME = "applicationConfigSnapshot";
+
+	private static final String SNAPSHOT_PROFILES = "profiles";
+
+	private static final String SNAPSHOT_SOURCES = "sources";
+
+	private static final String ACTIVE_PROFILES_PROPERTY = "spring.profiles.active";
+
+	private static Log logger = LogFactory
+			.getLog(ConfigFileApplicationContextInitializer.class);
+
 	private static final String COMMAND_LINE_PROPERTY_SOURCE_NAME = CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME;
 
 	private Environment environment;
@@ -95,6 +141,10 @@ public class ConfigFileApplicationContextInitializer implements
 
 	private Map<String, PropertySource<?>> cached = new HashMap<String, PropertySource<?>>();
 
+	private Map<String, Resource> loadedResources = new LinkedHashMap<String, Resource>();
+
+	private Map<String, String> loadedLocations = new LinkedHashMap<String, String>();
+
 	private ConversionService conversionService = new DefaultConversionService();
 
 	/**
@@ -111,7 +161,7 @@ public class ConfigFileApplicationContextInitializer implements
 			load(environment, new DefaultResourceLoader());
 			// Set bean properties from the early environment
 			PropertyValues propertyValues = new PropertySourcesPropertyValues(
-					environment.getPropertySources());
+					environment.getPropertySources(), "spring.main");
 			RelaxedDataBinder binder = new RelaxedDataBinder(springApplication,
 					"spring.main");
 			binder.setConversionService(this.conversionService);
@@ -121,10 +171,30 @@ public class ConfigFileApplicationContextInitializer implements
 
 	@Override
 	public void initialize(ConfigurableApplicationContext applicationContext) {
-		load(applicationContext.getEnvironment(), applicationContext);
+		ConfigurableEnvironment environment = applicationContext.getEnvironment();
+		load(environment, applicationContext);
+		if (environment.getProperty(WATCH_PROPERTY, Boolean.class, false)) {
+			applicationContext.addApplicationListener(new ConfigFileWatcher(this,
+					applicationContext, this.loadedResources));
+		}
 	}
 
 	private void load(ConfigurableEnvironment environment, ResourceLoader resourceLoader) {
+		String snapshotLocation = environment.getProperty(SNAPSHOT_PROPERTY);
+		if (!StringUtils.hasLength(snapshotLocation)) {
+			loadFiles(environment, resourceLoader);
+			return;
+		}
+		File snapshotFile = new File(snapshotLocation);
+		String[] initialProfiles = environment.getActiveProfiles();
+		if (!loadSnapshot(environment, resourceLoader, snapshotFile, initialProfiles)) {
+			loadFiles(environment, resourceLoader);
+			writeSnapshot(environment, resourceLoader, snapshotFile, initialProfiles);
+		}
+	}
+
+	private void loadFiles(ConfigurableEnvironment environment,
+			ResourceLoader resourceLoader) {
 
 		List<String> candidates = getCandidateLocations();
 
@@ -156,36 +226,42 @@ public class ConfigFileApplicationContextInitializer implements
 		return candidates;
 	}
 
-	private void load(ConfigurableEnvironment environment, ResourceLoader resourceLoader,
-			String location, String profile) {
+	private String getLocation(ConfigurableEnvironment environment, String location,
+			String profile) {
 		location = environment.resolvePlaceholders(location);
 		String suffix = "." + StringUtils.getFilenameExtension(location);
 
 		if (StringUtils.hasLength(profile)) {
 			location = location.replace(suffix, "-" + profile + suffix);
 		}
+		return location;
+	}
 
-		List<PropertySourceLoader> loaders = new ArrayList<PropertySourceLoader>();
-		loaders.add(new PropertiesPropertySourceLoader());
-		if (ClassUtils.isPresent("org.yaml.snakeyaml.Yaml", null)) {
-			loaders.add(YamlPropertySourceLoader.springProfileAwareLoader(environment
-					.getActiveProfiles()));
-		}
-
+	private void load(ConfigurableEnvironment environment, ResourceLoader resourceLoader,
+			String location, String profile) {
+		location = getLocation(environment, location, profile);
 		Resource resource = resourceLoader.getResource(location);
-		PropertySource<?> propertySource = getPropertySource(resource, loaders);
+		PropertySource<?> propertySource = getPropertySource(resource,
+				getLoaders(environment));
 		if (propertySource == null) {
 			return;
 		}
-		if (propertySource.containsProperty("spring.profiles.active")) {
+		if (propertySource.containsProperty(ACTIVE_PROFILES_PROPERTY)) {
 			Set<String> profiles = StringUtils.commaDelimitedListToSet(propertySource
-					.getProperty("spring.profiles.active").toString());
+					.getProperty(ACTIVE_PROFILES_PROPERTY).toString());
 			for (String active : profiles) {
 				// allow document with no profile to set the active one
 				environment.addActiveProfile(active);
 			}
 
 		}
+		addPropertySource(environment, propertySource);
+		this.loadedResources.put(propertySource.getName(), resource);
+		this.loadedLocations.put(propertySource.getName(), location);
+	}
+
+	private void addPropertySource(ConfigurableEnvironment environment,
+			PropertySource<?> propertySource) {
 		MutablePropertySources propertySources = environment.getPropertySources();
 		if (propertySources.contains(COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
 			propertySources.addAfter(COMMAND_LINE_PROPERTY_SOURCE_NAME, propertySource);
@@ -193,7 +269,154 @@ public class ConfigFileApplicationContextInitializer implements
 		else {
 			propertySources.addFirst(propertySource);
 		}
+	}
 
+	private boolean loadSnapshot(ConfigurableEnvironment environment,
+			ResourceLoader resourceLoader, File file, String[] initialProfiles) {
+		SnapshotPropertySource manifest = SnapshotPropertySource.load(
+				SNAPSHOT_PROPERTY_SOURCE_NAME, file);
+		if (manifest == null || manifest.getProperty(SNAPSHOT_SOURCES) == null) {
+			return false;
+		}
+		Set<String> profiles = new LinkedHashSet<String>(Arrays.asList(initialProfiles));
+		Object active = manifest.getProperty(SNAPSHOT_PROFILES);
+		if (active != null) {
+			profiles.addAll(StringUtils.commaDelimitedListToSet(active.toString()));
+		}
+		String fingerprint;
+		try {
+			fingerprint = getFingerprint(environment, resourceLoader, initialProfiles,
+					profiles);
+		}
+		catch (IOException ex) {
+			return false;
+		}
+		if (!fingerprint.equals(manifest.getFingerprint())) {
+			logger.debug("Ignoring out of date config snapshot " + file);
+			return false;
+		}
+		int count = Integer.parseInt(manifest.getProperty(SNAPSHOT_SOURCES).toString());
+		List<SnapshotPropertySource> sources = new ArrayList<SnapshotPropertySource>();
+		for (int i = 0; i < count; i++) {
+			String name = (String) manifest.getProperty(getSnapshotKey(i, "name"));
+			SnapshotPropertySource source = SnapshotPropertySource.load(name,
+					getSnapshotFile(file, i));
+			if (source == null || !fingerprint.equals(source.getFingerprint())) {
+				logger.debug("Ignoring incomplete config snapshot " + file);
+				return false;
+			}
+			sources.add(source);
+		}
+		for (String profile : profiles) {
+			environment.addActiveProfile(profile);
+		}
+		// Sources are stored in order of precedence so add the lowest first
+		for (int i = count - 1; i >= 0; i--) {
+			SnapshotPropertySource source = sources.get(i);
+			String location = (String) manifest.getProperty(getSnapshotKey(i,
+					"location"));
+			addPropertySource(environment, source);
+			this.loadedLocations.put(source.getName(), location);
+			this.loadedResources.put(source.getName(),
+					resourceLoader.getResource(location));
+		}
+		return true;
+	}
+
+	private void writeSnapshot(ConfigurableEnvironment environment,
+			ResourceLoader resourceLoader, File file, String[] initialProfiles) {
+		List<EnumerablePropertySource<?>> sources = new ArrayList<EnumerablePropertySource<?>>();
+		for (PropertySource<?> source : environment.getPropertySources()) {
+			if (this.loadedLocations.containsKey(source.getName())) {
+				if (!(source instanceof EnumerablePropertySource)) {
+					logger.debug("Not writing config snapshot, " + source.getName()
+							+ " cannot be enumerated");
+					return;
+				}
+				sources.add((EnumerablePropertySource<?>) source);
+			}
+		}
+		try {
+			String fingerprint = getFingerprint(environment, resourceLoader,
+					initialProfiles, Arrays.asList(environment.getActiveProfiles()));
+			Map<String, String> manifest = new HashMap<String, String>();
+			manifest.put(SNAPSHOT_PROFILES, StringUtils
+					.arrayToCommaDelimitedString(environment.getActiveProfiles()));
+			manifest.put(SNAPSHOT_SOURCES, String.valueOf(sources.size()));
+			for (int i = 0; i < sources.size(); i++) {
+				EnumerablePropertySource<?> source = sources.get(i);
+				Map<String, String> properties = new HashMap<String, String>();
+				for (String name : source.getPropertyNames()) {
+					Object value = source.getProperty(name);
+					if (value != null) {
+						properties.put(name, value.toString());
+					}
+				}
+				SnapshotPropertySource.write(getSnapshotFile(file, i), properties,
+						fingerprint);
+				manifest.put(getSnapshotKey(i, "name"), source.getName());
+				manifest.put(getSnapshotKey(i, "location"),
+						this.loadedLocations.get(source.getName()));
+			}
+			// Written last so that a complete manifest never refers to missing sources
+			SnapshotPropertySource.write(file, manifest, fingerprint);
+		}
+		catch (IOException ex) {
+			logger.warn("Unable to write config snapshot to " + file, ex);
+		}
+	}
+
+	private File getSnapshotFile(File file, int index) {
+		return new File(file.getPath() + "." + index);
+	}
+
+	private String getSnapshotKey(int index, String name) {
+		return "source." + index + "." + name;
+	}
+
+	private String getFingerprint(ConfigurableEnvironment environment,
+			ResourceLoader resourceLoader, String[] initialProfiles,
+			Collection<String> profiles) throws IOException {
+		StringBuilder fingerprint = new StringBuilder(
+				StringUtils.arrayToCommaDelimitedString(initialProfiles));
+		List<String> allProfiles = new ArrayList<String>();
+		allProfiles.add(null);
+		allProfiles.addAll(profiles);
+		for (String profile : allProfiles) {
+			for (String candidate : getCandidateLocations()) {
+				Resource resource = resourceLoader.getResource(getLocation(environment,
+						candidate, profile));
+				if (resource.exists()) {
+					byte[] content = FileCopyUtils.copyToByteArray(resource
+							.getInputStream());
+					fingerprint.append(";").append(resource.getDescription());
+					fingerprint.append("=").append(DigestUtils.md5DigestAsHex(content));
+				}
+			}
+		}
+		return DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes("UTF-8"));
+	}
+
+	/**
+	 * Reload a previously loaded resource, bypassing the cache.
+	 * @param environment the environment
+	 * @param resource the resource to reload
+	 * @return the reloaded property source or {@code null} if the resource no longer
+	 * exists
+	 */
+	PropertySource<?> reload(ConfigurableEnvironment environment, Resource resource) {
+		this.cached.remove(resource.getDescription());
+		return getPropertySource(resource, getLoaders(environment));
+	}
+
+	private List<PropertySourceLoader> getLoaders(ConfigurableEnvironment environment) {
+		List<PropertySourceLoader> loaders = new ArrayList<PropertySourceLoader>();
+		loaders.add(new PropertiesPropertySourceLoader());
+		if (ClassUtils.isPresent("org.yaml.snakeyaml.Yaml", null)) {
+			loaders.add(YamlPropertySourceLoader.springProfileAwareLoader(environment
+					.getActiveProfiles()));
+		}
+		return loaders;
 	}
 
 	private PropertySource<?> getPropertySource(Resource resource,
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.initializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.boot.bind.PropertySourcesPropertyValues;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBindingPostProcessor;
+import org.springframework.boot.context.properties.ConfigurationPropertiesChangedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Watches the files loaded by {@link ConfigFileApplicationContextInitializer} and
+ * reloads them when they change. Changes are debounced so that several writes in quick
+ * succession (e.g. from an editor) only trigger a single reload. Only
+ * {@link org.springframework.boot.context.properties.ConfigurationProperties} beans
+ * whose prefix matches a changed property are rebound, after which a
+ * {@link ConfigurationPropertiesChangedEvent} is published.
+ * 
+ * <p>
+ * Reloading happens on a background "config-file-watcher" thread, while the rebound
+ * beans may be in use by other threads. Each bean is rebound while holding its own
+ * monitor (see {@link ConfigurationPropertiesBindingPostProcessor#rebind}) and the event
+ * is published through the context's
+ * {@link org.springframework.context.event.ApplicationEventMulticaster}, so listeners
+ * run on the watcher thread unless the multicaster is configured with an executor.
+ * 
+ * @author Dave Syer
+ */
+class ConfigFileWatcher implements ApplicationListener<ApplicationContextEvent>,
+		Runnable {
+
+	private static final long POLL_INTERVAL = 1000L;
+
+	private static final long QUIET_PERIOD = 500L;
+
+	private static Log logger = LogFactory.getLog(ConfigFileWatcher.class);
+
+	private final ConfigFileApplicationContextInitializer initializer;
+
+	private final ConfigurableApplicationContext context;
+
+	private final Map<String, Resource> resources;
+
+	private final Map<String, Long> lastModified = new HashMap<String, Long>();
+
+	private final Set<String> pending = new LinkedHashSet<String>();
+
+	private long lastChange;
+
+	private volatile Thread thread;
+
+	public ConfigFileWatcher(ConfigFileApplicationContextInitializer initializer,
+			ConfigurableApplicationContext context, Map<String, Resource> resources) {
+		this.initializer = initializer;
+		this.context = context;
+		this.resources = resources;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationContextEvent event) {
+		if (event.getApplicationContext() != this.context) {
+			return;
+		}
+		if (event instanceof ContextRefreshedEvent) {
+			start();
+		}
+		else if (event instanceof ContextClosedEvent) {
+			stop();
+		}
+	}
+
+	private synchronized void start() {
+		if (this.thread != null) {
+			return;
+		}
+		for (Map.Entry<String, Resource> entry : this.resources.entrySet()) {
+			File file = getFile(entry.getValue());
+			if (file != null) {
+				this.lastModified.put(entry.getKey(), file.lastModified());
+			}
+		}
+		if (this.lastModified.isEmpty()) {
+			logger.debug("No config files found to watch");
+			return;
+		}
+		logger.info("Watching config files " + this.lastModified.keySet());
+		Thread thread = new Thread(this, "config-file-watcher");
+		thread.setDaemon(true);
+		this.thread = thread;
+		thread.start();
+	}
+
+	private synchronized void stop() {
+		Thread thread = this.thread;
+		this.thread = null;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	@Override
+	public void run() {
+		while (this.thread == Thread.currentThread()) {
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			try {
+				poll();
+			}
+			catch (Exception ex) {
+				logger.warn("Could not reload config files " + this.pending, ex);
+				this.pending.clear();
+			}
+		}
+	}
+
+	private void poll() {
+		long now = System.currentTimeMillis();
+		Set<String> changed = getChangedFiles();
+		if (!changed.isEmpty()) {
+			this.pending.addAll(changed);
+			this.lastChange = now;
+		}
+		else if (!this.pending.isEmpty() && now - this.lastChange >= QUIET_PERIOD) {
+			reload(this.pending);
+			this.pending.clear();
+		}
+	}
+
+	private Set<String> getChangedFiles() {
+		Set<String> changed = new LinkedHashSet<String>();
+		for (Map.Entry<String, Long> entry : this.lastModified.entrySet()) {
+			File file = getFile(this.resources.get(entry.getKey()));
+			long modified = (file == null ? 0L : file.lastModified());
+			if (modified != entry.getValue()) {
+				entry.setValue(modified);
+				changed.add(entry.getKey());
+			}
+		}
+		return changed;
+	}
+
+	private void reload(Set<String> names) {
+		ConfigurableEnvironment environment = this.context.getEnvironment();
+		MutablePropertySources propertySources = environment.getPropertySources();
+		PropertyValues before = new PropertySourcesPropertyValues(propertySources);
+		for (String name : names) {
+			PropertySource<?> propertySource = this.initializer.reload(environment,
+					this.resources.get(name));
+			if (propertySource == null) {
+				propertySources.remove(name);
+			}
+			else if (propertySources.contains(name)) {
+				propertySources.replace(name, propertySource);
+			}
+		}
+		PropertyValues after = new PropertySourcesPropertyValues(propertySources);
+		Set<String> changedKeys = getChangedKeys(before, after);
+		if (changedKeys.isEmpty()) {
+			return;
+		}
+		Set<String> beanNames = new LinkedHashSet<String>();
+		for (ConfigurationPropertiesBindingPostProcessor binder : this.context
+				.getBeanFactory()
+				.getBeansOfType(ConfigurationPropertiesBindingPostProcessor.class)
+				.values()) {
+			beanNames.addAll(binder.rebind(changedKeys));
+		}
+		logger.info("Reloaded config files " + names + " changing " + changedKeys
+				+ " and rebinding " + beanNames);
+		this.context.getBean(
+				AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+				ApplicationEventMulticaster.class).multicastEvent(
+				new ConfigurationPropertiesChangedEvent(this, changedKeys, beanNames));
+	}
+
+	private Set<String> getChangedKeys(PropertyValues before, PropertyValues after) {
+		Set<String> changedKeys = new LinkedHashSet<String>();
+		for (PropertyValue value : after.changesSince(before).getPropertyValues()) {
+			changedKeys.add(value.getName());
+		}
+		for (PropertyValue value : before.getPropertyValues()) {
+			if (!after.contains(value.getName())) {
+				changedKeys.add(value.getName());
+			}
+		}
+		return changedKeys;
+	}
+
+	private File getFile(Resource resource) {
+		try {
+			return resource.getFile();
+		}
+		catch (IOException ex) {
+			// Not a file system resource (e.g. nested inside a jar)
+			return null;
+		}
+	}
+
+}
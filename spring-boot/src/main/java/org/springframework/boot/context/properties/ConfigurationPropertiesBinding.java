@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties;
+
+/**
+ * Diagnostic information about the binding of a single {@link ConfigurationProperties}
+ * bean, recorded by the {@link ConfigurationPropertiesBindingPostProcessor}.
+ * 
+ * @author Dave Syer
+ */
+public class ConfigurationPropertiesBinding {
+
+	private static final double NANOS_PER_MILLI = 1000000.0;
+
+	private final String beanName;
+
+	private final String prefix;
+
+	private final Class<?> type;
+
+	private final long bindTime;
+
+	private final long validateTime;
+
+	ConfigurationPropertiesBinding(String beanName, String prefix, Class<?> type,
+			long bindTime, long validateTime) {
+		this.beanName = beanName;
+		this.prefix = (prefix == null ? "" : prefix);
+		this.type = type;
+		this.bindTime = bindTime;
+		this.validateTime = validateTime;
+	}
+
+	public String getBeanName() {
+		return this.beanName;
+	}
+
+	/**
+	 * @return the property prefix (empty if all properties are bound)
+	 */
+	public String getPrefix() {
+		return this.prefix;
+	}
+
+	public Class<?> getType() {
+		return this.type;
+	}
+
+	/**
+	 * @return the time spent binding properties in milliseconds
+	 */
+	public double getBindTime() {
+		return this.bindTime / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the time spent validating (including any wait for the validator to be
+	 * created) in milliseconds
+	 */
+	public double getValidateTime() {
+		return this.validateTime / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigurationPropertiesBinding [beanName=" + this.beanName
+				+ ", prefix=" + this.prefix + ", bindTime=" + getBindTime()
+				+ ", validateTime=" + getValidateTime() + "]";
+	}
+
+}
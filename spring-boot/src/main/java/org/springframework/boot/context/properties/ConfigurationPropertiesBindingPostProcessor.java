@@ -16,6 +16,28 @@
 
 package org.springframework.boot.context.properties;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanCreationException;
@@ -50,7 +72,9 @@ import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
@@ -58,6 +82,13 @@ import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
  * {@link BeanPostProcessor} to bind {@link PropertySources} to beans annotated with
  * {@link ConfigurationProperties}.
  * 
+ * <p>
+ * If no validator is provided and JSR-303 is available, a
+ * {@link LocalValidatorFactoryBean} is created in a background thread so that its
+ * (relatively expensive) bootstrap does not delay startup. Binding only waits for it
+ * when a bean that actually declares constraints needs to be validated. Timings for
+ * each bound bean are available from {@link #getBindings()}.
+ * 
  * @author Dave Syer
  * @author Phillip Webb
  */
@@ -69,12 +100,30 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 
 	private static final String VALIDATOR_CLASS = "javax.validation.Validator";
 
+	private static final String CONSTRAINT_PACKAGE = "javax.validation.";
+
+	private static final String CONSTRAINT_ANNOTATION = "javax.validation.Constraint";
+
+	private static final long VALIDATOR_DESTROY_TIMEOUT = 5;
+
+	private static final String WATCH_PROPERTY = "spring.config.watch";
+
+	private static Log logger = LogFactory
+			.getLog(ConfigurationPropertiesBindingPostProcessor.class);
+
 	private PropertySources propertySources;
 
 	private Validator validator;
 
 	private boolean ownedValidator = false;
 
+	private Future<Validator> ownedValidatorFuture;
+
+	private final Map<Class<?>, Boolean> constrainedTypes = new ConcurrentHashMap<Class<?>, Boolean>();
+
+	private final Map<String, ConfigurationPropertiesBinding> bindings = Collections
+			.synchronizedMap(new LinkedHashMap<String, ConfigurationPropertiesBinding>());
+
 	private ConversionService conversionService;
 
 	private DefaultConversionService defaultConversionService = new DefaultConversionService();
@@ -91,6 +140,12 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 
 	private ApplicationContext applicationContext;
 
+	private boolean deducedPropertySources = false;
+
+	private boolean rebindable = false;
+
+	private final Map<String, Object> boundBeans = new ConcurrentHashMap<String, Object>();
+
 	/**
 	 * @param propertySources
 	 */
@@ -142,18 +197,14 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 
 		if (this.propertySources == null) {
 			this.propertySources = deducePropertySources();
+			this.deducedPropertySources = true;
 		}
 
 		if (this.validator == null) {
 			this.validator = getOptionalBean(VALIDATOR_BEAN_NAME, Validator.class);
 			if (this.validator == null
 					&& ClassUtils.isPresent(VALIDATOR_CLASS, this.beanClassLoader)) {
-				LocalValidatorFactoryBean validatorToUse = (LocalValidatorFactoryBean) ClassUtils
-						.forName(LocalValidatorFactoryBean.class.getName(),
-								this.beanClassLoader).newInstance();
-				validatorToUse.setApplicationContext(this.applicationContext);
-				validatorToUse.afterPropertiesSet();
-				this.validator = validatorToUse;
+				this.ownedValidatorFuture = createOwnedValidator();
 				this.ownedValidator = true;
 			}
 		}
@@ -163,13 +214,73 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 					ConfigurableApplicationContext.CONVERSION_SERVICE_BEAN_NAME,
 					ConversionService.class);
 		}
+
+		// Beans are only remembered for rebinding when config files are watched
+		this.rebindable = this.environment.getProperty(WATCH_PROPERTY, Boolean.class,
+				false);
 	}
 
 	@Override
 	public void destroy() throws Exception {
+		this.boundBeans.clear();
 		if (this.ownedValidator) {
-			((DisposableBean) this.validator).destroy();
+			Validator validator = getOwnedValidatorForDestroy();
+			if (validator instanceof DisposableBean) {
+				((DisposableBean) validator).destroy();
+			}
+		}
+	}
+
+	private Validator getOwnedValidatorForDestroy() {
+		try {
+			return this.ownedValidatorFuture.get(VALIDATOR_DESTROY_TIMEOUT,
+					TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			this.ownedValidatorFuture.cancel(true);
 		}
+		catch (TimeoutException ex) {
+			logger.warn("Validator not created after " + VALIDATOR_DESTROY_TIMEOUT
+					+ " seconds, cancelling");
+			this.ownedValidatorFuture.cancel(true);
+		}
+		catch (ExecutionException ex) {
+			logger.debug("Validator could not be created", ex.getCause());
+		}
+		return null;
+	}
+
+	/**
+	 * Return diagnostic information about the beans that have been bound, in the order
+	 * that they were bound.
+	 * @return the bindings
+	 */
+	public List<ConfigurationPropertiesBinding> getBindings() {
+		synchronized (this.bindings) {
+			return new ArrayList<ConfigurationPropertiesBinding>(this.bindings.values());
+		}
+	}
+
+	private Future<Validator> createOwnedValidator() {
+		final ClassLoader classLoader = this.beanClassLoader;
+		final ApplicationContext applicationContext = this.applicationContext;
+		FutureTask<Validator> task = new FutureTask<Validator>(new Callable<Validator>() {
+			@Override
+			public Validator call() throws Exception {
+				LocalValidatorFactoryBean validator = (LocalValidatorFactoryBean) ClassUtils
+						.forName(LocalValidatorFactoryBean.class.getName(), classLoader)
+						.newInstance();
+				validator.setApplicationContext(applicationContext);
+				validator.afterPropertiesSet();
+				return validator;
+			}
+		});
+		Thread thread = new Thread(task, "configuration-properties-validator");
+		thread.setDaemon(true);
+		thread.setContextClassLoader(classLoader);
+		thread.start();
+		return task;
 	}
 
 	private PropertySources deducePropertySources() {
@@ -262,10 +373,76 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 				bean.getClass(), ConfigurationProperties.class);
 		if (annotation != null || bean instanceof ConfigurationPropertiesHolder) {
 			postProcessAfterInitialization(bean, beanName, annotation);
+			if (this.rebindable && isSingleton(beanName)) {
+				this.boundBeans.put(beanName, bean);
+			}
 		}
 		return bean;
 	}
 
+	private boolean isSingleton(String beanName) {
+		// Other scopes create new instances that would never be released
+		return this.beanFactory != null && this.beanFactory.containsBean(beanName)
+				&& this.beanFactory.isSingleton(beanName);
+	}
+
+	/**
+	 * Rebind any previously bound beans whose prefix matches at least one of the
+	 * specified property names. Beans without a prefix are always rebound. Each bean is
+	 * rebound while holding its monitor, so beans that are used concurrently can
+	 * synchronize their accessors to avoid seeing a partially rebound state.
+	 * <p>
+	 * Only singleton beans bound while {@code spring.config.watch=true} can be rebound.
+	 * Rebinding only sets the properties that are present, so a field whose property was
+	 * removed keeps its previous value rather than reverting to its default.
+	 * @param changedKeys the names of the properties that have changed
+	 * @return the names of the beans that were rebound
+	 */
+	public Set<String> rebind(Collection<String> changedKeys) {
+		Set<String> rebound = new LinkedHashSet<String>();
+		if (changedKeys.isEmpty()) {
+			return rebound;
+		}
+		if (this.deducedPropertySources) {
+			// Property sources may have been replaced since we last looked
+			this.propertySources = deducePropertySources();
+		}
+		for (Map.Entry<String, Object> entry : this.boundBeans.entrySet()) {
+			Object bean = entry.getValue();
+			ConfigurationProperties annotation = AnnotationUtils.findAnnotation(
+					bean.getClass(), ConfigurationProperties.class);
+			if (matchesAny(getTargetName(annotation), changedKeys)) {
+				Object target = (bean instanceof ConfigurationPropertiesHolder ? ((ConfigurationPropertiesHolder) bean)
+						.getTarget() : bean);
+				synchronized (target) {
+					postProcessAfterInitialization(bean, entry.getKey(), annotation);
+				}
+				rebound.add(entry.getKey());
+			}
+		}
+		return rebound;
+	}
+
+	private boolean matchesAny(String prefix, Collection<String> keys) {
+		if (!StringUtils.hasLength(prefix)) {
+			return true;
+		}
+		for (String key : keys) {
+			if (ConfigurationPropertiesPrefix.matches(prefix, key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String getTargetName(ConfigurationProperties annotation) {
+		if (annotation == null) {
+			return null;
+		}
+		return (StringUtils.hasLength(annotation.value()) ? annotation.value()
+				: annotation.name());
+	}
+
 	private void postProcessAfterInitialization(Object bean, String beanName,
 			ConfigurationProperties annotation) {
 		Object target = (bean instanceof ConfigurationPropertiesHolder ? ((ConfigurationPropertiesHolder) bean)
@@ -278,7 +455,8 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 		else {
 			factory.setPropertySources(this.propertySources);
 		}
-		factory.setValidator(this.validator);
+		TimedValidator validator = getValidator(target);
+		factory.setValidator(validator);
 		// If no explicit conversion service is provided we add one so that (at least)
 		// comma-separated arrays of convertibles can be bound automatically
 		factory.setConversionService(this.conversionService == null ? getDefaultConversionService()
@@ -286,18 +464,86 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 		if (annotation != null) {
 			factory.setIgnoreInvalidFields(annotation.ignoreInvalidFields());
 			factory.setIgnoreUnknownFields(annotation.ignoreUnknownFields());
-			String targetName = (StringUtils.hasLength(annotation.value()) ? annotation
-					.value() : annotation.name());
+			String targetName = getTargetName(annotation);
 			if (StringUtils.hasLength(targetName)) {
 				factory.setTargetName(targetName);
 			}
 		}
+		long start = System.nanoTime();
 		try {
 			factory.bindPropertiesToTarget();
 		}
 		catch (Exception ex) {
 			throw new BeanCreationException(beanName, "Could not bind properties", ex);
 		}
+		long validateTime = (validator == null ? 0 : validator.getElapsed());
+		long bindTime = System.nanoTime() - start - validateTime;
+		this.bindings.put(beanName, new ConfigurationPropertiesBinding(beanName,
+				getTargetName(annotation), target.getClass(), bindTime, validateTime));
+	}
+
+	private TimedValidator getValidator(Object target) {
+		if (this.validator != null) {
+			return new TimedValidator(this.validator);
+		}
+		if (this.ownedValidatorFuture != null && isConstrained(target.getClass())) {
+			return new TimedValidator(this.ownedValidatorFuture);
+		}
+		return null;
+	}
+
+	/**
+	 * Determine if a type declares any JSR-303 annotations (including custom constraints)
+	 * and so needs the owned validator.
+	 * @param type the type to check
+	 * @return if the type is constrained
+	 */
+	private boolean isConstrained(Class<?> type) {
+		Boolean constrained = this.constrainedTypes.get(type);
+		if (constrained == null) {
+			final List<AnnotatedElement> elements = new ArrayList<AnnotatedElement>();
+			for (Class<?> candidate = type; candidate != null
+					&& candidate != Object.class; candidate = candidate.getSuperclass()) {
+				elements.add(candidate);
+			}
+			ReflectionUtils.doWithFields(type, new ReflectionUtils.FieldCallback() {
+				@Override
+				public void doWith(Field field) {
+					elements.add(field);
+				}
+			});
+			ReflectionUtils.doWithMethods(type, new ReflectionUtils.MethodCallback() {
+				@Override
+				public void doWith(Method method) {
+					elements.add(method);
+				}
+			});
+			constrained = false;
+			for (AnnotatedElement element : elements) {
+				if (hasConstraintAnnotation(element)) {
+					constrained = true;
+					break;
+				}
+			}
+			this.constrainedTypes.put(type, constrained);
+		}
+		return constrained;
+	}
+
+	private boolean hasConstraintAnnotation(AnnotatedElement element) {
+		for (Annotation annotation : element.getDeclaredAnnotations()) {
+			Class<? extends Annotation> annotationType = annotation.annotationType();
+			if (annotationType.getName().startsWith(CONSTRAINT_PACKAGE)) {
+				return true;
+			}
+			for (Annotation metaAnnotation : annotationType.getAnnotations()) {
+				if (metaAnnotation.annotationType().getName()
+						.equals(CONSTRAINT_ANNOTATION)) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	private PropertySources loadPropertySources(String[] path) {
@@ -321,6 +567,68 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 		return propertySources;
 	}
 
+	/**
+	 * {@link Validator} that records the time spent validating and, if necessary, waits
+	 * for a validator that is still being created.
+	 */
+	private static class TimedValidator implements Validator {
+
+		private Validator validator;
+
+		private final Future<Validator> future;
+
+		private long elapsed;
+
+		public TimedValidator(Validator validator) {
+			this.validator = validator;
+			this.future = null;
+		}
+
+		public TimedValidator(Future<Validator> future) {
+			this.future = future;
+		}
+
+		@Override
+		public boolean supports(Class<?> type) {
+			// Only called when the binder is created, don't block
+			return (this.validator == null ? true : this.validator.supports(type));
+		}
+
+		@Override
+		public void validate(Object target, Errors errors) {
+			long start = System.nanoTime();
+			try {
+				getValidator().validate(target, errors);
+			}
+			finally {
+				this.elapsed += System.nanoTime() - start;
+			}
+		}
+
+		private Validator getValidator() {
+			if (this.validator == null) {
+				try {
+					this.validator = this.future.get();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException(
+							"Interrupted waiting for validator", ex);
+				}
+				catch (ExecutionException ex) {
+					throw new IllegalStateException("Unable to create validator",
+							ex.getCause());
+				}
+			}
+			return this.validator;
+		}
+
+		public long getElapsed() {
+			return this.elapsed;
+		}
+
+	}
+
 	private ConversionService getDefaultConversionService() {
 		if (!this.initialized && this.beanFactory instanceof ListableBeanFactory) {
 			for (Converter<?, ?> converter : ((ListableBeanFactory) this.beanFactory)
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published after external configuration has changed and affected
+ * {@link ConfigurationProperties} beans have been rebound. Listeners can use it to
+ * adjust resources (e.g. pool sizes) in place.
+ * 
+ * @author Dave Syer
+ * @see ConfigurationPropertiesBindingPostProcessor#rebind(java.util.Collection)
+ */
+public class ConfigurationPropertiesChangedEvent extends ApplicationEvent {
+
+	private final Set<String> changedKeys;
+
+	private final Set<String> beanNames;
+
+	/**
+	 * Create a new {@link ConfigurationPropertiesChangedEvent} instance.
+	 * @param source the source of the change
+	 * @param changedKeys the names of the properties that changed
+	 * @param beanNames the names of the beans that were rebound
+	 */
+	public ConfigurationPropertiesChangedEvent(Object source, Set<String> changedKeys,
+			Set<String> beanNames) {
+		super(source);
+		this.changedKeys = Collections.unmodifiableSet(new LinkedHashSet<String>(
+				changedKeys));
+		this.beanNames = Collections.unmodifiableSet(new LinkedHashSet<String>(
+				beanNames));
+	}
+
+	/**
+	 * @return the names of the properties that were added, changed or removed
+	 */
+	public Set<String> getChangedKeys() {
+		return this.changedKeys;
+	}
+
+	/**
+	 * @return the names of the {@link ConfigurationProperties} beans that were rebound
+	 */
+	public Set<String> getBeanNames() {
+		return this.beanNames;
+	}
+
+	/**
+	 * Determine if any property under the given prefix has changed. Names are matched
+	 * in the same relaxed way as they are bound (so {@code SERVER_PORT} is under the
+	 * prefix "server").
+	 * @param prefix the property prefix (e.g. "server")
+	 * @return {@code true} if a matching property changed
+	 */
+	public boolean isChanged(String prefix) {
+		for (String key : this.changedKeys) {
+			if (ConfigurationPropertiesPrefix.matches(prefix, key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
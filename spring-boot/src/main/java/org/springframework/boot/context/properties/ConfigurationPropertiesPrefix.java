@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties;
+
+/**
+ * Relaxed matching of property names against a {@link ConfigurationProperties} prefix,
+ * consistent with the binder: case, dashes, underscores and camel case are ignored so
+ * that {@code SPRING_DATASOURCE_URL} and {@code spring.data-source.url} both match the
+ * prefix {@code spring.dataSource}.
+ * 
+ * @author Dave Syer
+ */
+abstract class ConfigurationPropertiesPrefix {
+
+	/**
+	 * Determine if the given property name is the prefix itself or a property nested
+	 * under it.
+	 * @param prefix the prefix (e.g. "server")
+	 * @param name the property name
+	 * @return {@code true} if the name matches
+	 */
+	public static boolean matches(String prefix, String name) {
+		String canonicalPrefix = canonicalName(prefix);
+		if (canonicalPrefix.length() == 0) {
+			return true;
+		}
+		int matched = 0;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (matched == canonicalPrefix.length()) {
+				// The prefix must end on a segment boundary
+				return c == '.' || c == '_';
+			}
+			if (!isSeparator(c)) {
+				if (Character.toLowerCase(c) != canonicalPrefix.charAt(matched)) {
+					return false;
+				}
+				matched++;
+			}
+		}
+		return matched == canonicalPrefix.length();
+	}
+
+	private static String canonicalName(String name) {
+		StringBuilder builder = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (!isSeparator(c)) {
+				builder.append(Character.toLowerCase(c));
+			}
+		}
+		return builder.toString();
+	}
+
+	private static boolean isSeparator(char c) {
+		return c == '.' || c == '-' || c == '_';
+	}
+
+}
@@ -27,6 +27,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultBeanNameGenerator;
+import org.springframework.boot.config.CachingStandardEnvironment;
 import org.springframework.boot.context.embedded.AnnotationConfigEmbeddedWebApplicationContext;
 import org.springframework.boot.context.embedded.jetty.JettyEmbeddedServletContainerFactory;
 import org.springframework.context.ApplicationContext;
@@ -54,6 +55,7 @@ import org.springframework.web.context.support.StaticWebApplicationContext;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -323,6 +325,23 @@ public class SpringApplicationTests {
 		assertThat(getEnvironment().getProperty("baz"), equalTo(""));
 	}
 
+	@Test
+	public void propertyLookupsNotCachedByDefault() throws Exception {
+		SpringApplication application = new SpringApplication(ExampleConfig.class);
+		application.setWebEnvironment(false);
+		this.context = application.run();
+		assertThat(getEnvironment(), not(instanceOf(CachingStandardEnvironment.class)));
+	}
+
+	@Test
+	public void cachePropertyLookups() throws Exception {
+		SpringApplication application = new SpringApplication(ExampleConfig.class);
+		application.setWebEnvironment(false);
+		application.setCachePropertyLookups(true);
+		this.context = application.run();
+		assertThat(getEnvironment(), instanceOf(CachingStandardEnvironment.class));
+	}
+
 	@Test
 	public void commandLineArgsApplyToSpringApplication() throws Exception {
 		TestSpringApplication application = new TestSpringApplication(ExampleConfig.class);
@@ -21,6 +21,7 @@ import java.util.Collections;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.boot.bind.PropertySourcesPropertyValues;
+import org.springframework.boot.config.CanonicalNamePropertySource;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertySource;
@@ -82,6 +83,15 @@ public class PropertySourcesPropertyValuesTests {
 		assertEquals("spam", propertyValues.getPropertyValue("name").getValue());
 	}
 
+	@Test
+	public void testRelaxedValueFromCanonicalNameSource() {
+		this.propertySources.addFirst(new CanonicalNamePropertySource("env", Collections
+				.<String, Object> singletonMap("SERVER_PORT", "8080")));
+		PropertySourcesPropertyValues propertyValues = new PropertySourcesPropertyValues(
+				this.propertySources);
+		assertEquals("8080", propertyValues.getPropertyValue("server.port").getValue());
+	}
+
 	@Test
 	public void testPlaceholdersBinding() {
 		TestBean target = new TestBean();
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link CachingStandardEnvironment}.
+ * 
+ * @author Dave Syer
+ */
+public class CachingStandardEnvironmentTests {
+
+	private CachingStandardEnvironment environment = new CachingStandardEnvironment();
+
+	@Test
+	public void cachesMisses() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		this.environment.getPropertySources().addFirst(new MapPropertySource("map", map));
+		assertNull(this.environment.getProperty("my.property"));
+		map.put("my.property", "foo");
+		assertNull(this.environment.getProperty("my.property"));
+		this.environment.clearCache();
+		assertEquals("foo", this.environment.getProperty("my.property"));
+	}
+
+	@Test
+	public void addSourceInvalidatesCache() {
+		assertNull(this.environment.getProperty("my.property"));
+		this.environment.getPropertySources().addFirst(
+				new MapPropertySource("map", singletonMap("my.property", "foo")));
+		assertEquals("foo", this.environment.getProperty("my.property"));
+	}
+
+	@Test
+	public void replaceSourceInvalidatesCache() {
+		this.environment.getPropertySources().addFirst(
+				new MapPropertySource("map", singletonMap("my.property", "foo")));
+		assertEquals("foo", this.environment.getProperty("my.property"));
+		this.environment.getPropertySources().replace("map",
+				new MapPropertySource("map", singletonMap("my.property", "bar")));
+		assertEquals("bar", this.environment.getProperty("my.property"));
+		this.environment.getPropertySources().remove("map");
+		assertNull(this.environment.getProperty("my.property"));
+	}
+
+	@Test
+	public void typedLookups() {
+		this.environment.getPropertySources().addFirst(
+				new MapPropertySource("map", singletonMap("my.port", "8080")));
+		assertEquals(8080, (int) this.environment.getProperty("my.port", Integer.class));
+		assertEquals("8080", this.environment.getProperty("my.port"));
+		assertEquals("default", this.environment.getProperty("my.other", "default"));
+	}
+
+	private Map<String, Object> singletonMap(String key, Object value) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put(key, value);
+		return map;
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link CanonicalNamePropertySource}.
+ * 
+ * @author Dave Syer
+ */
+public class CanonicalNamePropertySourceTests {
+
+	private Map<String, Object> map = new HashMap<String, Object>();
+
+	private CanonicalNamePropertySource source = new CanonicalNamePropertySource("test",
+			this.map);
+
+	@Before
+	public void init() {
+		this.map.put("SERVER_PORT", "8080");
+		this.map.put("server.address", "localhost");
+		this.map.put("spring.main.show-banner", "false");
+		this.map.put("servers", "none");
+	}
+
+	@Test
+	public void exactName() {
+		assertEquals("8080", this.source.getProperty("SERVER_PORT"));
+		assertEquals("localhost", this.source.getProperty("server.address"));
+	}
+
+	@Test
+	public void relaxedNames() {
+		assertEquals("8080", this.source.getRelaxedProperty("server.port"));
+		assertEquals("8080", this.source.getRelaxedProperty("server-port"));
+		assertEquals("localhost", this.source.getRelaxedProperty("SERVER_ADDRESS"));
+		assertEquals("false", this.source.getRelaxedProperty("spring.main.show_banner"));
+		assertNull(this.source.getRelaxedProperty("server.foo"));
+	}
+
+	@Test
+	public void regularLookupsAreExact() {
+		assertNull(this.source.getProperty("server.port"));
+		assertFalse(this.source.containsProperty("server-port"));
+	}
+
+	@Test
+	public void indexUpdatedWhenMapGrows() {
+		assertNull(this.source.getRelaxedProperty("foo.bar"));
+		this.map.put("FOO_BAR", "spam");
+		assertEquals("spam", this.source.getRelaxedProperty("foo.bar"));
+	}
+
+	@Test
+	public void indexUpdatedWhenKeyReplaced() {
+		assertEquals("none", this.source.getRelaxedProperty("SERVERS"));
+		this.map.remove("servers");
+		this.map.put("FOO_BAR", "spam");
+		this.source.refresh();
+		assertNull(this.source.getRelaxedProperty("SERVERS"));
+		assertEquals("spam", this.source.getRelaxedProperty("foo.bar"));
+	}
+
+	@Test
+	public void immutableSourceIndexedOnce() {
+		final AtomicInteger scans = new AtomicInteger();
+		Map<String, Object> map = new HashMap<String, Object>(this.map) {
+			@Override
+			public Set<String> keySet() {
+				scans.incrementAndGet();
+				return super.keySet();
+			}
+		};
+		CanonicalNamePropertySource source = new CanonicalNamePropertySource(
+				new MapPropertySource("test", map), true);
+		assertEquals("8080", source.getRelaxedProperty("server.port"));
+		assertNull(source.getRelaxedProperty("server.foo"));
+		assertNull(source.getRelaxedProperty("server.bar"));
+		assertEquals(1, scans.get());
+	}
+
+	@Test
+	public void propertyNamesWithPrefix() {
+		assertThat(Arrays.asList(this.source.getPropertyNames("server")),
+				containsInAnyOrder("server.address"));
+		assertEquals(4, this.source.getPropertyNames().length);
+	}
+
+	@Test
+	public void replaceSystemPropertySources() {
+		StandardEnvironment environment = new StandardEnvironment();
+		CanonicalNamePropertySource.replaceSystemPropertySources(environment
+				.getPropertySources());
+		assertThat(
+				environment.getPropertySources().get(
+						StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME),
+				instanceOf(CanonicalNamePropertySource.class));
+		assertEquals(System.getProperty("java.version"),
+				environment.getProperty("java.version"));
+		assertNull(environment.getProperty("java-version"));
+	}
+
+}
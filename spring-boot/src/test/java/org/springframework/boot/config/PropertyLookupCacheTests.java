@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.boot.config.PropertyLookupCache.PropertyLookup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link PropertyLookupCache}.
+ * 
+ * @author Dave Syer
+ */
+public class PropertyLookupCacheTests {
+
+	private final AtomicInteger lookups = new AtomicInteger();
+
+	private final PropertyLookupCache cache = new PropertyLookupCache(
+			new MutablePropertySources(), new PropertyLookup() {
+				@Override
+				public <T> T getProperty(String key, Class<T> targetType) {
+					PropertyLookupCacheTests.this.lookups.incrementAndGet();
+					return null;
+				}
+			});
+
+	@Test
+	public void missesAreBounded() {
+		this.cache.setMaxMisses(2);
+		for (int i = 0; i < 2; i++) {
+			assertNull(this.cache.getProperty("foo", String.class));
+			assertNull(this.cache.getProperty("bar", String.class));
+		}
+		assertEquals(2, this.lookups.get());
+		assertNull(this.cache.getProperty("spam", String.class));
+		assertNull(this.cache.getProperty("spam", String.class));
+		assertEquals(4, this.lookups.get());
+	}
+
+	@Test
+	public void structuralChangeResetsMisses() {
+		this.cache.setMaxMisses(1);
+		assertNull(this.cache.getProperty("foo", String.class));
+		this.cache.getPropertySources().addFirst(
+				new MapPropertySource("map", Collections.<String, Object> emptyMap()));
+		assertNull(this.cache.getProperty("bar", String.class));
+		assertNull(this.cache.getProperty("bar", String.class));
+		assertEquals(2, this.lookups.get());
+	}
+
+}
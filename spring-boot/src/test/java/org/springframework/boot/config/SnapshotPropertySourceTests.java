@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link SnapshotPropertySource}.
+ * 
+ * @author Dave Syer
+ */
+public class SnapshotPropertySourceTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void writeAndLoad() throws Exception {
+		Map<String, String> properties = new LinkedHashMap<String, String>();
+		properties.put("server.port", "8080");
+		properties.put("my.property", "foo");
+		properties.put("my.other", "foo");
+		properties.put("my.array[0]", "1");
+		properties.put("unicode.\u00e9t\u00e9", "summer");
+		File file = new File(this.temporaryFolder.getRoot(), "config.snapshot");
+		SnapshotPropertySource.write(file, properties, "abc");
+		SnapshotPropertySource source = SnapshotPropertySource.load("snapshot", file);
+		assertEquals("abc", source.getFingerprint());
+		assertEquals("8080", source.getProperty("server.port"));
+		assertEquals("foo", source.getProperty("my.property"));
+		assertEquals("foo", source.getProperty("my.other"));
+		assertEquals("1", source.getProperty("my.array[0]"));
+		assertEquals("summer", source.getProperty("unicode.\u00e9t\u00e9"));
+		assertNull(source.getProperty("my"));
+		assertNull(source.getProperty("zzz"));
+		assertEquals(5, source.getPropertyNames().length);
+	}
+
+	@Test
+	public void emptySnapshot() throws Exception {
+		File file = new File(this.temporaryFolder.getRoot(), "config.snapshot");
+		SnapshotPropertySource.write(file, new LinkedHashMap<String, String>(), "");
+		SnapshotPropertySource source = SnapshotPropertySource.load("snapshot", file);
+		assertNull(source.getProperty("server.port"));
+		assertEquals(0, source.getPropertyNames().length);
+	}
+
+	@Test
+	public void loadMissingFile() throws Exception {
+		assertNull(SnapshotPropertySource.load("snapshot", new File(
+				this.temporaryFolder.getRoot(), "missing.snapshot")));
+	}
+
+	@Test
+	public void loadInvalidFile() throws Exception {
+		File file = this.temporaryFolder.newFile("invalid.snapshot");
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write("not a snapshot".getBytes());
+		}
+		finally {
+			out.close();
+		}
+		assertNull(SnapshotPropertySource.load("snapshot", file));
+	}
+
+	@Test
+	public void loadTruncatedFile() throws Exception {
+		Map<String, String> properties = new LinkedHashMap<String, String>();
+		properties.put("server.port", "8080");
+		File file = new File(this.temporaryFolder.getRoot(), "config.snapshot");
+		SnapshotPropertySource.write(file, properties, "abc");
+		byte[] bytes = FileCopyUtils.copyToByteArray(file);
+		for (int length : new int[] { 14, 20, bytes.length - 20, bytes.length - 1 }) {
+			FileCopyUtils.copy(Arrays.copyOf(bytes, length), file);
+			assertNull(SnapshotPropertySource.load("snapshot", file));
+		}
+	}
+
+	@Test
+	public void replaceWhileLoaded() throws Exception {
+		Map<String, String> properties = new LinkedHashMap<String, String>();
+		properties.put("server.port", "8080");
+		File file = new File(this.temporaryFolder.getRoot(), "config.snapshot");
+		SnapshotPropertySource.write(file, properties, "abc");
+		SnapshotPropertySource source = SnapshotPropertySource.load("snapshot", file);
+		properties.put("server.port", "9090");
+		SnapshotPropertySource.write(file, properties, "def");
+		assertEquals("8080", source.getProperty("server.port"));
+		assertEquals("9090", SnapshotPropertySource.load("snapshot", file)
+				.getProperty("server.port"));
+	}
+
+}
@@ -16,17 +16,35 @@
 
 package org.springframework.boot.context.embedded;
 
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.Socket;
 import java.net.SocketException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
+import java.security.KeyStore;
 import java.util.Arrays;
 import java.util.Date;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
@@ -48,6 +66,7 @@ import org.springframework.util.StreamUtils;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -261,6 +280,78 @@ public abstract class AbstractEmbeddedServletContainerFactoryTests {
 		response.close();
 	}
 
+	@Test
+	public void sslRoundTrip() throws Exception {
+		AbstractEmbeddedServletContainerFactory factory = getFactory();
+		Ssl ssl = new Ssl();
+		ssl.setKeyStore("src/test/resources/test.jks");
+		ssl.setKeyStorePassword("secret");
+		factory.setSsl(ssl);
+		this.container = factory
+				.getEmbeddedServletContainer(exampleServletRegistration());
+		this.container.start();
+		assertThat(getSecureResponse("https://localhost:8080/hello"),
+				equalTo("Hello World"));
+	}
+
+	@Test
+	public void sslWithoutKeyStore() throws Exception {
+		AbstractEmbeddedServletContainerFactory factory = getFactory();
+		factory.setSsl(new Ssl());
+		this.thrown.expect(EmbeddedServletContainerException.class);
+		this.thrown.expectMessage("no key store");
+		factory.getEmbeddedServletContainer(exampleServletRegistration());
+	}
+
+	@Test
+	public void gracefulShutdownDrainsActiveRequests() throws Exception {
+		AbstractEmbeddedServletContainerFactory factory = getFactory();
+		factory.setShutdownTimeout(5);
+		final CountDownLatch requestStarted = new CountDownLatch(1);
+		HttpServlet slowServlet = new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest request,
+					HttpServletResponse response) throws IOException {
+				requestStarted.countDown();
+				try {
+					Thread.sleep(500);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				response.getWriter().write("Slow");
+			}
+		};
+		this.container = factory.getEmbeddedServletContainer(new ServletRegistrationBean(
+				slowServlet, "/slow"));
+		this.container.start();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> response = executor.submit(new Callable<String>() {
+				@Override
+				public String call() throws Exception {
+					return getResponse("http://localhost:8080/slow");
+				}
+			});
+			assertThat(requestStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+			GracefulShutdownResult result = ((GracefulShutdownCapable) this.container)
+					.shutdownGracefully();
+			assertThat(result.getDrained(), equalTo(1));
+			assertThat(result.getAborted(), equalTo(0));
+			assertThat(response.get(5, TimeUnit.SECONDS), equalTo("Slow"));
+			try {
+				new Socket("localhost", 8080).close();
+				fail("New connections should be refused after a graceful shutdown");
+			}
+			catch (ConnectException ex) {
+				// Expected
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	// FIXME test error page
 
 	protected String getResponse(String url) throws IOException, URISyntaxException {
@@ -275,13 +366,50 @@ public abstract class AbstractEmbeddedServletContainerFactoryTests {
 
 	protected ClientHttpResponse getClientResponse(String url) throws IOException,
 			URISyntaxException {
-		SimpleClientHttpRequestFactory clientHttpRequestFactory = new SimpleClientHttpRequestFactory();
+		return getClientResponse(url, new SimpleClientHttpRequestFactory());
+	}
+
+	private ClientHttpResponse getClientResponse(String url,
+			SimpleClientHttpRequestFactory clientHttpRequestFactory) throws IOException,
+			URISyntaxException {
 		ClientHttpRequest request = clientHttpRequestFactory.createRequest(new URI(url),
 				HttpMethod.GET);
 		ClientHttpResponse response = request.execute();
 		return response;
 	}
 
+	protected String getSecureResponse(String url) throws Exception {
+		KeyStore trustStore = KeyStore.getInstance("JKS");
+		InputStream stream = new FileInputStream("src/test/resources/test.jks");
+		try {
+			trustStore.load(stream, "secret".toCharArray());
+		}
+		finally {
+			stream.close();
+		}
+		TrustManagerFactory trustManagerFactory = TrustManagerFactory
+				.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+		trustManagerFactory.init(trustStore);
+		final SSLContext sslContext = SSLContext.getInstance("TLS");
+		sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+		ClientHttpResponse response = getClientResponse(url,
+				new SimpleClientHttpRequestFactory() {
+					@Override
+					protected void prepareConnection(HttpURLConnection connection,
+							String httpMethod) throws IOException {
+						super.prepareConnection(connection, httpMethod);
+						((HttpsURLConnection) connection).setSSLSocketFactory(sslContext
+								.getSocketFactory());
+					}
+				});
+		try {
+			return StreamUtils.copyToString(response.getBody(), Charset.forName("UTF-8"));
+		}
+		finally {
+			response.close();
+		}
+	}
+
 	protected abstract AbstractEmbeddedServletContainerFactory getFactory();
 
 	private ServletContextInitializer exampleServletRegistration() {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link ActiveRequestTracker}.
+ * 
+ * @author Dave Syer
+ */
+public class ActiveRequestTrackerTests {
+
+	private ActiveRequestTracker tracker = new ActiveRequestTracker();
+
+	@Test
+	public void synchronousRequest() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		assertThat(this.tracker.begin(request), equalTo(true));
+		assertThat(this.tracker.getActive(), equalTo(1));
+		this.tracker.end(request);
+		assertThat(this.tracker.getActive(), equalTo(0));
+		assertThat(this.tracker.getCompleted(), equalTo(1));
+		assertThat(this.tracker.awaitCompletion(0, TimeUnit.MILLISECONDS),
+				equalTo(true));
+	}
+
+	@Test
+	public void asyncRequestActiveUntilComplete() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAsyncSupported(true);
+		this.tracker.begin(request);
+		request.startAsync();
+		this.tracker.end(request);
+		assertThat(this.tracker.getActive(), equalTo(1));
+		assertThat(this.tracker.awaitCompletion(10, TimeUnit.MILLISECONDS),
+				equalTo(false));
+		// A later dispatch of the same request is not counted again
+		assertThat(this.tracker.begin(request), equalTo(false));
+		request.getAsyncContext().complete();
+		assertThat(this.tracker.getActive(), equalTo(0));
+		assertThat(this.tracker.getCompleted(), equalTo(1));
+	}
+
+	@Test
+	public void awaitCompletionWaitsForActiveRequests() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest();
+		this.tracker.begin(request);
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				ActiveRequestTrackerTests.this.tracker.end(request);
+			}
+		};
+		thread.start();
+		assertThat(this.tracker.awaitCompletion(5, TimeUnit.SECONDS), equalTo(true));
+		thread.join();
+	}
+
+}
@@ -47,6 +47,7 @@ import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atMost;
@@ -123,6 +124,40 @@ public class EmbeddedWebApplicationContextTests {
 		verify(escf.getContainer()).stop();
 	}
 
+	@Test
+	public void shutdownGracefullyOnClose() throws Exception {
+		addEmbeddedServletContainerFactoryBean();
+		this.context.refresh();
+		MockEmbeddedServletContainerFactory escf = getEmbeddedServletContainerFactory();
+		this.context.close();
+		InOrder ordered = inOrder(escf.getContainer());
+		ordered.verify(escf.getContainer()).shutdownGracefully();
+		ordered.verify(escf.getContainer()).stop();
+	}
+
+	@Test
+	public void warmupTasksRunBeforeContainerStarts() throws Exception {
+		addEmbeddedServletContainerFactoryBean();
+		WarmupTask task = mock(WarmupTask.class);
+		this.context.registerBeanDefinition("warmupTask", beanDefinition(task));
+		this.context.refresh();
+		MockEmbeddedServletContainerFactory escf = getEmbeddedServletContainerFactory();
+		InOrder ordered = inOrder(task, escf.getContainer());
+		ordered.verify(task).warmup(escf.getServletContext());
+		ordered.verify(escf.getContainer()).start();
+	}
+
+	@Test
+	public void failingWarmupTaskDoesNotPreventStart() throws Exception {
+		addEmbeddedServletContainerFactoryBean();
+		WarmupTask task = mock(WarmupTask.class);
+		willThrow(new IllegalStateException("Expected")).given(task).warmup(
+				(ServletContext) anyObject());
+		this.context.registerBeanDefinition("warmupTask", beanDefinition(task));
+		this.context.refresh();
+		verify(getEmbeddedServletContainerFactory().getContainer()).start();
+	}
+
 	@Test
 	public void cannotSecondRefresh() throws Exception {
 		addEmbeddedServletContainerFactoryBean();
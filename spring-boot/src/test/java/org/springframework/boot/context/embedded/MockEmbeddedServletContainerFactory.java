@@ -73,7 +73,8 @@ public class MockEmbeddedServletContainerFactory extends
 				index);
 	}
 
-	public static class MockEmbeddedServletContainer implements EmbeddedServletContainer {
+	public static class MockEmbeddedServletContainer implements EmbeddedServletContainer,
+			GracefulShutdownCapable {
 
 		private ServletContext servletContext;
 
@@ -157,6 +158,11 @@ public class MockEmbeddedServletContainerFactory extends
 		public void start() throws EmbeddedServletContainerException {
 		}
 
+		@Override
+		public GracefulShutdownResult shutdownGracefully() {
+			return GracefulShutdownResult.NONE;
+		}
+
 		@Override
 		public void stop() {
 			this.servletContext = null;
@@ -19,15 +19,24 @@ package org.springframework.boot.context.embedded.jetty;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.server.AbstractConnector;
 import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ssl.SslSelectChannelConnector;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.webapp.Configuration;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactoryTests;
+import org.springframework.boot.context.embedded.ExampleServlet;
+import org.springframework.boot.context.embedded.ServletRegistrationBean;
+import org.springframework.boot.context.embedded.Ssl;
 import org.springframework.boot.context.embedded.jetty.JettyEmbeddedServletContainer;
 import org.springframework.boot.context.embedded.jetty.JettyEmbeddedServletContainerFactory;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.anyObject;
@@ -64,6 +73,22 @@ public class JettyEmbeddedServletContainerFactoryTests extends
 		}
 	}
 
+	@Test
+	public void threadPoolSettings() throws Exception {
+		JettyEmbeddedServletContainerFactory factory = getFactory();
+		factory.setMaxThreads(4);
+		factory.setAcceptCount(10);
+		this.container = factory.getEmbeddedServletContainer(new ServletRegistrationBean(
+				new ExampleServlet(), "/hello"));
+		Server server = ((JettyEmbeddedServletContainer) this.container).getServer();
+		AbstractConnector connector = (AbstractConnector) server.getConnectors()[0];
+		QueuedThreadPool threadPool = (QueuedThreadPool) server.getThreadPool();
+		assertThat(threadPool.getMaxThreads(), equalTo(4 + 2 * connector.getAcceptors()));
+		assertThat(connector.getAcceptQueueSize(), equalTo(10));
+		this.container.start();
+		assertThat(getResponse("http://localhost:8080/hello"), equalTo("Hello World"));
+	}
+
 	@Test
 	public void sessionTimeout() throws Exception {
 		JettyEmbeddedServletContainerFactory factory = getFactory();
@@ -78,6 +103,26 @@ public class JettyEmbeddedServletContainerFactoryTests extends
 		assertTimeout(factory, 60);
 	}
 
+	@Test
+	public void sslConnector() throws Exception {
+		JettyEmbeddedServletContainerFactory factory = getFactory();
+		Ssl ssl = new Ssl();
+		ssl.setKeyStore("src/test/resources/test.jks");
+		ssl.setKeyStorePassword("secret");
+		ssl.setCiphers(new String[] { "ALPHA", "BRAVO" });
+		ssl.setSessionCacheSize(1000);
+		ssl.setSessionTimeout(300);
+		SslSelectChannelConnector connector = factory.getSslConnector(ssl);
+		SslContextFactory sslContextFactory = connector.getSslContextFactory();
+		assertThat(connector.getUseDirectBuffers(), equalTo(true));
+		assertThat(sslContextFactory.getKeyStorePath(),
+				endsWith("src/test/resources/test.jks"));
+		assertThat(sslContextFactory.getIncludeCipherSuites(), equalTo(new String[] {
+				"ALPHA", "BRAVO" }));
+		assertThat(sslContextFactory.getSslSessionCacheSize(), equalTo(1000));
+		assertThat(sslContextFactory.getSslSessionTimeout(), equalTo(300));
+	}
+
 	private void assertTimeout(JettyEmbeddedServletContainerFactory factory, int expected) {
 		this.container = factory.getEmbeddedServletContainer();
 		JettyEmbeddedServletContainer jettyContainer = (JettyEmbeddedServletContainer) this.container;
@@ -24,10 +24,13 @@ import java.util.Map;
 import org.junit.Test;
 import org.springframework.beans.MutablePropertyValues;
 import org.springframework.boot.bind.RelaxedDataBinder;
+import org.springframework.boot.context.embedded.Ssl;
 import org.springframework.boot.context.embedded.properties.ServerProperties;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link ServerProperties}.
@@ -69,6 +72,41 @@ public class ServerPropertiesTests {
 				.getProtocolHeader());
 	}
 
+	@Test
+	public void testSslBinding() throws Exception {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("server.ssl.key_store", "classpath:keystore.jks");
+		map.put("server.ssl.key_store_password", "secret");
+		map.put("server.ssl.ciphers", "ALPHA,BRAVO");
+		map.put("server.ssl.session_cache_size", "1000");
+		map.put("server.ssl.session_timeout", "300");
+		RelaxedDataBinder binder = new RelaxedDataBinder(this.properties, "server");
+		binder.bind(new MutablePropertyValues(map));
+		assertFalse(binder.getBindingResult().hasErrors());
+		Ssl ssl = this.properties.getSsl();
+		assertEquals("classpath:keystore.jks", ssl.getKeyStore());
+		assertEquals("secret", ssl.getKeyStorePassword());
+		assertArrayEquals(new String[] { "ALPHA", "BRAVO" }, ssl.getCiphers());
+		assertEquals(1000, ssl.getSessionCacheSize());
+		assertEquals(300, ssl.getSessionTimeout());
+	}
+
+	@Test
+	public void testCompressionBinding() throws Exception {
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("server.compression.enabled", "true");
+		map.put("server.compression.min_response_size", "1024");
+		map.put("server.compression.mime_types", "text/html,text/css");
+		RelaxedDataBinder binder = new RelaxedDataBinder(this.properties, "server");
+		binder.bind(new MutablePropertyValues(map));
+		assertFalse(binder.getBindingResult().hasErrors());
+		ServerProperties.Compression compression = this.properties.getCompression();
+		assertTrue(compression.isEnabled());
+		assertEquals(1024, compression.getMinResponseSize());
+		assertArrayEquals(new String[] { "text/html", "text/css" },
+				compression.getMimeTypes());
+	}
+
 	// FIXME test customize
 
 }
@@ -16,20 +16,30 @@
 
 package org.springframework.boot.context.embedded.tomcat;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleEvent;
 import org.apache.catalina.LifecycleListener;
+import org.apache.catalina.connector.Connector;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.tomcat.util.scan.StandardJarScanner;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactoryTests;
+import org.springframework.boot.context.embedded.Ssl;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainer;
 import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
 
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.inOrder;
@@ -79,6 +89,88 @@ public class TomcatEmbeddedServletContainerFactoryTests extends
 		assertTimeout(factory, 60);
 	}
 
+	@Test
+	public void sslConnector() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		Ssl ssl = new Ssl();
+		ssl.setKeyStore("src/test/resources/test.jks");
+		ssl.setKeyStorePassword("secret");
+		ssl.setCiphers(new String[] { "ALPHA", "BRAVO" });
+		ssl.setSessionCacheSize(1000);
+		ssl.setSessionTimeout(300);
+		factory.setSsl(ssl);
+		Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+		factory.customizeConnector(connector);
+		AbstractHttp11JsseProtocol<?> protocol = (AbstractHttp11JsseProtocol<?>) connector
+				.getProtocolHandler();
+		assertThat(connector.getScheme(), equalTo("https"));
+		assertThat(connector.getSecure(), equalTo(true));
+		assertThat(protocol.getKeystoreFile(), endsWith("src/test/resources/test.jks"));
+		assertThat(protocol.getKeystorePass(), equalTo("secret"));
+		assertThat(protocol.getCiphers(), equalTo("ALPHA,BRAVO"));
+		assertThat(protocol.getSessionCacheSize(), equalTo("1000"));
+		assertThat(protocol.getSessionTimeout(), equalTo("300"));
+	}
+
+	@Test
+	public void threadPoolSettings() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		factory.setMaxThreads(4);
+		factory.setAcceptCount(10);
+		Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+		factory.customizeConnector(connector);
+		AbstractProtocol protocol = (AbstractProtocol) connector.getProtocolHandler();
+		assertThat(protocol.getMaxThreads(), equalTo(4));
+		assertThat(protocol.getBacklog(), equalTo(10));
+	}
+
+	@Test
+	public void disabledSsl() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		Ssl ssl = new Ssl();
+		ssl.setEnabled(false);
+		factory.setSsl(ssl);
+		Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+		factory.customizeConnector(connector);
+		assertThat(connector.getScheme(), equalTo("http"));
+	}
+
+	@Test
+	public void fastStart() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		factory.setFastStart(true);
+		factory.setRegisterJspServlet(false);
+		this.container = factory.getEmbeddedServletContainer();
+		Context context = getContext();
+		assertThat(context.getJarScanner(), not(instanceOf(StandardJarScanner.class)));
+		String docBase = context.getDocBase();
+		this.container.stop();
+		this.container = factory.getEmbeddedServletContainer();
+		// Without a base directory nothing is reused from the shared temp dir
+		assertThat(getContext().getDocBase(), not(equalTo(docBase)));
+	}
+
+	@Test
+	public void fastStartUsesBaseDirectory() throws Exception {
+		TomcatEmbeddedServletContainerFactory factory = getFactory();
+		File baseDirectory = this.temporaryFolder.newFolder();
+		factory.setBaseDirectory(baseDirectory);
+		factory.setFastStart(true);
+		factory.setRegisterJspServlet(false);
+		this.container = factory.getEmbeddedServletContainer();
+		File docBase = new File(getContext().getDocBase());
+		assertThat(docBase.getParentFile(), equalTo(baseDirectory.getAbsoluteFile()));
+		assertThat(docBase.getName(), startsWith("tomcat-docbase.8080."));
+		this.container.stop();
+		this.container = factory.getEmbeddedServletContainer();
+		assertThat(new File(getContext().getDocBase()), equalTo(docBase));
+	}
+
+	private Context getContext() {
+		Tomcat tomcat = ((TomcatEmbeddedServletContainer) this.container).getTomcat();
+		return (Context) tomcat.getHost().findChildren()[0];
+	}
+
 	private void assertTimeout(TomcatEmbeddedServletContainerFactory factory, int expected) {
 		this.container = factory.getEmbeddedServletContainer();
 		Tomcat tomcat = ((TomcatEmbeddedServletContainer) this.container).getTomcat();
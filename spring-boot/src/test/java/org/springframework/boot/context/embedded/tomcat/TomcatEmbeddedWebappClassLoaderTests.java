@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded.tomcat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link TomcatEmbeddedWebappClassLoader}.
+ * 
+ * @author Phillip Webb
+ */
+public class TomcatEmbeddedWebappClassLoaderTests {
+
+	private static final int THREADS = 32;
+
+	private static final String[] CLASS_NAMES = { "java.lang.String",
+			"java.util.concurrent.ConcurrentHashMap",
+			"org.springframework.util.StringUtils",
+			"org.springframework.boot.context.embedded.ErrorPage",
+			"org.springframework.boot.context.embedded.MimeMappings",
+			"org.apache.catalina.startup.Tomcat" };
+
+	private final ClassLoader parent = getClass().getClassLoader();
+
+	private final TomcatEmbeddedWebappClassLoader classLoader = new TomcatEmbeddedWebappClassLoader(
+			this.parent);
+
+	@Test
+	public void loadsFromParent() throws Exception {
+		for (String name : CLASS_NAMES) {
+			assertThat(this.classLoader.loadClass(name),
+					sameInstance((Object) this.parent.loadClass(name)));
+		}
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void missingClass() throws Exception {
+		this.classLoader.loadClass("com.example.Missing");
+	}
+
+	@Test
+	public void classFoundOnceParentCanLoadIt() throws Exception {
+		final String name = Late.class.getName();
+		final AtomicBoolean visible = new AtomicBoolean();
+		ClassLoader parent = new ClassLoader(this.parent) {
+			@Override
+			protected Class<?> loadClass(String className, boolean resolve)
+					throws ClassNotFoundException {
+				if (className.equals(name) && !visible.get()) {
+					throw new ClassNotFoundException(className);
+				}
+				return super.loadClass(className, resolve);
+			}
+		};
+		TomcatEmbeddedWebappClassLoader classLoader = new TomcatEmbeddedWebappClassLoader(
+				parent);
+		try {
+			classLoader.loadClass(name);
+			fail("Expected ClassNotFoundException");
+		}
+		catch (ClassNotFoundException ex) {
+			// Expected
+		}
+		visible.set(true);
+		assertThat(classLoader.loadClass(name), sameInstance((Object) Late.class));
+	}
+
+	@Test
+	public void slowLoadDoesNotBlockOtherNames() throws Exception {
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final TomcatEmbeddedWebappClassLoader classLoader = new TomcatEmbeddedWebappClassLoader(
+				this.parent) {
+			@Override
+			public Class<?> findClass(String name) throws ClassNotFoundException {
+				if (name.equals("com.example.Slow")) {
+					entered.countDown();
+					try {
+						release.await();
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				throw new ClassNotFoundException(name);
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> slow = executor.submit(new Callable<Class<?>>() {
+				@Override
+				public Class<?> call() throws Exception {
+					return classLoader.loadClass("com.example.Slow");
+				}
+			});
+			assertTrue(entered.await(10, TimeUnit.SECONDS));
+			Future<Class<?>> other = executor.submit(new Callable<Class<?>>() {
+				@Override
+				public Class<?> call() throws Exception {
+					return classLoader.loadClass("java.lang.String");
+				}
+			});
+			// Would time out if loading locked the whole classloader
+			assertThat(other.get(10, TimeUnit.SECONDS),
+					sameInstance((Object) String.class));
+			assertFalse(slow.isDone());
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void concurrentLoading() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final CountDownLatch start = new CountDownLatch(1);
+			List<Future<List<Class<?>>>> results = new ArrayList<Future<List<Class<?>>>>();
+			for (int i = 0; i < THREADS; i++) {
+				results.add(executor.submit(new Callable<List<Class<?>>>() {
+					@Override
+					public List<Class<?>> call() throws Exception {
+						start.await();
+						List<Class<?>> loaded = new ArrayList<Class<?>>();
+						for (String name : CLASS_NAMES) {
+							loaded.add(TomcatEmbeddedWebappClassLoaderTests.this.classLoader
+									.loadClass(name));
+						}
+						return loaded;
+					}
+				}));
+			}
+			start.countDown();
+			for (Future<List<Class<?>>> result : results) {
+				List<Class<?>> loaded = result.get();
+				for (int i = 0; i < CLASS_NAMES.length; i++) {
+					assertThat(loaded.get(i),
+							sameInstance((Object) this.parent.loadClass(CLASS_NAMES[i])));
+				}
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	public static class Late {
+	}
+
+}
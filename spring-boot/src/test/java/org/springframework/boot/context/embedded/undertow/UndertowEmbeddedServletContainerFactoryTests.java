@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.embedded.undertow;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.springframework.boot.context.embedded.AbstractEmbeddedServletContainerFactoryTests;
+import org.springframework.boot.context.embedded.ErrorPage;
+import org.springframework.boot.context.embedded.ExampleServlet;
+import org.springframework.boot.context.embedded.ServletRegistrationBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.undertow.Undertow.Builder;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.api.DeploymentManager;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link UndertowEmbeddedServletContainerFactory} and
+ * {@link UndertowEmbeddedServletContainer}.
+ * 
+ * @author Dave Syer
+ */
+public class UndertowEmbeddedServletContainerFactoryTests extends
+		AbstractEmbeddedServletContainerFactoryTests {
+
+	@Override
+	protected UndertowEmbeddedServletContainerFactory getFactory() {
+		return new UndertowEmbeddedServletContainerFactory();
+	}
+
+	@Test
+	public void errorPage() throws Exception {
+		UndertowEmbeddedServletContainerFactory factory = getFactory();
+		factory.addErrorPages(new ErrorPage(HttpStatus.NOT_FOUND, "/hello"));
+		this.container = factory.getEmbeddedServletContainer(new ServletRegistrationBean(
+				new ExampleServlet(), "/hello"));
+		this.container.start();
+		assertThat(getResponse("http://localhost:8080/missing"), equalTo("Hello World"));
+	}
+
+	@Test
+	public void postProcessDeploymentInfo() throws Exception {
+		final boolean[] called = new boolean[1];
+		UndertowEmbeddedServletContainerFactory factory = new UndertowEmbeddedServletContainerFactory() {
+			@Override
+			protected void postProcessDeploymentInfo(DeploymentInfo deploymentInfo) {
+				called[0] = true;
+			}
+		};
+		this.container = factory.getEmbeddedServletContainer();
+		assertTrue(called[0]);
+	}
+
+	@Test
+	public void threadAndBufferSettings() throws Exception {
+		final Builder[] builder = new Builder[1];
+		UndertowEmbeddedServletContainerFactory factory = new UndertowEmbeddedServletContainerFactory() {
+			@Override
+			protected UndertowEmbeddedServletContainer getUndertowEmbeddedServletContainer(
+					Builder undertowBuilder, DeploymentManager manager) {
+				builder[0] = undertowBuilder;
+				return super.getUndertowEmbeddedServletContainer(undertowBuilder,
+						manager);
+			}
+		};
+		factory.setIoThreads(1);
+		factory.setWorkerThreads(2);
+		factory.setBufferSize(1024);
+		factory.setDirectBuffers(true);
+		this.container = factory.getEmbeddedServletContainer(new ServletRegistrationBean(
+				new ExampleServlet(), "/hello"));
+		this.container.start();
+		assertThat(getResponse("http://localhost:8080/hello"), equalTo("Hello World"));
+		assertThat(ReflectionTestUtils.getField(builder[0], "ioThreads"),
+				equalTo((Object) 1));
+		assertThat(ReflectionTestUtils.getField(builder[0], "workerThreads"),
+				equalTo((Object) 2));
+		assertThat(ReflectionTestUtils.getField(builder[0], "bufferSize"),
+				equalTo((Object) 1024));
+		assertThat(ReflectionTestUtils.getField(builder[0], "directBuffers"),
+				equalTo((Object) true));
+	}
+
+	@Test
+	public void maxThreadsUsedForWorkerThreads() throws Exception {
+		final Builder[] builder = new Builder[1];
+		UndertowEmbeddedServletContainerFactory factory = new UndertowEmbeddedServletContainerFactory() {
+			@Override
+			protected UndertowEmbeddedServletContainer getUndertowEmbeddedServletContainer(
+					Builder undertowBuilder, DeploymentManager manager) {
+				builder[0] = undertowBuilder;
+				return super.getUndertowEmbeddedServletContainer(undertowBuilder,
+						manager);
+			}
+		};
+		factory.setMaxThreads(3);
+		factory.setAcceptCount(10);
+		this.container = factory.getEmbeddedServletContainer(new ServletRegistrationBean(
+				new ExampleServlet(), "/hello"));
+		this.container.start();
+		assertThat(getResponse("http://localhost:8080/hello"), equalTo("Hello World"));
+		assertThat(ReflectionTestUtils.getField(builder[0], "workerThreads"),
+				equalTo((Object) 3));
+	}
+
+	@Override
+	@Test
+	@Ignore("Undertow does not implement GracefulShutdownCapable yet")
+	public void gracefulShutdownDrainsActiveRequests() throws Exception {
+	}
+
+}
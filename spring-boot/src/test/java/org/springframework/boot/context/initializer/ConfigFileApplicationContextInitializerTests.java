@@ -16,16 +16,25 @@
 
 package org.springframework.boot.context.initializer;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.TestUtils;
+import org.springframework.boot.config.SnapshotPropertySource;
 import org.springframework.boot.context.initializer.ConfigFileApplicationContextInitializer;
 import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
 import org.springframework.core.env.SimpleCommandLinePropertySource;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
@@ -37,6 +46,9 @@ import static org.junit.Assert.assertThat;
  */
 public class ConfigFileApplicationContextInitializerTests {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private StaticApplicationContext context = new StaticApplicationContext();
 
 	private ConfigFileApplicationContextInitializer initializer = new ConfigFileApplicationContextInitializer();
@@ -90,6 +102,39 @@ public class ConfigFileApplicationContextInitializerTests {
 		assertThat(property, equalTo("fromprofilepropertiesfile"));
 	}
 
+	@Test
+	public void snapshotKeepsPropertySourcesAndResources() throws Exception {
+		File snapshot = new File(this.temporaryFolder.getRoot(), "config.snapshot");
+		this.initializer.setNames("enableprofile");
+		TestUtils.addEnviroment(this.context,
+				"spring.config.snapshot:" + snapshot.getAbsolutePath());
+		this.initializer.initialize(this.context);
+		assertThat(snapshot.exists(), equalTo(true));
+		List<String> expected = getPropertySourceNames(this.context);
+
+		StaticApplicationContext context = new StaticApplicationContext();
+		TestUtils.addEnviroment(context,
+				"spring.config.snapshot:" + snapshot.getAbsolutePath());
+		ConfigFileApplicationContextInitializer initializer = new ConfigFileApplicationContextInitializer();
+		initializer.setNames("enableprofile");
+		initializer.initialize(context);
+		assertThat(getPropertySourceNames(context), equalTo(expected));
+		assertThat(context.getEnvironment().getPropertySources().get(expected.get(1)),
+				instanceOf(SnapshotPropertySource.class));
+		assertThat(context.getEnvironment().getProperty("my.property"),
+				equalTo("fromprofilepropertiesfile"));
+		assertThat(context.getEnvironment().getActiveProfiles(),
+				equalTo(new String[] { "myprofile" }));
+	}
+
+	private List<String> getPropertySourceNames(StaticApplicationContext context) {
+		List<String> names = new ArrayList<String>();
+		for (PropertySource<?> source : context.getEnvironment().getPropertySources()) {
+			names.add(source.getName());
+		}
+		return names;
+	}
+
 	@Test
 	public void yamlProfiles() throws Exception {
 		this.initializer.setNames("testprofiles");
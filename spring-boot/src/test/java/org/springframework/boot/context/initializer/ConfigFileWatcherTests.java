@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.initializer;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.boot.TestUtils;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesChangedEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.FileCopyUtils;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConfigFileWatcher}.
+ * 
+ * @author Dave Syer
+ */
+public class ConfigFileWatcherTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+	@Test
+	public void changedFileIsReloadedAndRebound() throws Exception {
+		File file = this.temporaryFolder.newFile("watched.properties");
+		FileCopyUtils.copy("my.name=foo\nother.name=spam".getBytes(), file);
+		TestUtils.addEnviroment(this.context,
+				"spring.config.location:file:" + file.getAbsolutePath(),
+				"spring.config.watch:true");
+		ConfigFileApplicationContextInitializer initializer = new ConfigFileApplicationContextInitializer();
+		initializer.setNames("watched");
+		initializer.initialize(this.context);
+		this.context.register(Config.class);
+		this.context.refresh();
+		assertThat(this.context.getBean(MyProperties.class).getName(), equalTo("foo"));
+
+		long modified = file.lastModified();
+		FileCopyUtils.copy("my.name=bar\nother.name=spam".getBytes(), file);
+		// Make sure the change is visible on file systems with coarse timestamps
+		file.setLastModified(modified + 2000);
+
+		Listener listener = this.context.getBean(Listener.class);
+		assertTrue("No change event", listener.latch.await(10, TimeUnit.SECONDS));
+		assertThat(this.context.getBean(MyProperties.class).getName(), equalTo("bar"));
+		assertThat(listener.event.getChangedKeys(), contains("my.name"));
+		assertThat(listener.event.getBeanNames().size(), equalTo(1));
+		assertTrue(listener.event.isChanged("MY"));
+	}
+
+	@Configuration
+	@EnableConfigurationProperties(MyProperties.class)
+	protected static class Config {
+
+		@Bean
+		public Listener listener() {
+			return new Listener();
+		}
+
+	}
+
+	@ConfigurationProperties(name = "my")
+	protected static class MyProperties {
+
+		private String name;
+
+		public synchronized String getName() {
+			return this.name;
+		}
+
+		public synchronized void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+	protected static class Listener implements
+			ApplicationListener<ConfigurationPropertiesChangedEvent> {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private volatile ConfigurationPropertiesChangedEvent event;
+
+		@Override
+		public void onApplicationEvent(ConfigurationPropertiesChangedEvent event) {
+			this.event = event;
+			this.latch.countDown();
+		}
+
+	}
+
+}
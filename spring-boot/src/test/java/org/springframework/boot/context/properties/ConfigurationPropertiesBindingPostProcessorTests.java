@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.boot.TestUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.Validator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ConfigurationPropertiesBindingPostProcessor}.
+ * 
+ * @author Dave Syer
+ */
+public class ConfigurationPropertiesBindingPostProcessorTests {
+
+	private AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+	@After
+	public void close() {
+		this.context.close();
+	}
+
+	@Test
+	public void ownedValidatorRejectsInvalidBean() {
+		this.context.register(ValidatedConfiguration.class);
+		try {
+			this.context.refresh();
+			fail("Expected BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getMessage().contains("Could not bind properties"));
+		}
+	}
+
+	@Test
+	public void ownedValidatorAcceptsValidBean() {
+		this.context.register(ValidatedConfiguration.class);
+		TestUtils.addEnviroment(this.context, "test.name:foo");
+		this.context.refresh();
+		assertEquals("foo", this.context.getBean(ValidatedProperties.class).getName());
+		assertNotNull(ReflectionTestUtils.getField(getPostProcessor(),
+				"ownedValidatorFuture"));
+	}
+
+	@Test
+	public void bindingsAreRecorded() {
+		this.context.register(ValidatedConfiguration.class, PlainConfiguration.class);
+		TestUtils.addEnviroment(this.context, "test.name:foo", "plain.name:bar");
+		this.context.refresh();
+		List<ConfigurationPropertiesBinding> bindings = getPostProcessor()
+				.getBindings();
+		assertEquals(2, bindings.size());
+		ConfigurationPropertiesBinding validated = bindings.get(0);
+		assertEquals("validatedProperties", validated.getBeanName());
+		assertEquals("test", validated.getPrefix());
+		assertEquals(ValidatedProperties.class, validated.getType());
+		assertTrue(validated.getValidateTime() > 0);
+		ConfigurationPropertiesBinding plain = bindings.get(1);
+		assertEquals("plainProperties", plain.getBeanName());
+		assertEquals(0, plain.getValidateTime(), 0);
+	}
+
+	@Test
+	public void destroyDoesNotFailIfValidatorCouldNotBeCreated() throws Exception {
+		ConfigurationPropertiesBindingPostProcessor postProcessor = new ConfigurationPropertiesBindingPostProcessor();
+		FutureTask<Validator> future = new FutureTask<Validator>(
+				new Callable<Validator>() {
+					@Override
+					public Validator call() throws Exception {
+						throw new IllegalStateException("Expected");
+					}
+				});
+		future.run();
+		ReflectionTestUtils.setField(postProcessor, "ownedValidator", true);
+		ReflectionTestUtils.setField(postProcessor, "ownedValidatorFuture", future);
+		postProcessor.destroy();
+	}
+
+	private ConfigurationPropertiesBindingPostProcessor getPostProcessor() {
+		return this.context.getBean(ConfigurationPropertiesBindingPostProcessor.class);
+	}
+
+	@Configuration
+	@EnableConfigurationProperties
+	protected static class ValidatedConfiguration {
+
+		@Bean
+		public ValidatedProperties validatedProperties() {
+			return new ValidatedProperties();
+		}
+
+	}
+
+	@Configuration
+	@EnableConfigurationProperties
+	protected static class PlainConfiguration {
+
+		@Bean
+		public PlainProperties plainProperties() {
+			return new PlainProperties();
+		}
+
+	}
+
+	@ConfigurationProperties(name = "test")
+	protected static class ValidatedProperties {
+
+		@NotNull
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+	@ConfigurationProperties(name = "plain")
+	protected static class PlainProperties {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
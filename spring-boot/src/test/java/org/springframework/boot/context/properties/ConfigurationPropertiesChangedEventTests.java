@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.context.properties;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConfigurationPropertiesChangedEvent}.
+ * 
+ * @author Dave Syer
+ */
+public class ConfigurationPropertiesChangedEventTests {
+
+	@Test
+	public void relaxedPrefixMatching() throws Exception {
+		assertTrue(event("server.port").isChanged("server"));
+		assertTrue(event("SERVER_PORT").isChanged("server"));
+		assertTrue(event("server").isChanged("server"));
+		assertTrue(event("spring.data-source.url").isChanged("spring.dataSource"));
+		assertTrue(event("SPRING_DATASOURCE_URL").isChanged("spring.data-source"));
+		assertFalse(event("servers.port").isChanged("server"));
+		assertFalse(event("server-port").isChanged("server"));
+		assertFalse(event("spring.port").isChanged("server"));
+	}
+
+	private ConfigurationPropertiesChangedEvent event(String... keys) {
+		return new ConfigurationPropertiesChangedEvent(this, new LinkedHashSet<String>(
+				Arrays.asList(keys)), Collections.<String> emptySet());
+	}
+
+}
@@ -18,17 +18,24 @@ package org.springframework.boot.context.properties;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.PostConstruct;
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.TestUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.ImportResource;
+import org.springframework.context.annotation.Scope;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.stereotype.Component;
 
 import static org.junit.Assert.assertEquals;
@@ -175,6 +182,46 @@ public class EnableConfigurationPropertiesTests {
 		assertEquals("foo", this.context.getBean(TestConsumer.class).getName());
 	}
 
+	@Test
+	public void testRebindChangedProperties() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("name", "foo");
+		map.put("spring.config.watch", "true");
+		this.context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("test", map));
+		this.context.register(TestConfiguration.class);
+		this.context.refresh();
+		map.put("name", "bar");
+		Set<String> rebound = this.context.getBean(
+				ConfigurationPropertiesBindingPostProcessor.class).rebind(
+				Collections.singleton("name"));
+		assertEquals(1, rebound.size());
+		assertEquals("bar", this.context.getBean(TestProperties.class).getName());
+	}
+
+	@Test
+	public void testNoRebindWithoutWatch() {
+		TestUtils.addEnviroment(this.context, "name:foo");
+		this.context.register(TestConfiguration.class);
+		this.context.refresh();
+		Set<String> rebound = this.context.getBean(
+				ConfigurationPropertiesBindingPostProcessor.class).rebind(
+				Collections.singleton("name"));
+		assertEquals(0, rebound.size());
+	}
+
+	@Test
+	public void testNoRebindOfPrototypes() {
+		TestUtils.addEnviroment(this.context, "name:foo", "spring.config.watch:true");
+		this.context.register(PrototypeConfiguration.class);
+		this.context.refresh();
+		assertEquals("foo", this.context.getBean(TestProperties.class).getName());
+		Set<String> rebound = this.context.getBean(
+				ConfigurationPropertiesBindingPostProcessor.class).rebind(
+				Collections.singleton("name"));
+		assertEquals(0, rebound.size());
+	}
+
 	@Configuration
 	@EnableConfigurationProperties(TestProperties.class)
 	protected static class TestConfiguration {
@@ -190,6 +237,16 @@ public class EnableConfigurationPropertiesTests {
 		}
 	}
 
+	@Configuration
+	@EnableConfigurationProperties
+	protected static class PrototypeConfiguration {
+		@Bean
+		@Scope(BeanDefinition.SCOPE_PROTOTYPE)
+		public TestProperties testProperties() {
+			return new TestProperties();
+		}
+	}
+
 	@Configuration
 	@ImportResource("org/springframework/boot/context/properties/testProperties.xml")
 	protected static class DefaultXmlConfiguration {